@@ -1,163 +1,310 @@
 package InformationRetrieval.Document;
 
-import InformationRetrieval.Index.PositionalPostingList;
-import InformationRetrieval.Index.PostingList;
+import InformationRetrieval.Index.*;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class DiskCollection extends AbstractCollection{
+    private final ArrayList<Long> blockMemories = new ArrayList<>();
+    private int budgetFlushCount = 0;
 
     public DiskCollection(String directory, Parameter parameter) {
         super(directory, parameter);
     }
 
     /**
-     * In single pass in memory indexing, the index files are merged to get the final index file. This method
-     * checks if all parallel index files are combined or not.
-     * @param currentIdList Current pointers for the terms in parallel index files. currentIdList[0] is the current term
-     *                     in the first index file to be combined, currentIdList[2] is the current term in the second
-     *                     index file to be combined etc.
-     * @return True, if all merge operation is completed, false otherwise.
+     * Records a block saved in the construction of the disk indexes, for the block size metrics.
+     * @param estimatedMemory Estimated heap footprint of the block in bytes when it is saved.
+     * @param budgetReached True, if the block is saved because its estimated heap footprint reached the memory budget;
+     *                      false, if it is saved because of the document or word limit, or because it is the last block.
      */
-    private boolean notCombinedAllIndexes(int[] currentIdList){
-        for (int id : currentIdList){
-            if (id != -1){
-                return true;
-            }
+    protected void recordBlock(long estimatedMemory, boolean budgetReached){
+        blockMemories.add(estimatedMemory);
+        if (budgetReached){
+            budgetFlushCount++;
         }
-        return false;
     }
 
     /**
-     * In single pass in memory indexing, the index files are merged to get the final index file. This method
-     * identifies the indexes whose terms to be merged have the smallest term id. They will be selected and
-     * combined in the next phase.
-     * @param currentIdList Current pointers for the terms in parallel index files. currentIdList[0] is the current term
-     *                     in the first index file to be combined, currentIdList[2] is the current term in the second
-     *                     index file to be combined etc.
-     * @return An array list of indexes for the index files, whose terms to be merged have the smallest term id.
+     * Returns the number of blocks saved in the construction of the disk indexes. The blocks of each pass over the
+     * documents are counted separately, except that the term and phrase blocks saved together count as one block.
+     * @return Number of blocks saved.
+     */
+    public int getBlockCount(){
+        return blockMemories.size();
+    }
+
+    /**
+     * Returns the estimated heap footprints of the blocks saved in the construction of the disk indexes, in the order
+     * they are saved.
+     * @return Estimated heap footprints of the blocks in bytes.
+     */
+    public ArrayList<Long> getBlockMemories(){
+        return blockMemories;
+    }
+
+    /**
+     * Returns the largest estimated heap footprint of the blocks saved in the construction of the disk indexes.
+     * @return Largest estimated heap footprint of a block in bytes, 0 if no block is saved.
      */
-    private ArrayList<Integer> selectIndexesWithSmallestTermIds(int[] currentIdList){
-        ArrayList<Integer> result = new ArrayList<>();
-        int min = Integer.MAX_VALUE;
-        for (int id : currentIdList){
-            if (id != -1 && id < min){
-                min = id;
+    public long getMaxBlockMemory(){
+        long max = 0;
+        for (long memory : blockMemories){
+            if (memory > max){
+                max = memory;
             }
         }
-        for (int i = 0; i < currentIdList.length; i++){
-            if (currentIdList[i] == min){
-                result.add(i);
-            }
+        return max;
+    }
+
+    /**
+     * Returns the number of blocks saved because their estimated heap footprints reached the memory budget.
+     * @return Number of blocks saved because of the memory budget.
+     */
+    public int getBudgetFlushCount(){
+        return budgetFlushCount;
+    }
+
+    /**
+     * Returns the file names of the blocks of single pass in memory indexing. The block files are named by attaching
+     * the block number to the temporary name.
+     * @param tmpName Temporary name of the block files.
+     * @param blockCount Number of blocks.
+     * @return File names of the blocks, without the file type suffixes.
+     */
+    protected String[] blockFileNames(String tmpName, int blockCount){
+        String[] fileNames = new String[blockCount];
+        for (int i = 0; i < blockCount; i++){
+            fileNames[i] = "tmp-" + tmpName + i;
         }
-        return result;
+        return fileNames;
+    }
+
+    /**
+     * Deletes the intermediate files of a hierarchical merge, after the next level of the merge has read them.
+     * @param fileNames Names of the intermediate files, without the file type suffixes.
+     * @param extension File type suffix of the intermediate files.
+     */
+    protected void deleteMergedFiles(String[] fileNames, String extension){
+        for (String fileName : fileNames){
+            new File(fileName + extension).delete();
+        }
+    }
+
+    /**
+     * Sorts the first count block numbers in the given array in increasing order. Blocks with smaller numbers contain
+     * smaller document ids, therefore posting lists of a term are merged in this order.
+     * @param blocks Block numbers.
+     * @param count Number of block numbers to sort.
+     */
+    protected void sortBlocks(int[] blocks, int count){
+        Arrays.sort(blocks, 0, count);
     }
 
     /**
-     * In single pass in memory indexing, the index files are merged to get the final index file. This method
-     * implements the merging algorithm. Reads the index files in parallel and at each iteration merges the posting
-     * lists of the smallest term and put it to the merged index file. Updates the pointers of the indexes accordingly.
+     * In single pass in memory indexing, the index files are merged to get the final index file. If there are more
+     * index files than the open file limit, consecutive groups of at most open file limit files are first merged into
+     * intermediate binary index files, level by level, until the remaining files can be merged at once. The
+     * intermediate files of a level are deleted after the next level has merged them.
      * @param name Name of the collection.
      * @param tmpName Temporary name of the index files.
      * @param blockCount Number of index files to be merged.
      */
     protected void combineMultipleInvertedIndexesInDisk(String name, String tmpName, int blockCount){
-        BufferedReader[] files;
-        int[] currentIdList;
-        PostingList[] currentPostingLists;
-        currentIdList = new int[blockCount];
-        currentPostingLists = new PostingList[blockCount];
-        files = new BufferedReader[blockCount];
+        String[] fileNames = blockFileNames(tmpName, blockCount);
+        int limit = Math.max(2, parameter.getOpenFileLimit());
+        int level = 0;
+        while (fileNames.length > limit){
+            level++;
+            String[] mergedFileNames = new String[(fileNames.length + limit - 1) / limit];
+            for (int i = 0; i < mergedFileNames.length; i++){
+                mergedFileNames[i] = "tmp-" + tmpName + "merge" + level + "-" + i;
+                mergeInvertedIndexes(Arrays.copyOfRange(fileNames, i * limit, Math.min((i + 1) * limit, fileNames.length)), mergedFileNames[i], IndexFileFormat.BINARY);
+            }
+            if (level > 1){
+                deleteMergedFiles(fileNames, "-postings.bin");
+            }
+            fileNames = mergedFileNames;
+        }
+        mergeInvertedIndexes(fileNames, name, IndexFileFormat.TEXT);
+        if (level > 0){
+            deleteMergedFiles(fileNames, "-postings.bin");
+        }
+    }
+
+    /**
+     * Merges binary index files with a k-way merge. The current term id and posting list of each file are kept in
+     * primitive indexed arrays, and a heap of file numbers ordered by their current term ids gives the files whose
+     * posting lists of the smallest term are to be merged, so each output term costs O(log k) instead of a scan over
+     * all files.
+     * @param fileNames Names of the index files to be merged, in increasing order of their document ids.
+     * @param outputName Name of the merged index file.
+     * @param format Format of the merged index file. Intermediate merges are written in binary, the final merge in text.
+     */
+    private void mergeInvertedIndexes(String[] fileNames, String outputName, IndexFileFormat format){
+        int blockCount = fileNames.length;
+        BinaryIndexReader[] files = new BinaryIndexReader[blockCount];
+        int[] currentIdList = new int[blockCount];
+        PostingList[] currentPostingLists = new PostingList[blockCount];
+        int[] indexesToCombine = new int[blockCount];
+        BlockMergeHeap heap = new BlockMergeHeap(currentIdList);
         try{
-            PrintWriter printWriter = new PrintWriter(name + "-postings.txt", "UTF-8");
+            PrintWriter printWriter = null;
+            BinaryIndexWriter writer = null;
+            if (format == IndexFileFormat.TEXT){
+                printWriter = new PrintWriter(outputName + "-postings.txt", "UTF-8");
+            } else {
+                writer = new BinaryIndexWriter(outputName + "-postings.bin", BinaryIndexWriter.POSTINGS_MAGIC);
+            }
             for (int i = 0; i < blockCount; i++){
-                files[i] = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get("tmp-" + tmpName + i + "-postings.txt")), StandardCharsets.UTF_8));
-                String line = files[i].readLine();
-                String[] items = line.split(" ");
-                currentIdList[i] = Integer.parseInt(items[0]);
-                line = files[i].readLine();
-                currentPostingLists[i] = new PostingList(line);
+                files[i] = new BinaryIndexReader(fileNames[i] + "-postings.bin", BinaryIndexWriter.POSTINGS_MAGIC);
+                if (files[i].next()){
+                    currentIdList[i] = files[i].getTermId();
+                    currentPostingLists[i] = files[i].readPostingList();
+                    heap.push(i);
+                }
             }
-            while (notCombinedAllIndexes(currentIdList)){
-                ArrayList<Integer> indexesToCombine = selectIndexesWithSmallestTermIds(currentIdList);
-                PostingList mergedPostingList = currentPostingLists[indexesToCombine.get(0)];
-                for (int i = 1; i < indexesToCombine.size(); i++){
-                    mergedPostingList = mergedPostingList.merge(currentPostingLists[indexesToCombine.get(i)]);
+            while (!heap.isEmpty()){
+                int termId = currentIdList[heap.peek()];
+                int count = 0;
+                while (!heap.isEmpty() && currentIdList[heap.peek()] == termId){
+                    indexesToCombine[count] = heap.pop();
+                    count++;
+                }
+                sortBlocks(indexesToCombine, count);
+                PostingList mergedPostingList = currentPostingLists[indexesToCombine[0]];
+                for (int i = 1; i < count; i++){
+                    mergedPostingList = mergedPostingList.merge(currentPostingLists[indexesToCombine[i]]);
                 }
-                mergedPostingList.writeToFile(printWriter, currentIdList[indexesToCombine.get(0)]);
-                for (int i : indexesToCombine) {
-                    String line = files[i].readLine();
-                    if (line != null) {
-                        String[] items = line.split(" ");
-                        currentIdList[i] = Integer.parseInt(items[0]);
-                        line = files[i].readLine();
-                        currentPostingLists[i] = new PostingList(line);
-                    } else {
-                        currentIdList[i] = -1;
+                if (printWriter != null){
+                    mergedPostingList.writeToFile(printWriter, termId);
+                } else {
+                    writer.writePostingList(termId, mergedPostingList);
+                }
+                for (int i = 0; i < count; i++){
+                    int block = indexesToCombine[i];
+                    if (files[block].next()){
+                        currentIdList[block] = files[block].getTermId();
+                        currentPostingLists[block] = files[block].readPostingList();
+                        heap.push(block);
                     }
                 }
             }
             for (int i = 0; i < blockCount; i++){
                 files[i].close();
             }
-            printWriter.close();
-        } catch (IOException ignored) {
+            if (printWriter != null){
+                printWriter.close();
+            } else {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
     /**
-     * In single pass in memory indexing, the index files are merged to get the final index file. This method
-     * implements the merging algorithm. Reads the index files in parallel and at each iteration merges the positional
-     * posting lists of the smallest term and put it to the merged index file. Updates the pointers of the indexes accordingly.
+     * In single pass in memory indexing, the positional index files are merged to get the final positional index file.
+     * If there are more index files than the open file limit, consecutive groups of at most open file limit files are
+     * first merged into intermediate binary index files, level by level, until the remaining files can be merged at
+     * once. The intermediate files of a level are deleted after the next level has merged them.
      * @param name Name of the collection.
+     * @param tmpName Temporary name of the index files.
      * @param blockCount Number of index files to be merged.
      */
-    protected void combineMultiplePositionalIndexesInDisk(String name, int blockCount){
-        BufferedReader[] files;
-        int[] currentIdList;
-        PositionalPostingList[] currentPostingLists;
-        currentIdList = new int[blockCount];
-        currentPostingLists = new PositionalPostingList[blockCount];
-        files = new BufferedReader[blockCount];
+    protected void combineMultiplePositionalIndexesInDisk(String name, String tmpName, int blockCount){
+        String[] fileNames = blockFileNames(tmpName, blockCount);
+        int limit = Math.max(2, parameter.getOpenFileLimit());
+        int level = 0;
+        while (fileNames.length > limit){
+            level++;
+            String[] mergedFileNames = new String[(fileNames.length + limit - 1) / limit];
+            for (int i = 0; i < mergedFileNames.length; i++){
+                mergedFileNames[i] = "tmp-" + tmpName + "merge" + level + "-" + i;
+                mergePositionalIndexes(Arrays.copyOfRange(fileNames, i * limit, Math.min((i + 1) * limit, fileNames.length)), mergedFileNames[i], IndexFileFormat.BINARY);
+            }
+            if (level > 1){
+                deleteMergedFiles(fileNames, "-positionalPostings.bin");
+            }
+            fileNames = mergedFileNames;
+        }
+        mergePositionalIndexes(fileNames, name, IndexFileFormat.TEXT);
+        if (level > 0){
+            deleteMergedFiles(fileNames, "-positionalPostings.bin");
+        }
+    }
+
+    /**
+     * Merges binary positional index files with a k-way merge. The current term id and positional posting list of each
+     * file are kept in indexed arrays, and a heap of file numbers ordered by their current term ids gives the files
+     * whose positional posting lists of the smallest term are to be merged.
+     * @param fileNames Names of the positional index files to be merged, in increasing order of their document ids.
+     * @param outputName Name of the merged positional index file.
+     * @param format Format of the merged index file. Intermediate merges are written in binary, the final merge in text.
+     */
+    private void mergePositionalIndexes(String[] fileNames, String outputName, IndexFileFormat format){
+        int blockCount = fileNames.length;
+        BinaryIndexReader[] files = new BinaryIndexReader[blockCount];
+        int[] currentIdList = new int[blockCount];
+        PositionalPostingList[] currentPostingLists = new PositionalPostingList[blockCount];
+        int[] indexesToCombine = new int[blockCount];
+        BlockMergeHeap heap = new BlockMergeHeap(currentIdList);
         try{
-            PrintWriter printWriter = new PrintWriter(name + "-positionalPostings.txt", "UTF-8");
+            PrintWriter printWriter = null;
+            BinaryIndexWriter writer = null;
+            if (format == IndexFileFormat.TEXT){
+                printWriter = new PrintWriter(outputName + "-positionalPostings.txt", "UTF-8");
+            } else {
+                writer = new BinaryIndexWriter(outputName + "-positionalPostings.bin", BinaryIndexWriter.POSITIONAL_POSTINGS_MAGIC);
+            }
             for (int i = 0; i < blockCount; i++){
-                files[i] = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get("tmp-" + i + "-positionalPostings.txt")), StandardCharsets.UTF_8));
-                String line = files[i].readLine();
-                String[] items = line.split(" ");
-                currentIdList[i] = Integer.parseInt(items[0]);
-                currentPostingLists[i] = new PositionalPostingList(files[i], Integer.parseInt(items[1]));
+                files[i] = new BinaryIndexReader(fileNames[i] + "-positionalPostings.bin", BinaryIndexWriter.POSITIONAL_POSTINGS_MAGIC);
+                if (files[i].next()){
+                    currentIdList[i] = files[i].getTermId();
+                    currentPostingLists[i] = files[i].readPositionalPostingList();
+                    heap.push(i);
+                }
             }
-            while (notCombinedAllIndexes(currentIdList)){
-                ArrayList<Integer> indexesToCombine = selectIndexesWithSmallestTermIds(currentIdList);
-                PositionalPostingList mergedPostingList = currentPostingLists[indexesToCombine.get(0)];
-                for (int i = 1; i < indexesToCombine.size(); i++){
-                    mergedPostingList = mergedPostingList.merge(currentPostingLists[indexesToCombine.get(i)]);
+            while (!heap.isEmpty()){
+                int termId = currentIdList[heap.peek()];
+                int count = 0;
+                while (!heap.isEmpty() && currentIdList[heap.peek()] == termId){
+                    indexesToCombine[count] = heap.pop();
+                    count++;
                 }
-                mergedPostingList.writeToFile(printWriter, currentIdList[indexesToCombine.get(0)]);
-                for (int i : indexesToCombine) {
-                    String line = files[i].readLine();
-                    if (line != null) {
-                        String[] items = line.split(" ");
-                        currentIdList[i] = Integer.parseInt(items[0]);
-                        currentPostingLists[i] = new PositionalPostingList(files[i], Integer.parseInt(items[1]));
-                    } else {
-                        currentIdList[i] = -1;
+                sortBlocks(indexesToCombine, count);
+                PositionalPostingList mergedPostingList = currentPostingLists[indexesToCombine[0]];
+                for (int i = 1; i < count; i++){
+                    mergedPostingList = mergedPostingList.merge(currentPostingLists[indexesToCombine[i]]);
+                }
+                if (printWriter != null){
+                    mergedPostingList.writeToFile(printWriter, termId);
+                } else {
+                    writer.writePositionalPostingList(termId, mergedPostingList);
+                }
+                for (int i = 0; i < count; i++){
+                    int block = indexesToCombine[i];
+                    if (files[block].next()){
+                        currentIdList[block] = files[block].getTermId();
+                        currentPostingLists[block] = files[block].readPositionalPostingList();
+                        heap.push(block);
                     }
                 }
             }
             for (int i = 0; i < blockCount; i++){
                 files[i].close();
             }
-            printWriter.close();
-        } catch (IOException ignored) {
+            if (printWriter != null){
+                printWriter.close();
+            } else {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
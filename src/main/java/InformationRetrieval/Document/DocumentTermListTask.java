@@ -0,0 +1,36 @@
+package InformationRetrieval.Document;
+
+import InformationRetrieval.Index.TermOccurrence;
+import InformationRetrieval.Index.TermType;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+/**
+ * Task loading and tokenizing one document of a memory collection, so that the documents can be processed in parallel
+ * on a thread pool while the index is constructed.
+ */
+public class DocumentTermListTask implements Callable<ArrayList<TermOccurrence>> {
+    private final Document document;
+    private final TermType termType;
+
+    /**
+     * Constructor for the DocumentTermListTask class. Sets the document and the term type.
+     * @param document Document to be loaded.
+     * @param termType If term type is TOKEN, the terms are single word, if the term type is PHRASE, the terms are
+     *                 bi-words.
+     */
+    public DocumentTermListTask(Document document, TermType termType){
+        this.document = document;
+        this.termType = termType;
+    }
+
+    /**
+     * Loads the document and creates the list of its terms.
+     * @return Term occurrences of the document in the order of their positions.
+     */
+    public ArrayList<TermOccurrence> call(){
+        DocumentText documentText = document.loadDocument();
+        return documentText.constructTermList(document.getDocId(), termType);
+    }
+}
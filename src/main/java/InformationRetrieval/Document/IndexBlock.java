@@ -0,0 +1,82 @@
+package InformationRetrieval.Document;
+
+import Dictionary.WordComparator;
+import InformationRetrieval.Index.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * In progress block of single pass in memory indexing. A block holds a partial term dictionary, a partial inverted
+ * index and optionally a partial positional index of the documents added since the last flush, all filled from the
+ * same term list of each document. The heap footprint of the block is estimated while the documents are added, so that
+ * the block can be flushed to disk when a memory budget is reached.
+ */
+public class IndexBlock {
+    private final TermDictionary dictionary;
+    private final InvertedIndex invertedIndex;
+    private final PositionalIndex positionalIndex;
+
+    /**
+     * Constructor for the IndexBlock class. Creates an empty dictionary, an empty inverted index and, if required, an
+     * empty positional index.
+     * @param comparator Comparator method to compare two terms.
+     * @param positional If true, a positional index is also constructed.
+     */
+    public IndexBlock(WordComparator comparator, boolean positional){
+        dictionary = new TermDictionary(comparator);
+        invertedIndex = new InvertedIndex();
+        positionalIndex = positional ? new PositionalIndex() : null;
+    }
+
+    /**
+     * Adds the terms of a document to the block. A new term gets the hash code of its name as its id, so that the same
+     * term has the same id in all blocks. Each distinct term of the document is added once to the inverted index, and
+     * each occurrence is added to the positional index.
+     * @param terms Term occurrences of the document in the order of their positions.
+     * @param docId Id of the document.
+     */
+    public void addDocument(ArrayList<TermOccurrence> terms, int docId){
+        HashSet<Integer> distinctTermIds = new HashSet<>();
+        for (TermOccurrence termOccurrence : terms){
+            String word = termOccurrence.getTerm().getName();
+            int termId = dictionary.getTermId(word);
+            if (termId == -1){
+                termId = Math.abs(word.hashCode());
+                dictionary.addTerm(word, termId);
+            }
+            if (distinctTermIds.add(termId)){
+                invertedIndex.add(termId, docId);
+            }
+            if (positionalIndex != null){
+                positionalIndex.addPosition(termId, docId, termOccurrence.getPosition());
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated heap footprint of the block, which is the sum of the estimated footprints of its
+     * dictionary and indexes.
+     * @return Estimated heap footprint of the block in bytes.
+     */
+    public long estimatedMemory(){
+        long estimatedMemory = dictionary.estimatedMemory() + invertedIndex.estimatedMemory();
+        if (positionalIndex != null){
+            estimatedMemory += positionalIndex.estimatedMemory();
+        }
+        return estimatedMemory;
+    }
+
+    /**
+     * Saves the dictionary and the indexes of the block in binary format, which is read back sequentially while the
+     * blocks are merged.
+     * @param fileName Prefix of the files of the block.
+     */
+    public void save(String fileName){
+        dictionary.save(fileName, IndexFileFormat.BINARY);
+        invertedIndex.save(fileName, IndexFileFormat.BINARY);
+        if (positionalIndex != null){
+            positionalIndex.save(fileName, IndexFileFormat.BINARY);
+        }
+    }
+}
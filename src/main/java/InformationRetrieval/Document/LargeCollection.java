@@ -3,15 +3,12 @@ package InformationRetrieval.Document;
 import Dictionary.Word;
 import InformationRetrieval.Index.*;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 
 public class LargeCollection extends DiskCollection{
 
@@ -28,213 +25,193 @@ public class LargeCollection extends DiskCollection{
     }
 
     /**
-     * The method constructs the term dictionary and all indexes on disk.
+     * The method constructs the term dictionary and all indexes on disk. The term and phrase dictionaries, inverted
+     * indexes and positional indexes are constructed in a single pass over the documents.
      */
     private void constructDictionaryAndIndexesInDisk(){
-        constructDictionaryAndInvertedIndexInDisk(TermType.TOKEN);
-        if (parameter.constructPositionalIndex()){
-            constructDictionaryAndPositionalIndexInDisk(TermType.TOKEN);
-        }
-        if (parameter.constructPhraseIndex()){
-            constructDictionaryAndInvertedIndexInDisk(TermType.PHRASE);
-            if (parameter.constructPositionalIndex()){
-                constructDictionaryAndPositionalIndexInDisk(TermType.PHRASE);
-            }
-        }
+        constructDictionariesAndIndexesInDisk();
         if (parameter.constructNGramIndex()){
             constructNGramDictionaryAndIndexInDisk();
         }
     }
 
     /**
-     * In single pass in memory indexing, the dictionary files are merged to get the final dictionary file. This method
-     * checks if all parallel dictionaries are combined or not.
-     * @param currentWords Current pointers for the words in parallel dictionaries. currentWords[0] is the current word
-     *                     in the first dictionary to be combined, currentWords[2] is the current word in the second
-     *                     dictionary to be combined etc.
-     * @return True, if all merge operation is completed, false otherwise.
+     * In single pass in memory indexing, the dictionary files are merged to get the final dictionary file. If there are
+     * more dictionary files than the open file limit, consecutive groups of at most open file limit files are first
+     * merged into intermediate binary dictionary files, level by level, until the remaining files can be merged at
+     * once. The intermediate files of a level are deleted after the next level has merged them.
+     * @param name Name of the collection.
+     * @param tmpName Temporary name of the dictionary files.
+     * @param blockCount Number of dictionaries to be merged.
      */
-    private boolean notCombinedAllDictionaries(String[] currentWords){
-        for (String word : currentWords){
-            if (word != null){
-                return true;
+    private void combineMultipleDictionariesInDisk(String name, String tmpName, int blockCount){
+        String[] fileNames = blockFileNames(tmpName, blockCount);
+        int limit = Math.max(2, parameter.getOpenFileLimit());
+        int level = 0;
+        while (fileNames.length > limit){
+            level++;
+            String[] mergedFileNames = new String[(fileNames.length + limit - 1) / limit];
+            for (int i = 0; i < mergedFileNames.length; i++){
+                mergedFileNames[i] = "tmp-" + tmpName + "merge" + level + "-" + i;
+                mergeDictionaries(Arrays.copyOfRange(fileNames, i * limit, Math.min((i + 1) * limit, fileNames.length)), mergedFileNames[i], IndexFileFormat.BINARY);
             }
-        }
-        return false;
-    }
-
-    /**
-     * In single pass in memory indexing, the dictionary files are merged to get the final dictionary file. This method
-     * identifies the dictionaries whose words to be merged are lexicographically the first. They will be selected and
-     * combined in the next phase.
-     * @param currentWords Current pointers for the words in parallel dictionaries. currentWords[0] is the current word
-     *                     in the first dictionary to be combined, currentWords[2] is the current word in the second
-     *                     dictionary to be combined etc.
-     * @return An array list of indexes for the dictionaries, whose words to be merged are lexicographically the first.
-     */
-    private ArrayList<Integer> selectDictionariesWithMinimumWords(String[] currentWords){
-        ArrayList<Integer> result = new ArrayList<>();
-        String min = null;
-        for (String word: currentWords){
-            if (word != null && (min == null || comparator.compare(new Word(word), new Word(min)) < 0)){
-                min = word;
+            if (level > 1){
+                deleteMergedFiles(fileNames, "-dictionary.bin");
             }
+            fileNames = mergedFileNames;
         }
-        for (int i = 0; i < currentWords.length; i++){
-            if (currentWords[i] != null && currentWords[i].equals(min)){
-                result.add(i);
-            }
+        mergeDictionaries(fileNames, name, IndexFileFormat.TEXT);
+        if (level > 0){
+            deleteMergedFiles(fileNames, "-dictionary.bin");
         }
-        return result;
     }
 
     /**
-     * In single pass in memory indexing, the dictionary files are merged to get the final dictionary file. This method
-     * implements the merging algorithm. Reads the dictionary files in parallel and at each iteration puts the smallest
-     * word to the final dictionary. Updates the pointers of the dictionaries accordingly.
-     * @param name Name of the collection.
-     * @param tmpName Temporary name of the dictionary files.
-     * @param blockCount Number of dictionaries to be merged.
+     * Merges binary dictionary files with a k-way merge. The current word of each file is kept as a Word object, created
+     * once when it is read, and a heap of file numbers ordered by their current words gives the files whose words are
+     * lexicographically the first. Files with words that the comparator finds equal leave the heap in increasing order
+     * of their numbers; the word of the first one is put to the merged dictionary with its id, the pointers of the files
+     * with the same word are updated, and the files with other equal words are put back to the heap.
+     * @param fileNames Names of the dictionary files to be merged, in increasing order of their document ids.
+     * @param outputName Name of the merged dictionary file.
+     * @param format Format of the merged dictionary file. Intermediate merges are written in binary, the final merge in
+     *               text.
      */
-    private void combineMultipleDictionariesInDisk(String name, String tmpName, int blockCount){
-        BufferedReader[] files;
-        int[] currentIdList;
-        String[] currentWords;
-        currentIdList = new int[blockCount];
-        currentWords = new String[blockCount];
-        files = new BufferedReader[blockCount];
+    private void mergeDictionaries(String[] fileNames, String outputName, IndexFileFormat format){
+        int blockCount = fileNames.length;
+        BinaryDictionaryReader[] files = new BinaryDictionaryReader[blockCount];
+        int[] currentIdList = new int[blockCount];
+        Word[] currentWords = new Word[blockCount];
+        int[] indexesToCombine = new int[blockCount];
+        int[] otherIndexes = new int[blockCount];
+        BlockMergeHeap heap = new BlockMergeHeap(currentWords, comparator);
+        int count = 0;
         try{
-            PrintWriter printWriter = new PrintWriter(name + "-dictionary.txt", "UTF-8");
+            PrintWriter printWriter = null;
+            DataOutputStream outputStream = null;
+            if (format == IndexFileFormat.TEXT){
+                printWriter = new PrintWriter(outputName + "-dictionary.txt", "UTF-8");
+            } else {
+                outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputName + "-dictionary.bin"), 1 << 16));
+                outputStream.writeInt(BinaryIndexWriter.DICTIONARY_MAGIC);
+                outputStream.writeInt(BinaryIndexWriter.VERSION);
+                outputStream.writeInt(0);
+            }
             for (int i = 0; i < blockCount; i++){
-                files[i] = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get("tmp-" + tmpName + i + "-dictionary.txt")), StandardCharsets.UTF_8));
-                String line = files[i].readLine();
-                currentIdList[i] = Integer.parseInt(line.substring(0, line.indexOf(" ")));
-                currentWords[i] = line.substring(line.indexOf(" ") + 1);
+                files[i] = new BinaryDictionaryReader(fileNames[i] + "-dictionary.bin");
+                if (files[i].next()){
+                    currentIdList[i] = files[i].getTermId();
+                    currentWords[i] = new Word(files[i].getName());
+                    heap.push(i);
+                }
             }
-            while (notCombinedAllDictionaries(currentWords)){
-                ArrayList<Integer> indexesToCombine = selectDictionariesWithMinimumWords(currentWords);
-                printWriter.write(currentIdList[indexesToCombine.get(0)] + " " + currentWords[indexesToCombine.get(0)] + "\n");
-                for (int i : indexesToCombine) {
-                    String line = files[i].readLine();
-                    if (line != null) {
-                        currentIdList[i] = Integer.parseInt(line.substring(0, line.indexOf(" ")));
-                        currentWords[i] = line.substring(line.indexOf(" ") + 1);
+            while (!heap.isEmpty()){
+                int first = heap.pop();
+                String word = currentWords[first].getName();
+                int termId = currentIdList[first];
+                indexesToCombine[0] = first;
+                int combineCount = 1, otherCount = 0;
+                while (!heap.isEmpty() && comparator.compare(currentWords[heap.peek()], currentWords[first]) == 0){
+                    int block = heap.pop();
+                    if (currentWords[block].getName().equals(word)){
+                        indexesToCombine[combineCount] = block;
+                        combineCount++;
                     } else {
-                        currentWords[i] = null;
+                        otherIndexes[otherCount] = block;
+                        otherCount++;
+                    }
+                }
+                for (int j = 0; j < otherCount; j++){
+                    heap.push(otherIndexes[j]);
+                }
+                if (printWriter != null){
+                    printWriter.write(termId + " " + word + "\n");
+                } else {
+                    outputStream.writeInt(termId);
+                    outputStream.writeUTF(word);
+                }
+                count++;
+                for (int j = 0; j < combineCount; j++){
+                    int i = indexesToCombine[j];
+                    if (files[i].next()){
+                        currentIdList[i] = files[i].getTermId();
+                        currentWords[i] = new Word(files[i].getName());
+                        heap.push(i);
                     }
                 }
             }
             for (int i = 0; i < blockCount; i++){
                 files[i].close();
             }
-            printWriter.close();
-        } catch (IOException ignored) {
-        }
-    }
-
-    /**
-     * In single pass in memory indexing, the dictionaries and inverted indexes are created in a block wise manner. They
-     * do not fit in memory, therefore documents are read one by one. For each document, the terms are added to the
-     * current dictionary and inverted index. If the number of documents read are above the limit, current partial
-     * dictionary and inverted index file are saved and new dictionary and inverted index file are open. After reading
-     * all  documents, we combine the dictionary and inverted index files to get the final dictionary and inverted index
-     * file.
-     * @param termType If term type is TOKEN, the terms are single word, if the term type is PHRASE, the terms are
-     *                 bi-words.
-     */
-    private void constructDictionaryAndInvertedIndexInDisk(TermType termType){
-        int i = 0, blockCount = 0;
-        InvertedIndex invertedIndex = new InvertedIndex();
-        TermDictionary dictionary = new TermDictionary(comparator);
-        for (Document doc : documents){
-            if (i < parameter.getDocumentLimit()){
-                i++;
+            if (printWriter != null){
+                printWriter.close();
             } else {
-                dictionary.save("tmp-" + blockCount);
-                dictionary = new TermDictionary(comparator);
-                invertedIndex.save("tmp-" + blockCount);
-                invertedIndex = new InvertedIndex();
-                blockCount++;
-                i = 0;
+                outputStream.close();
+                RandomAccessFile countFile = new RandomAccessFile(outputName + "-dictionary.bin", "rw");
+                countFile.seek(BinaryIndexWriter.HEADER_SIZE);
+                countFile.writeInt(count);
+                countFile.close();
             }
-            DocumentText documentText = doc.loadDocument();
-            HashSet<String> wordList = documentText.constructDistinctWordList(termType);
-            for (String word : wordList){
-                int termId;
-                int wordIndex = dictionary.getWordIndex(word);
-                if (wordIndex != -1){
-                    termId = ((Term) dictionary.getWord(wordIndex)).getTermId();
-                } else {
-                    termId = Math.abs(word.hashCode());
-                    dictionary.addTerm(word, termId);
-                }
-                invertedIndex.add(termId, doc.getDocId());
-            }
-        }
-        if (!documents.isEmpty()){
-            dictionary.save("tmp-" + blockCount);
-            invertedIndex.save("tmp-" + blockCount);
-            blockCount++;
-        }
-        if (termType == TermType.TOKEN){
-            combineMultipleDictionariesInDisk(name, "", blockCount);
-            combineMultipleInvertedIndexesInDisk(name, "", blockCount);
-        } else {
-            combineMultipleDictionariesInDisk(name + "-phrase", "", blockCount);
-            combineMultipleInvertedIndexesInDisk(name + "-phrase", "", blockCount);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
     /**
-     * In single pass in memory indexing, the dictionaries and positional indexes are created in a block wise manner.
-     * They do not fit in memory, therefore documents are read one by one. For each document, the terms are added to the
-     * current dictionary and positional index. If the number of documents read are above the limit, current partial
-     * dictionary and positional index file are saved and new dictionary and positional index file are open. After
-     * reading all documents, we combine the dictionary and positional index files to get the final dictionary and
-     * positional index file.
-     * @param termType If term type is TOKEN, the terms are single word, if the term type is PHRASE, the terms are
-     *                 bi-words.
+     * In single pass in memory indexing, the dictionaries, inverted indexes and positional indexes of both terms and
+     * phrases are created in a block wise manner in a single pass over the documents. They do not fit in memory,
+     * therefore documents are read one by one. Each document is loaded and tokenized once, and its term and phrase
+     * lists are added to the current term and phrase blocks. If the number of documents read are above the limit, or
+     * the estimated memory of the blocks is above the memory budget, the current blocks are saved and new blocks are
+     * started. After reading all documents, we combine the dictionary and index files of the blocks to get the final
+     * dictionary and index files.
      */
-    private void constructDictionaryAndPositionalIndexInDisk(TermType termType){
+    private void constructDictionariesAndIndexesInDisk(){
         int i = 0, blockCount = 0;
-        PositionalIndex positionalIndex = new PositionalIndex();
-        TermDictionary dictionary = new TermDictionary(comparator);
+        boolean positional = parameter.constructPositionalIndex();
+        boolean phrase = parameter.constructPhraseIndex();
+        IndexBlock termBlock = new IndexBlock(comparator, positional);
+        IndexBlock phraseBlock = phrase ? new IndexBlock(comparator, positional) : null;
         for (Document doc : documents){
-            if (i < parameter.getDocumentLimit()){
-                i++;
-            } else {
-                dictionary.save("tmp-" + blockCount);
-                dictionary = new TermDictionary(comparator);
-                positionalIndex.save("tmp-" + blockCount);
-                positionalIndex = new PositionalIndex();
+            long estimatedMemory = termBlock.estimatedMemory() + (phrase ? phraseBlock.estimatedMemory() : 0);
+            boolean budgetReached = estimatedMemory >= parameter.getMemoryBudget();
+            if (i >= parameter.getDocumentLimit() || budgetReached){
+                recordBlock(estimatedMemory, budgetReached);
+                termBlock.save("tmp-" + blockCount);
+                termBlock = new IndexBlock(comparator, positional);
+                if (phrase){
+                    phraseBlock.save("tmp-phrase-" + blockCount);
+                    phraseBlock = new IndexBlock(comparator, positional);
+                }
                 blockCount++;
                 i = 0;
             }
+            i++;
             DocumentText documentText = doc.loadDocument();
-            ArrayList<TermOccurrence> terms = documentText.constructTermList(doc.getDocId(), termType);
-            for (TermOccurrence termOccurrence : terms){
-                int termId;
-                int wordIndex = dictionary.getWordIndex(termOccurrence.getTerm().getName());
-                if (wordIndex != -1){
-                    termId = ((Term) dictionary.getWord(wordIndex)).getTermId();
-                } else {
-                    termId = Math.abs(termOccurrence.getTerm().getName().hashCode());
-                    dictionary.addTerm(termOccurrence.getTerm().getName(), termId);
-                }
-                positionalIndex.addPosition(termId, termOccurrence.getDocID(), termOccurrence.getPosition());
+            termBlock.addDocument(documentText.constructTermList(doc.getDocId(), TermType.TOKEN), doc.getDocId());
+            if (phrase){
+                phraseBlock.addDocument(documentText.constructTermList(doc.getDocId(), TermType.PHRASE), doc.getDocId());
             }
         }
         if (!documents.isEmpty()){
-            dictionary.save("tmp-" + blockCount);
-            positionalIndex.save("tmp-" + blockCount);
+            recordBlock(termBlock.estimatedMemory() + (phrase ? phraseBlock.estimatedMemory() : 0), false);
+            termBlock.save("tmp-" + blockCount);
+            if (phrase){
+                phraseBlock.save("tmp-phrase-" + blockCount);
+            }
             blockCount++;
         }
-        if (termType == TermType.TOKEN){
-            combineMultipleDictionariesInDisk(name, "", blockCount);
-            combineMultiplePositionalIndexesInDisk(name, blockCount);
-        } else {
-            combineMultipleDictionariesInDisk(name + "-phrase", "", blockCount);
-            combineMultiplePositionalIndexesInDisk(name + "-phrase", blockCount);
+        combineMultipleDictionariesInDisk(name, "", blockCount);
+        combineMultipleInvertedIndexesInDisk(name, "", blockCount);
+        if (positional){
+            combineMultiplePositionalIndexesInDisk(name, "", blockCount);
+        }
+        if (phrase){
+            combineMultipleDictionariesInDisk(name + "-phrase", "phrase-", blockCount);
+            combineMultipleInvertedIndexesInDisk(name + "-phrase", "phrase-", blockCount);
+            if (positional){
+                combineMultiplePositionalIndexesInDisk(name + "-phrase", "phrase-", blockCount);
+            }
         }
     }
 
@@ -252,11 +229,8 @@ public class LargeCollection extends DiskCollection{
         String word = line.substring(line.indexOf(" ") + 1);
         ArrayList<TermOccurrence> biGrams = TermDictionary.constructNGrams(word, wordId, N);
         for (TermOccurrence term : biGrams){
-            int termId;
-            int wordIndex = nGramDictionary.getWordIndex(term.getTerm().getName());
-            if (wordIndex != -1){
-                termId = ((Term) nGramDictionary.getWord(wordIndex)).getTermId();
-            } else {
+            int termId = nGramDictionary.getTermId(term.getTerm().getName());
+            if (termId == -1){
                 termId = Math.abs(term.getTerm().getName().hashCode());
                 nGramDictionary.addTerm(term.getTerm().getName(), termId);
             }
@@ -267,10 +241,10 @@ public class LargeCollection extends DiskCollection{
     /**
      * In single pass in memory indexing, the dictionaries and N-gram indexes are created in a block wise manner.
      * They do not fit in memory, therefore documents are read one by one. For each document, the terms are added to the
-     * current dictionary and N-gram index. If the number of documents read are above the limit, current partial
-     * dictionary and N-gram index file are saved and new dictionary and N-gram index file are open. After
-     * reading all documents, we combine the dictionary and N-gram index files to get the final dictionary and
-     * N-gram index file.
+     * current dictionary and N-gram index. If the number of words read are above the limit, or the estimated memory of
+     * the dictionaries and N-gram indexes is above the memory budget, current partial dictionary and N-gram index file
+     * are saved and new dictionary and N-gram index file are open. After reading all documents, we combine the
+     * dictionary and N-gram index files to get the final dictionary and N-gram index file.
      */
     private void constructNGramDictionaryAndIndexInDisk(){
         int i = 0, blockCount = 0;
@@ -283,16 +257,19 @@ public class LargeCollection extends DiskCollection{
             br = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(name + "-dictionary.txt")), StandardCharsets.UTF_8));
             String line = br.readLine();
             while (line != null) {
-                if (i < parameter.getWordLimit()){
+                long estimatedMemory = biGramDictionary.estimatedMemory() + triGramDictionary.estimatedMemory() + biGramIndex.estimatedMemory() + triGramIndex.estimatedMemory();
+                boolean budgetReached = estimatedMemory >= parameter.getMemoryBudget();
+                if (i < parameter.getWordLimit() && !budgetReached){
                     i++;
                 } else {
-                    biGramDictionary.save("tmp-biGram-" + blockCount);
-                    triGramDictionary.save("tmp-triGram-" + blockCount);
+                    recordBlock(estimatedMemory, budgetReached);
+                    biGramDictionary.save("tmp-biGram-" + blockCount, IndexFileFormat.BINARY);
+                    triGramDictionary.save("tmp-triGram-" + blockCount, IndexFileFormat.BINARY);
                     biGramDictionary = new TermDictionary(comparator);
                     triGramDictionary = new TermDictionary(comparator);
-                    biGramIndex.save("tmp-biGram-" + blockCount);
+                    biGramIndex.save("tmp-biGram-" + blockCount, IndexFileFormat.BINARY);
                     biGramIndex = new NGramIndex();
-                    triGramIndex.save("tmp-triGram-" + blockCount);
+                    triGramIndex.save("tmp-triGram-" + blockCount, IndexFileFormat.BINARY);
                     triGramIndex = new NGramIndex();
                     blockCount++;
                     i = 0;
@@ -306,10 +283,11 @@ public class LargeCollection extends DiskCollection{
             throw new RuntimeException(e);
         }
         if (!documents.isEmpty()){
-            biGramDictionary.save("tmp-biGram-" + blockCount);
-            triGramDictionary.save("tmp-triGram-" + blockCount);
-            biGramIndex.save("tmp-biGram-" + blockCount);
-            triGramIndex.save("tmp-triGram-" + blockCount);
+            recordBlock(biGramDictionary.estimatedMemory() + triGramDictionary.estimatedMemory() + biGramIndex.estimatedMemory() + triGramIndex.estimatedMemory(), false);
+            biGramDictionary.save("tmp-biGram-" + blockCount, IndexFileFormat.BINARY);
+            triGramDictionary.save("tmp-triGram-" + blockCount, IndexFileFormat.BINARY);
+            biGramIndex.save("tmp-biGram-" + blockCount, IndexFileFormat.BINARY);
+            triGramIndex.save("tmp-triGram-" + blockCount, IndexFileFormat.BINARY);
             blockCount++;
         }
         combineMultipleDictionariesInDisk(name + "-biGram", "biGram-", blockCount);
@@ -64,9 +64,9 @@ public class MediumCollection extends DiskCollection{
     /**
      * In block sort based indexing, the inverted index is created in a block wise manner. It does not fit in memory,
      * therefore documents are read one by one. For each document, the terms are added to the inverted index. If the
-     * number of documents read are above the limit, current partial inverted index file is saved and new inverted index
-     * file is open. After reading all documents, we combine the inverted index files to get the final inverted index
-     * file.
+     * number of documents read are above the limit, or the estimated memory of the inverted index is above the memory
+     * budget, current partial inverted index file is saved and new inverted index file is open. After reading all
+     * documents, we combine the inverted index files to get the final inverted index file.
      * @param dictionary Term dictionary.
      * @param termType If term type is TOKEN, the terms are single word, if the term type is PHRASE, the terms are
      *                 bi-words.
@@ -75,10 +75,12 @@ public class MediumCollection extends DiskCollection{
         int i = 0, blockCount = 0;
         InvertedIndex invertedIndex = new InvertedIndex();
         for (Document doc : documents){
-            if (i < parameter.getDocumentLimit()){
+            boolean budgetReached = invertedIndex.estimatedMemory() >= parameter.getMemoryBudget();
+            if (i < parameter.getDocumentLimit() && !budgetReached){
                 i++;
             } else {
-                invertedIndex.save("tmp-" + blockCount);
+                recordBlock(invertedIndex.estimatedMemory(), budgetReached);
+                invertedIndex.save("tmp-" + blockCount, IndexFileFormat.BINARY);
                 invertedIndex = new InvertedIndex();
                 blockCount++;
                 i = 0;
@@ -91,7 +93,8 @@ public class MediumCollection extends DiskCollection{
             }
         }
         if (!documents.isEmpty()){
-            invertedIndex.save("tmp-" + blockCount);
+            recordBlock(invertedIndex.estimatedMemory(), false);
+            invertedIndex.save("tmp-" + blockCount, IndexFileFormat.BINARY);
             blockCount++;
         }
         if (termType == TermType.TOKEN){
@@ -104,9 +107,9 @@ public class MediumCollection extends DiskCollection{
     /**
      * In block sort based indexing, the positional index is created in a block wise manner. It does not fit in memory,
      * therefore documents are read one by one. For each document, the terms are added to the positional index. If the
-     * number of documents read are above the limit, current partial positional index file is saved and new positional
-     * index file is open. After reading all documents, we combine the posiitonal index files to get the final
-     * positional index file.
+     * number of documents read are above the limit, or the estimated memory of the positional index is above the memory
+     * budget, current partial positional index file is saved and new positional index file is open. After reading all
+     * documents, we combine the posiitonal index files to get the final positional index file.
      * @param dictionary Term dictionary.
      * @param termType If term type is TOKEN, the terms are single word, if the term type is PHRASE, the terms are
      *                 bi-words.
@@ -115,10 +118,12 @@ public class MediumCollection extends DiskCollection{
         int i = 0, blockCount = 0;
         PositionalIndex positionalIndex = new PositionalIndex();
         for (Document doc : documents){
-            if (i < parameter.getDocumentLimit()){
+            boolean budgetReached = positionalIndex.estimatedMemory() >= parameter.getMemoryBudget();
+            if (i < parameter.getDocumentLimit() && !budgetReached){
                 i++;
             } else {
-                positionalIndex.save("tmp-" + blockCount);
+                recordBlock(positionalIndex.estimatedMemory(), budgetReached);
+                positionalIndex.save("tmp-" + blockCount, IndexFileFormat.BINARY);
                 positionalIndex = new PositionalIndex();
                 blockCount++;
                 i = 0;
@@ -131,13 +136,14 @@ public class MediumCollection extends DiskCollection{
             }
         }
         if (!documents.isEmpty()){
-            positionalIndex.save("tmp-" + blockCount);
+            recordBlock(positionalIndex.estimatedMemory(), false);
+            positionalIndex.save("tmp-" + blockCount, IndexFileFormat.BINARY);
             blockCount++;
         }
         if (termType == TermType.TOKEN){
-            combineMultiplePositionalIndexesInDisk(name, blockCount);
+            combineMultiplePositionalIndexesInDisk(name, "", blockCount);
         } else {
-            combineMultiplePositionalIndexesInDisk(name + "-phrase", blockCount);
+            combineMultiplePositionalIndexesInDisk(name + "-phrase", "", blockCount);
         }
     }
 
@@ -5,9 +5,14 @@ import InformationRetrieval.Query.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MemoryCollection extends AbstractCollection {
     private final IndexType indexType;
+    private AutoCompleteIndex autoCompleteIndex = null;
 
     /**
      * Constructor for the MemoryCollection class. In small collections, dictionary and indexes are kept in memory.
@@ -27,59 +32,134 @@ public class MemoryCollection extends AbstractCollection {
             positionalIndex.setCategoryCounts(documents);
             categoryTree.setRepresentativeCount(parameter.getRepresentativeCount());
         }
+        if (parameter.getDictionaryType() != DictionaryType.STANDARD) {
+            compactDictionaries();
+        }
+        if (indexType == IndexType.INVERTED_INDEX && parameter.getCompressionType() != CompressionType.NONE) {
+            compressIndexes();
+        }
+    }
+
+    /**
+     * The method replaces the term, phrase and N-Gram dictionaries with their read only front coded or finite state
+     * variants given in the parameter. The compact dictionaries store the terms in byte arrays or in a minimal
+     * automaton instead of a Term object per term. Since they are read only and throw UnsupportedOperationException
+     * from addTerm, they are swapped in only after all dictionaries and indexes are constructed or loaded; afterwards
+     * the collection only reads its dictionaries.
+     */
+    private void compactDictionaries() {
+        dictionary = compactDictionary(dictionary);
+        phraseDictionary = compactDictionary(phraseDictionary);
+        biGramDictionary = compactDictionary(biGramDictionary);
+        triGramDictionary = compactDictionary(triGramDictionary);
+    }
+
+    /**
+     * Constructs the compact variant of the given dictionary given in the parameter.
+     * @param termDictionary Dictionary to be compacted.
+     * @return Front coded or finite state dictionary containing the terms of the given dictionary.
+     */
+    private TermDictionary compactDictionary(TermDictionary termDictionary) {
+        if (termDictionary == null) {
+            return null;
+        }
+        switch (parameter.getDictionaryType()) {
+            case FRONT_CODED:
+                return new FrontCodedTermDictionary(comparator, termDictionary);
+            case FINITE_STATE:
+                return new FiniteStateTermDictionary(comparator, termDictionary);
+        }
+        return termDictionary;
+    }
+
+    /**
+     * The method compresses the inverted index, positional index, phrase and N-Gram indexes, so that the posting lists
+     * are kept compressed in memory. Inverted and N-Gram indexes use the codec given in the parameter, positional
+     * indexes always use variable byte encoding.
+     */
+    private void compressIndexes() {
+        CompressionType compressionType = parameter.getCompressionType();
+        invertedIndex.compress(compressionType);
+        if (positionalIndex != null) {
+            positionalIndex.compress();
+        }
+        if (phraseIndex != null) {
+            phraseIndex.compress(compressionType);
+        }
+        if (phrasePositionalIndex != null) {
+            phrasePositionalIndex.compress();
+        }
+        if (biGramIndex != null) {
+            biGramIndex.compress(compressionType);
+        }
+        if (triGramIndex != null) {
+            triGramIndex.compress(compressionType);
+        }
     }
 
     /**
      * The method loads the term dictionary, inverted index, positional index, phrase and N-Gram indexes from dictionary
-     * and index files to the memory.
+     * and index files to the memory. The files are read in the file format given in the parameter. If memory mapping is
+     * enabled for binary files, the inverted and phrase indexes are memory mapped instead of being read.
      * @param directory Directory where the document collection resides.
      */
     protected void loadIndexesFromFile(String directory) {
-        dictionary = new TermDictionary(comparator, directory);
-        invertedIndex = new InvertedIndex(directory);
+        IndexFileFormat format = parameter.getIndexFileFormat();
+        boolean memoryMap = parameter.memoryMapIndexes() && format == IndexFileFormat.BINARY;
+        dictionary = new TermDictionary(comparator, directory, format);
+        if (memoryMap) {
+            invertedIndex = new MappedInvertedIndex(directory);
+        } else {
+            invertedIndex = new InvertedIndex(directory, format);
+        }
         if (parameter.constructPositionalIndex()) {
-            positionalIndex = new PositionalIndex(directory);
+            positionalIndex = new PositionalIndex(directory, format);
             positionalIndex.setDocumentSizes(documents);
         }
         if (parameter.constructPhraseIndex()) {
-            phraseDictionary = new TermDictionary(comparator, directory + "-phrase");
-            phraseIndex = new InvertedIndex(directory + "-phrase");
+            phraseDictionary = new TermDictionary(comparator, directory + "-phrase", format);
+            if (memoryMap) {
+                phraseIndex = new MappedInvertedIndex(directory + "-phrase");
+            } else {
+                phraseIndex = new InvertedIndex(directory + "-phrase", format);
+            }
             if (parameter.constructPositionalIndex()) {
-                phrasePositionalIndex = new PositionalIndex(directory + "-phrase");
+                phrasePositionalIndex = new PositionalIndex(directory + "-phrase", format);
             }
         }
         if (parameter.constructNGramIndex()) {
-            biGramDictionary = new TermDictionary(comparator, directory + "-biGram");
-            triGramDictionary = new TermDictionary(comparator, directory + "-triGram");
-            biGramIndex = new NGramIndex(directory + "-biGram");
-            triGramIndex = new NGramIndex(directory + "-triGram");
+            biGramDictionary = new TermDictionary(comparator, directory + "-biGram", format);
+            triGramDictionary = new TermDictionary(comparator, directory + "-triGram", format);
+            biGramIndex = new NGramIndex(directory + "-biGram", format);
+            triGramIndex = new NGramIndex(directory + "-triGram", format);
         }
     }
 
     /**
      * The method saves the term dictionary, inverted index, positional index, phrase and N-Gram indexes to the dictionary
-     * and index files. If the collection is a categorical collection, categories are also saved to the category
-     * files.
+     * and index files in the file format given in the parameter. If the collection is a categorical collection,
+     * categories are also saved to the category files.
      */
     public void save() {
+        IndexFileFormat format = parameter.getIndexFileFormat();
         if (indexType == IndexType.INVERTED_INDEX) {
-            dictionary.save(name);
-            invertedIndex.save(name);
+            dictionary.save(name, format);
+            invertedIndex.save(name, format);
             if (parameter.constructPositionalIndex()) {
-                positionalIndex.save(name);
+                positionalIndex.save(name, format);
             }
             if (parameter.constructPhraseIndex()) {
-                phraseDictionary.save(name + "-phrase");
-                phraseIndex.save(name + "-phrase");
+                phraseDictionary.save(name + "-phrase", format);
+                phraseIndex.save(name + "-phrase", format);
                 if (parameter.constructPositionalIndex()) {
-                    phrasePositionalIndex.save(name + "-phrase");
+                    phrasePositionalIndex.save(name + "-phrase", format);
                 }
             }
             if (parameter.constructNGramIndex()) {
-                biGramDictionary.save(name + "-biGram");
-                triGramDictionary.save(name + "-triGram");
-                biGramIndex.save(name + "-biGram");
-                triGramIndex.save(name + "-triGram");
+                biGramDictionary.save(name + "-biGram", format);
+                triGramDictionary.save(name + "-triGram", format);
+                biGramIndex.save(name + "-biGram", format);
+                triGramIndex.save(name + "-triGram", format);
             }
         }
         if (parameter.getDocumentType() == DocumentType.CATEGORICAL) {
@@ -140,7 +220,10 @@ public class MemoryCollection extends AbstractCollection {
     /**
      * Given the document collection, creates an array list of terms. If term type is TOKEN, the terms are single
      * word, if the term type is PHRASE, the terms are bi-words. Each document is loaded into memory and
-     * word list is created. Since the dictionary can be kept in memory, all operations can be done in memory.
+     * word list is created. Since the dictionary can be kept in memory, all operations can be done in memory. If the
+     * thread count parameter is larger than 1, the documents are loaded and tokenized in parallel on a thread pool of
+     * that size, and the terms are sorted with a parallel sort. Since the terms are ordered by term, document id and
+     * position, the result does not depend on the number of threads.
      * @param termType If term type is TOKEN, the terms are single word, if the term type is PHRASE, the terms are
      *                 bi-words.
      * @return Array list of terms occurring in the document collection.
@@ -149,13 +232,35 @@ public class MemoryCollection extends AbstractCollection {
         TermOccurrenceComparator termComparator = new TermOccurrenceComparator(comparator);
         ArrayList<TermOccurrence> terms = new ArrayList<>();
         ArrayList<TermOccurrence> docTerms;
-        for (Document doc : documents) {
-            DocumentText documentText = doc.loadDocument();
-            docTerms = documentText.constructTermList(doc.getDocId(), termType);
-            terms.addAll(docTerms);
+        if (parameter.getThreadCount() <= 1) {
+            for (Document doc : documents) {
+                DocumentText documentText = doc.loadDocument();
+                docTerms = documentText.constructTermList(doc.getDocId(), termType);
+                terms.addAll(docTerms);
+            }
+            terms.sort(termComparator);
+            return terms;
         }
-        terms.sort(termComparator);
-        return terms;
+        ExecutorService executor = Executors.newFixedThreadPool(parameter.getThreadCount());
+        try {
+            ArrayList<Future<ArrayList<TermOccurrence>>> futures = new ArrayList<>();
+            for (Document doc : documents) {
+                futures.add(executor.submit(new DocumentTermListTask(doc, termType)));
+            }
+            for (Future<ArrayList<TermOccurrence>> future : futures) {
+                terms.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        TermOccurrence[] sortedTerms = terms.toArray(new TermOccurrence[0]);
+        Arrays.parallelSort(sortedTerms, termComparator);
+        return new ArrayList<>(Arrays.asList(sortedTerms));
     }
 
     /**
@@ -198,17 +303,12 @@ public class MemoryCollection extends AbstractCollection {
                 filteredResult = searchWithInvertedIndex(filteredQuery, parameter);
                 return filteredResult.intersectionFastSearch(attributeResult);
             } else {
-                filteredResult = positionalIndex.rankedSearch(filteredQuery,
+                return positionalIndex.rankedSearch(filteredQuery,
                         dictionary,
                         documents,
-                        parameter);
-                if (attributeResult.size() < 10) {
-                    filteredResult = filteredResult.intersectionLinearSearch(attributeResult);
-                } else {
-                    filteredResult = filteredResult.intersectionBinarySearch(attributeResult);
-                }
-                filteredResult.getBest(parameter.getDocumentsRetrieved());
-                return filteredResult;
+                        parameter,
+                        parameter.getDocumentsRetrieved(),
+                        attributeResult);
             }
         }
     }
@@ -228,12 +328,11 @@ public class MemoryCollection extends AbstractCollection {
             case POSITIONAL:
                 return positionalIndex.positionalSearch(query, dictionary);
             case RANKED:
-                QueryResult result = positionalIndex.rankedSearch(query,
+                return positionalIndex.rankedSearch(query,
                         dictionary,
                         documents,
-                        parameter);
-                result.getBest(parameter.getDocumentsRetrieved());
-                return result;
+                        parameter,
+                        parameter.getDocumentsRetrieved());
         }
         return new QueryResult();
     }
@@ -303,18 +402,24 @@ public class MemoryCollection extends AbstractCollection {
      * @return An auto complete list of product names for a given prefix.
      */
     public ArrayList<String> autoCompleteWord(String prefix) {
-        ArrayList<String> result = new ArrayList<>();
-        int i = dictionary.getWordStartingWith(prefix);
-        while (i < dictionary.size()) {
-            if (dictionary.getWord(i).getName().startsWith(prefix)) {
-                result.add(dictionary.getWord(i).getName());
-            } else {
-                break;
-            }
-            i++;
-        }
+        ArrayList<String> result = dictionary.getWordsStartingWith(prefix);
         invertedIndex.autoCompleteWord(result, dictionary);
         return result;
     }
 
+    /**
+     * Returns the k product names with the largest document frequencies for a given prefix. The auto complete index is
+     * constructed at the first call, after which the time of a call depends on k, not on the number of names starting
+     * with the prefix.
+     * @param prefix Prefix of the name of the product.
+     * @param k Maximum number of names to return.
+     * @return Top k product names for a given prefix, sorted according to frequencies.
+     */
+    public ArrayList<String> autoCompleteWord(String prefix, int k) {
+        if (autoCompleteIndex == null) {
+            autoCompleteIndex = new AutoCompleteIndex(dictionary, invertedIndex);
+        }
+        return autoCompleteIndex.topK(prefix, k);
+    }
+
 }
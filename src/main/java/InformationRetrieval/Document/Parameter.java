@@ -2,6 +2,9 @@ package InformationRetrieval.Document;
 
 import Dictionary.TurkishWordComparator;
 import Dictionary.WordComparator;
+import InformationRetrieval.Index.CompressionType;
+import InformationRetrieval.Index.DictionaryType;
+import InformationRetrieval.Index.IndexFileFormat;
 import MorphologicalAnalysis.FsmMorphologicalAnalyzer;
 import MorphologicalDisambiguation.MorphologicalDisambiguator;
 
@@ -21,6 +24,13 @@ public class Parameter {
     private int wordLimit = 10000;
     private DocumentType documentType = DocumentType.NORMAL;
     private int representativeCount = 10;
+    private CompressionType compressionType = CompressionType.NONE;
+    private IndexFileFormat indexFileFormat = IndexFileFormat.TEXT;
+    private boolean memoryMapIndexes = false;
+    private DictionaryType dictionaryType = DictionaryType.STANDARD;
+    private int threadCount = 1;
+    private long memoryBudget = 64L * 1024 * 1024;
+    private int openFileLimit = 100;
 
     /**
      * Empty constructor for the general query search.
@@ -273,4 +283,140 @@ public class Parameter {
         this.representativeCount = representativeCount;
     }
 
+    /**
+     * Accessor for the compressionType search parameter. If compressionType is not NONE, the posting lists of the
+     * inverted and positional indexes are kept compressed in memory and the queries are evaluated over them. The codec
+     * can be variable byte encoding or block based PForDelta; the latter is used only for the inverted indexes.
+     * @return compressionType search parameter
+     */
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    /**
+     * Mutator for the compressionType search parameter. If compressionType is not NONE, the posting lists of the
+     * inverted and positional indexes are kept compressed in memory and the queries are evaluated over them. The codec
+     * can be variable byte encoding or block based PForDelta; the latter is used only for the inverted indexes.
+     * @param compressionType compressionType search parameter
+     */
+    public void setCompressionType(CompressionType compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    /**
+     * Accessor for the indexFileFormat search parameter. indexFileFormat is the format of the dictionary and index files
+     * saved and loaded by the collection; the files are either space separated text or the binary index format.
+     * @return indexFileFormat search parameter
+     */
+    public IndexFileFormat getIndexFileFormat() {
+        return indexFileFormat;
+    }
+
+    /**
+     * Mutator for the indexFileFormat search parameter. indexFileFormat is the format of the dictionary and index files
+     * saved and loaded by the collection; the files are either space separated text or the binary index format.
+     * @param indexFileFormat indexFileFormat search parameter
+     */
+    public void setIndexFileFormat(IndexFileFormat indexFileFormat) {
+        this.indexFileFormat = indexFileFormat;
+    }
+
+    /**
+     * Accessor for the memoryMapIndexes search parameter. If memoryMapIndexes is true and the index files are in the
+     * binary format, the inverted and phrase indexes loaded from file are memory mapped, and the posting lists are
+     * decoded only when a query needs them.
+     * @return memoryMapIndexes search parameter
+     */
+    public boolean memoryMapIndexes() {
+        return memoryMapIndexes;
+    }
+
+    /**
+     * Mutator for the memoryMapIndexes search parameter. If memoryMapIndexes is true and the index files are in the
+     * binary format, the inverted and phrase indexes loaded from file are memory mapped, and the posting lists are
+     * decoded only when a query needs them.
+     * @param memoryMapIndexes memoryMapIndexes search parameter
+     */
+    public void setMemoryMapIndexes(boolean memoryMapIndexes) {
+        this.memoryMapIndexes = memoryMapIndexes;
+    }
+
+    /**
+     * Accessor for the dictionaryType search parameter. After the dictionaries are constructed or loaded, they are
+     * replaced with read only front coded or finite state dictionaries, if dictionaryType is FRONT_CODED or
+     * FINITE_STATE respectively.
+     * @return dictionaryType search parameter
+     */
+    public DictionaryType getDictionaryType() {
+        return dictionaryType;
+    }
+
+    /**
+     * Mutator for the dictionaryType search parameter. After the dictionaries are constructed or loaded, they are
+     * replaced with read only front coded or finite state dictionaries, if dictionaryType is FRONT_CODED or
+     * FINITE_STATE respectively.
+     * @param dictionaryType dictionaryType search parameter
+     */
+    public void setDictionaryType(DictionaryType dictionaryType) {
+        this.dictionaryType = dictionaryType;
+    }
+
+    /**
+     * Accessor for the threadCount search parameter. threadCount is the number of threads loading and tokenizing the
+     * documents in parallel while the index of a memory collection is constructed. If threadCount is 1, which is the
+     * default, the documents are processed sequentially.
+     * @return threadCount search parameter
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Mutator for the threadCount search parameter. threadCount is the number of threads loading and tokenizing the
+     * documents in parallel while the index of a memory collection is constructed. If threadCount is 1, which is the
+     * default, the documents are processed sequentially.
+     * @param threadCount threadCount search parameter
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Accessor for the memoryBudget search parameter. memoryBudget is the estimated heap size in bytes of the
+     * partial dictionaries and indexes of a medium or large collection, after which they are saved as a block and new
+     * ones are started, even if the documentLimit or the wordLimit is not reached.
+     * @return memoryBudget search parameter
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Mutator for the memoryBudget search parameter. memoryBudget is the estimated heap size in bytes of the
+     * partial dictionaries and indexes of a medium or large collection, after which they are saved as a block and new
+     * ones are started, even if the documentLimit or the wordLimit is not reached.
+     * @param memoryBudget memoryBudget search parameter
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Accessor for the openFileLimit search parameter. openFileLimit is the largest number of block files merged at
+     * once in disk based index construction. If there are more blocks, they are merged in multiple levels.
+     * @return openFileLimit search parameter
+     */
+    public int getOpenFileLimit() {
+        return openFileLimit;
+    }
+
+    /**
+     * Mutator for the openFileLimit search parameter. openFileLimit is the largest number of block files merged at
+     * once in disk based index construction. If there are more blocks, they are merged in multiple levels.
+     * @param openFileLimit openFileLimit search parameter
+     */
+    public void setOpenFileLimit(int openFileLimit) {
+        this.openFileLimit = openFileLimit;
+    }
+
 }
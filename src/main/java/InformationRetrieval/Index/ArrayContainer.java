@@ -0,0 +1,221 @@
+package InformationRetrieval.Index;
+
+import java.util.Arrays;
+
+/**
+ * Roaring container storing at most 4096 values as a sorted array of 16 bit integers.
+ */
+public class ArrayContainer extends RoaringContainer {
+    private char[] values;
+    private int cardinality;
+
+    /**
+     * Constructs an empty array container.
+     */
+    public ArrayContainer(){
+        values = new char[4];
+        cardinality = 0;
+    }
+
+    /**
+     * Constructs an array container from the given sorted values.
+     * @param values Sorted values.
+     * @param cardinality Number of values in the array.
+     */
+    public ArrayContainer(char[] values, int cardinality){
+        this.values = values;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Constructs an array container from the set bits of a bitset.
+     * @param words Bitset of 1024 words.
+     * @param cardinality Number of set bits in the bitset.
+     */
+    public ArrayContainer(long[] words, int cardinality){
+        int k = 0;
+        values = new char[Math.max(cardinality, 1)];
+        for (int i = 0; i < WORD_COUNT; i++){
+            long word = words[i];
+            while (word != 0){
+                values[k] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                k++;
+                word &= word - 1;
+            }
+        }
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Adds the given value to the array keeping the array sorted. If the array is full, it is converted to a bitset
+     * container.
+     * @param value Low 16 bits of the integer to be added.
+     * @return This container or the bitset container replacing it.
+     */
+    public RoaringContainer add(char value){
+        int index;
+        if (cardinality > 0 && values[cardinality - 1] < value){
+            index = cardinality;
+        } else {
+            index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0){
+                return this;
+            }
+            index = -index - 1;
+        }
+        if (cardinality == MAX_ARRAY_SIZE){
+            long[] words = toWords();
+            words[value >>> 6] |= 1L << value;
+            return new BitsetContainer(words, cardinality + 1);
+        }
+        if (cardinality == values.length){
+            values = Arrays.copyOf(values, Math.min(2 * values.length, MAX_ARRAY_SIZE));
+        }
+        System.arraycopy(values, index, values, index + 1, cardinality - index);
+        values[index] = value;
+        cardinality++;
+        return this;
+    }
+
+    /**
+     * Checks if the array contains the given value with binary search.
+     * @param value Low 16 bits of the integer to be searched.
+     * @return True, if the value exists in the container, false otherwise.
+     */
+    public boolean contains(char value){
+        return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    /**
+     * Returns the number of values in the container.
+     * @return Number of values in the container.
+     */
+    public int cardinality(){
+        return cardinality;
+    }
+
+    /**
+     * Counts the runs of consecutive values in the array.
+     * @return Number of runs of consecutive values in the container.
+     */
+    public int runCount(){
+        int runs = 0;
+        for (int i = 0; i < cardinality; i++){
+            if (i == 0 || values[i] != values[i - 1] + 1){
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Sets the bits of the values in the array in the given bitset.
+     * @param words Bitset of 1024 words.
+     */
+    void setBits(long[] words){
+        for (int i = 0; i < cardinality; i++){
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+    }
+
+    /**
+     * Clears the bits of the values in the array in the given bitset.
+     * @param words Bitset of 1024 words.
+     */
+    void clearBits(long[] words){
+        for (int i = 0; i < cardinality; i++){
+            words[values[i] >>> 6] &= ~(1L << values[i]);
+        }
+    }
+
+    /**
+     * Returns the array as a new bitset of 1024 words.
+     * @return Bitset representation of the container.
+     */
+    public long[] toWords(){
+        long[] words = new long[WORD_COUNT];
+        setBits(words);
+        return words;
+    }
+
+    /**
+     * Writes the integers in the container in increasing order into the buffer.
+     * @param buffer Output buffer.
+     * @param offset Position in the buffer to start writing.
+     * @param high High 16 bits of the integers in the container.
+     * @return Position in the buffer after the last integer written.
+     */
+    public int fill(int[] buffer, int offset, int high){
+        for (int i = 0; i < cardinality; i++){
+            buffer[offset] = (high << 16) | values[i];
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Returns a copy of the container.
+     * @return Copy of the container.
+     */
+    public RoaringContainer copy(){
+        return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+    }
+
+    /**
+     * Keeps the values of the array that exist (or do not exist) in the other container. If the other container is also
+     * an array, the two arrays are merged linearly.
+     * @param other Second container.
+     * @param keep If true, the values existing in the other container are kept; otherwise the values not existing in
+     *             the other container are kept.
+     * @return Array container of the kept values.
+     */
+    RoaringContainer filter(RoaringContainer other, boolean keep){
+        char[] result = new char[Math.max(cardinality, 1)];
+        int k = 0;
+        if (other instanceof ArrayContainer){
+            ArrayContainer array = (ArrayContainer) other;
+            int j = 0;
+            for (int i = 0; i < cardinality; i++){
+                while (j < array.cardinality && array.values[j] < values[i]){
+                    j++;
+                }
+                if ((j < array.cardinality && array.values[j] == values[i]) == keep){
+                    result[k] = values[i];
+                    k++;
+                }
+            }
+        } else {
+            for (int i = 0; i < cardinality; i++){
+                if (other.contains(values[i]) == keep){
+                    result[k] = values[i];
+                    k++;
+                }
+            }
+        }
+        return new ArrayContainer(result, k);
+    }
+
+    /**
+     * Union of two array containers whose total size is at most 4096.
+     * @param other Second array container.
+     * @return Array container of the union.
+     */
+    RoaringContainer merge(ArrayContainer other){
+        char[] result = new char[Math.max(cardinality + other.cardinality, 1)];
+        int i = 0, j = 0, k = 0;
+        while (i < cardinality || j < other.cardinality){
+            if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])){
+                result[k] = values[i];
+                i++;
+            } else {
+                if (i < cardinality && values[i] == other.values[j]){
+                    i++;
+                }
+                result[k] = other.values[j];
+                j++;
+            }
+            k++;
+        }
+        return new ArrayContainer(result, k);
+    }
+}
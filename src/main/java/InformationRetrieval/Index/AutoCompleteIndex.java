@@ -0,0 +1,255 @@
+package InformationRetrieval.Index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Trie of the dictionary terms, in which every node is annotated with the best term in its subtree: the term with the
+ * largest document frequency, ties broken in favor of the term coming first in the dictionary. The top k completions
+ * of a prefix are found with a best first search starting from the node of the prefix: a heap holds nodes keyed by
+ * their best terms and terms keyed by themselves, and each popped term is the next completion. Since the key of a node
+ * is never worse than the keys in its subtree, only the nodes on the paths to the returned terms and their children
+ * are visited, instead of all terms starting with the prefix.
+ */
+public class AutoCompleteIndex {
+    private char[] labels;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] lastChildren;
+    private int[] nextSiblings;
+    private int[] termIndexes;
+    private int[] documentFrequencies;
+    private int[] bestIndexes;
+    private int[] bestFrequencies;
+    private int nodeCount;
+    private final String[] words;
+
+    /**
+     * Constructs the trie of the terms in the given dictionary, annotated with their document frequencies in the given
+     * inverted index.
+     * @param dictionary Term dictionary
+     * @param invertedIndex Inverted index of the terms.
+     */
+    public AutoCompleteIndex(TermDictionary dictionary, InvertedIndex invertedIndex){
+        int capacity = Math.max(16, 2 * dictionary.size());
+        labels = new char[capacity];
+        parents = new int[capacity];
+        firstChildren = new int[capacity];
+        lastChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        termIndexes = new int[capacity];
+        documentFrequencies = new int[capacity];
+        words = new String[dictionary.size()];
+        for (int i = 0; i < words.length; i++){
+            words[i] = dictionary.getWord(i).getName();
+        }
+        String[] names = Arrays.copyOf(words, words.length);
+        Arrays.sort(names);
+        nodeCount = 0;
+        newNode(-1, (char) 0);
+        int[] path = new int[1];
+        String previous = "";
+        for (String name : names){
+            int common = 0;
+            while (common < previous.length() && common < name.length() && previous.charAt(common) == name.charAt(common)){
+                common++;
+            }
+            if (path.length < name.length() + 1){
+                path = Arrays.copyOf(path, Math.max(2 * path.length, name.length() + 1));
+            }
+            for (int i = common; i < name.length(); i++){
+                path[i + 1] = newNode(path[i], name.charAt(i));
+            }
+            int node = path[name.length()];
+            int index = dictionary.getWordIndex(name);
+            termIndexes[node] = index;
+            documentFrequencies[node] = invertedIndex.documentFrequency(((Term) dictionary.getWord(index)).getTermId());
+            previous = name;
+        }
+        bestIndexes = new int[nodeCount];
+        bestFrequencies = new int[nodeCount];
+        Arrays.fill(bestIndexes, -1);
+        for (int node = nodeCount - 1; node >= 0; node--){
+            if (termIndexes[node] != -1 && isBetter(documentFrequencies[node], termIndexes[node], bestFrequencies[node], bestIndexes[node])){
+                bestFrequencies[node] = documentFrequencies[node];
+                bestIndexes[node] = termIndexes[node];
+            }
+            int parent = parents[node];
+            if (parent != -1 && bestIndexes[node] != -1 && isBetter(bestFrequencies[node], bestIndexes[node], bestFrequencies[parent], bestIndexes[parent])){
+                bestFrequencies[parent] = bestFrequencies[node];
+                bestIndexes[parent] = bestIndexes[node];
+            }
+        }
+    }
+
+    /**
+     * Checks if the first term comes before the second term in the completion order, that is, if it has a larger
+     * document frequency, or the same document frequency and a smaller index in the dictionary. An index of -1 denotes
+     * a missing term.
+     * @param frequency1 Document frequency of the first term.
+     * @param index1 Dictionary index of the first term.
+     * @param frequency2 Document frequency of the second term.
+     * @param index2 Dictionary index of the second term.
+     * @return True, if the first term comes before the second term, false otherwise.
+     */
+    private static boolean isBetter(int frequency1, int index1, int frequency2, int index2){
+        if (index2 == -1){
+            return true;
+        }
+        return frequency1 > frequency2 || (frequency1 == frequency2 && index1 < index2);
+    }
+
+    /**
+     * Creates a new node as the last child of the given parent. Since the terms are inserted in character order, the
+     * children of a node are linked in the increasing order of their labels.
+     * @param parent Parent of the new node, -1 for the root.
+     * @param label Character on the edge from the parent to the new node.
+     * @return Index of the new node.
+     */
+    private int newNode(int parent, char label){
+        if (nodeCount == labels.length){
+            int capacity = 2 * labels.length;
+            labels = Arrays.copyOf(labels, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            lastChildren = Arrays.copyOf(lastChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            termIndexes = Arrays.copyOf(termIndexes, capacity);
+            documentFrequencies = Arrays.copyOf(documentFrequencies, capacity);
+        }
+        int node = nodeCount;
+        nodeCount++;
+        labels[node] = label;
+        parents[node] = parent;
+        firstChildren[node] = -1;
+        lastChildren[node] = -1;
+        nextSiblings[node] = -1;
+        termIndexes[node] = -1;
+        if (parent != -1){
+            if (lastChildren[parent] == -1){
+                firstChildren[parent] = node;
+            } else {
+                nextSiblings[lastChildren[parent]] = node;
+            }
+            lastChildren[parent] = node;
+        }
+        return node;
+    }
+
+    /**
+     * Follows the characters of the given prefix from the root.
+     * @param prefix Prefix to follow.
+     * @return Node reached with the prefix, -1 if no term starts with the prefix.
+     */
+    private int find(String prefix){
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node != -1; i++){
+            int child = firstChildren[node];
+            while (child != -1 && labels[child] < prefix.charAt(i)){
+                child = nextSiblings[child];
+            }
+            node = (child != -1 && labels[child] == prefix.charAt(i)) ? child : -1;
+        }
+        return node;
+    }
+
+    /**
+     * Returns the heap key of a term, which orders the terms by decreasing document frequency and then by increasing
+     * dictionary index.
+     * @param frequency Document frequency of the term.
+     * @param index Dictionary index of the term.
+     * @return Heap key of the term.
+     */
+    private static long key(int frequency, int index){
+        return ((long) (Integer.MAX_VALUE - frequency) << 32) | index;
+    }
+
+    /**
+     * Returns the k terms starting with the given prefix that have the largest document frequencies, in decreasing
+     * order of document frequency. Terms with the same document frequency are ordered as in the dictionary.
+     * @param prefix Prefix of the terms.
+     * @param k Maximum number of terms to return.
+     * @return Top k terms starting with the prefix.
+     */
+    public ArrayList<String> topK(String prefix, int k){
+        ArrayList<String> result = new ArrayList<>();
+        int start = find(prefix);
+        if (start == -1 || k <= 0 || bestIndexes[start] == -1){
+            return result;
+        }
+        long[] keys = new long[16];
+        int[] entries = new int[16];
+        int size = 0;
+        keys[0] = key(bestFrequencies[start], bestIndexes[start]);
+        entries[0] = start;
+        size++;
+        while (size > 0 && result.size() < k){
+            int entry = entries[0];
+            size--;
+            long lastKey = keys[size];
+            int lastEntry = entries[size];
+            int position = 0;
+            while (2 * position + 1 < size){
+                int child = 2 * position + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]){
+                    child++;
+                }
+                if (keys[child] >= lastKey){
+                    break;
+                }
+                keys[position] = keys[child];
+                entries[position] = entries[child];
+                position = child;
+            }
+            keys[position] = lastKey;
+            entries[position] = lastEntry;
+            if (entry < 0){
+                result.add(words[termIndexes[~entry]]);
+                continue;
+            }
+            int pushCount = 0;
+            if (termIndexes[entry] != -1){
+                pushCount++;
+            }
+            for (int child = firstChildren[entry]; child != -1; child = nextSiblings[child]){
+                pushCount++;
+            }
+            if (size + pushCount > keys.length){
+                keys = Arrays.copyOf(keys, Math.max(2 * keys.length, size + pushCount));
+                entries = Arrays.copyOf(entries, keys.length);
+            }
+            if (termIndexes[entry] != -1){
+                size = push(keys, entries, size, key(documentFrequencies[entry], termIndexes[entry]), ~entry);
+            }
+            for (int child = firstChildren[entry]; child != -1; child = nextSiblings[child]){
+                size = push(keys, entries, size, key(bestFrequencies[child], bestIndexes[child]), child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pushes an entry into the binary min heap stored in the given arrays. The arrays should have room for the entry.
+     * @param keys Keys of the heap entries.
+     * @param entries Heap entries; a node index, or the complement of a node index for the term ending at that node.
+     * @param size Number of entries in the heap.
+     * @param key Key of the new entry.
+     * @param entry New entry.
+     * @return Number of entries in the heap after the push.
+     */
+    private static int push(long[] keys, int[] entries, int size, long key, int entry){
+        int position = size;
+        while (position > 0){
+            int parent = (position - 1) / 2;
+            if (keys[parent] <= key){
+                break;
+            }
+            keys[position] = keys[parent];
+            entries[position] = entries[parent];
+            position = parent;
+        }
+        keys[position] = key;
+        entries[position] = entry;
+        return size + 1;
+    }
+}
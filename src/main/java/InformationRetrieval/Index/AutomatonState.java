@@ -0,0 +1,138 @@
+package InformationRetrieval.Index;
+
+import java.util.Arrays;
+
+/**
+ * State of the acyclic automaton built while constructing a {@link FiniteStateTermDictionary}. The transitions of a
+ * state are kept in the order they are added, which is the increasing order of their labels, since the terms are added
+ * in sorted order. Two states are equivalent if they are both final or both not final and they have the same labels
+ * leading to the same target states; equivalent states are merged so that the common suffixes of the terms are stored
+ * once.
+ */
+public class AutomatonState {
+    private char[] labels;
+    private AutomatonState[] targets;
+    private int size;
+    private boolean isFinal;
+
+    /**
+     * Constructs a non final state without transitions.
+     */
+    public AutomatonState(){
+        labels = new char[2];
+        targets = new AutomatonState[2];
+        size = 0;
+        isFinal = false;
+    }
+
+    /**
+     * Adds a transition with the given label to the given state. The label should be larger than the labels of the
+     * existing transitions.
+     * @param label Label of the transition.
+     * @param target Target state of the transition.
+     */
+    public void addTransition(char label, AutomatonState target){
+        if (size == labels.length){
+            labels = Arrays.copyOf(labels, 2 * size);
+            targets = Arrays.copyOf(targets, 2 * size);
+        }
+        labels[size] = label;
+        targets[size] = target;
+        size++;
+    }
+
+    /**
+     * Returns the number of transitions of the state.
+     * @return Number of transitions of the state.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the label of the transition at the given index.
+     * @param index Index of the transition.
+     * @return Label of the transition.
+     */
+    public char getLabel(int index){
+        return labels[index];
+    }
+
+    /**
+     * Returns the target state of the transition at the given index.
+     * @param index Index of the transition.
+     * @return Target state of the transition.
+     */
+    public AutomatonState getTarget(int index){
+        return targets[index];
+    }
+
+    /**
+     * Returns the target state of the last added transition.
+     * @return Target state of the last transition.
+     */
+    public AutomatonState lastTarget(){
+        return targets[size - 1];
+    }
+
+    /**
+     * Replaces the target state of the last added transition.
+     * @param target New target state of the last transition.
+     */
+    public void setLastTarget(AutomatonState target){
+        targets[size - 1] = target;
+    }
+
+    /**
+     * Checks if a term ends at this state.
+     * @return True, if the state is final, false otherwise.
+     */
+    public boolean isFinal(){
+        return isFinal;
+    }
+
+    /**
+     * Marks the state as final.
+     */
+    public void setFinal(){
+        isFinal = true;
+    }
+
+    /**
+     * Checks if the given state is equivalent to this state. The target states are compared by identity, since they are
+     * already merged with their equivalents.
+     * @param o State to compare.
+     * @return True, if the states are equivalent, false otherwise.
+     */
+    public boolean equals(Object o){
+        if (this == o){
+            return true;
+        }
+        if (!(o instanceof AutomatonState)){
+            return false;
+        }
+        AutomatonState state = (AutomatonState) o;
+        if (isFinal != state.isFinal || size != state.size){
+            return false;
+        }
+        for (int i = 0; i < size; i++){
+            if (labels[i] != state.labels[i] || targets[i] != state.targets[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the hash code of the state from its final flag, its labels and the identities of its target states.
+     * @return Hash code of the state.
+     */
+    public int hashCode(){
+        int result = isFinal ? 1 : 0;
+        for (int i = 0; i < size; i++){
+            result = 31 * result + labels[i];
+            result = 31 * result + System.identityHashCode(targets[i]);
+        }
+        return result;
+    }
+}
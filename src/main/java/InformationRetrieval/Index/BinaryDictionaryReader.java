@@ -0,0 +1,70 @@
+package InformationRetrieval.Index;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Sequential reader of the binary dictionary files written by {@link TermDictionary#save(String, IndexFileFormat)}.
+ * After checking the header, the terms are read one by one with next() in the order they are stored.
+ */
+public class BinaryDictionaryReader {
+    private final DataInputStream inputStream;
+    private int remaining;
+    private int termId;
+    private String name;
+
+    /**
+     * Opens the dictionary file and checks its header.
+     * @param fileName Dictionary file name.
+     * @throws IOException If the file can not be read, or it is not a binary dictionary file of the supported version.
+     */
+    public BinaryDictionaryReader(String fileName) throws IOException {
+        inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16));
+        if (inputStream.readInt() != BinaryIndexWriter.DICTIONARY_MAGIC || inputStream.readInt() != BinaryIndexWriter.VERSION){
+            inputStream.close();
+            throw new IOException(fileName + " is not a supported binary dictionary file");
+        }
+        remaining = inputStream.readInt();
+    }
+
+    /**
+     * Reads the next term of the file.
+     * @return True, if a term is read; false, if all terms are read.
+     * @throws IOException If the file can not be read.
+     */
+    public boolean next() throws IOException {
+        if (remaining == 0){
+            return false;
+        }
+        remaining--;
+        termId = inputStream.readInt();
+        name = inputStream.readUTF();
+        return true;
+    }
+
+    /**
+     * Accessor for the term id of the current term.
+     * @return Term id of the current term.
+     */
+    public int getTermId(){
+        return termId;
+    }
+
+    /**
+     * Accessor for the name of the current term.
+     * @return Name of the current term.
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Closes the dictionary file.
+     * @throws IOException If the file can not be closed.
+     */
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
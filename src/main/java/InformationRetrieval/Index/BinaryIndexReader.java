@@ -0,0 +1,139 @@
+package InformationRetrieval.Index;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Sequential reader of the files written by {@link BinaryIndexWriter}. After checking the header, the records are read
+ * one by one with next(); the posting blob of the current record is decoded with readPostingList() or
+ * readPositionalPostingList().
+ */
+public class BinaryIndexReader {
+    private final DataInputStream inputStream;
+    private byte[] blob;
+    private int termId;
+    private int count;
+
+    /**
+     * Opens the index file and checks its header.
+     * @param fileName Index file name.
+     * @param magic Expected magic number of the file type.
+     * @throws IOException If the file can not be read, or it is not an index file of the expected type and version.
+     */
+    public BinaryIndexReader(String fileName, int magic) throws IOException {
+        inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16));
+        if (inputStream.readInt() != magic){
+            inputStream.close();
+            throw new IOException(fileName + " is not a binary index file of the expected type");
+        }
+        if (inputStream.readInt() != BinaryIndexWriter.VERSION){
+            inputStream.close();
+            throw new IOException(fileName + " has an unsupported binary index format version");
+        }
+        blob = new byte[1024];
+    }
+
+    /**
+     * Reads the next record of the file.
+     * @return True, if a record is read; false, if the end of the records is reached.
+     * @throws IOException If the file can not be read.
+     */
+    public boolean next() throws IOException {
+        int length;
+        termId = inputStream.readInt();
+        if (termId == BinaryIndexWriter.END_OF_RECORDS){
+            return false;
+        }
+        count = inputStream.readInt();
+        length = inputStream.readInt();
+        if (length > blob.length){
+            blob = new byte[Math.max(length, 2 * blob.length)];
+        }
+        inputStream.readFully(blob, 0, length);
+        return true;
+    }
+
+    /**
+     * Accessor for the term id of the current record.
+     * @return Term id of the current record.
+     */
+    public int getTermId(){
+        return termId;
+    }
+
+    /**
+     * Accessor for the number of postings of the current record.
+     * @return Number of postings of the current record.
+     */
+    public int getCount(){
+        return count;
+    }
+
+    /**
+     * Decodes the blob of the current record as a posting list.
+     * @return Posting list of the current record.
+     */
+    public PostingList readPostingList(){
+        return decodePostingList(blob, 0, count);
+    }
+
+    /**
+     * Decodes the blob of the current record as a positional posting list.
+     * @return Positional posting list of the current record.
+     */
+    public PositionalPostingList readPositionalPostingList(){
+        return decodePositionalPostingList(blob, 0, count);
+    }
+
+    /**
+     * Decodes a posting list blob, in which the document id gaps are variable byte encoded.
+     * @param bytes Byte array containing the blob.
+     * @param offset Offset of the blob in the array.
+     * @param count Number of postings in the blob.
+     * @return Decoded posting list.
+     */
+    public static PostingList decodePostingList(byte[] bytes, int offset, int count){
+        VariableByteReader reader = new VariableByteReader(bytes, offset);
+        PostingList postingList = new PostingList(count);
+        int docId = 0;
+        for (int i = 0; i < count; i++){
+            docId += reader.read();
+            postingList.add(docId);
+        }
+        return postingList;
+    }
+
+    /**
+     * Decodes a positional posting list blob, which stores the document id gap, the number of positions and the
+     * position gaps of each document variable byte encoded.
+     * @param bytes Byte array containing the blob.
+     * @param offset Offset of the blob in the array.
+     * @param count Number of documents in the blob.
+     * @return Decoded positional posting list.
+     */
+    public static PositionalPostingList decodePositionalPostingList(byte[] bytes, int offset, int count){
+        VariableByteReader reader = new VariableByteReader(bytes, offset);
+        PositionalPostingList positionalPostingList = new PositionalPostingList();
+        int docId = 0;
+        for (int i = 0; i < count; i++){
+            int positionCount, position = 0;
+            docId += reader.read();
+            positionCount = reader.read();
+            for (int j = 0; j < positionCount; j++){
+                position += reader.read();
+                positionalPostingList.add(docId, position);
+            }
+        }
+        return positionalPostingList;
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException If the file can not be closed.
+     */
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
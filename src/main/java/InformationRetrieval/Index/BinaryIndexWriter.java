@@ -0,0 +1,129 @@
+package InformationRetrieval.Index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Writes posting lists in the binary index format. The file starts with a header containing the magic number of the
+ * file type and the format version. The header is followed by one self delimiting record for each term: the term id,
+ * the number of postings, the length of the posting blob in bytes and the blob itself, in which the document id gaps
+ * (and for positional postings, the number of positions and the position gaps of each document) are variable byte
+ * encoded. The records end with the term id -1. The records are followed by the term table, which stores the number of
+ * terms and the term id and the file offset of each record, and the file ends with the offset of the term table.
+ */
+public class BinaryIndexWriter {
+    public static final int VERSION = 1;
+    public static final int POSTINGS_MAGIC = 0x49525049;
+    public static final int POSITIONAL_POSTINGS_MAGIC = 0x49525050;
+    public static final int DICTIONARY_MAGIC = 0x49525444;
+    public static final int FRONT_CODED_DICTIONARY_MAGIC = 0x49525446;
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_HEADER_SIZE = 12;
+    public static final int END_OF_RECORDS = -1;
+
+    private final DataOutputStream outputStream;
+    private final VariableByteArray blob;
+    private long position;
+    private int[] termIds;
+    private long[] offsets;
+    private int termCount;
+
+    /**
+     * Creates the index file and writes its header.
+     * @param fileName Index file name.
+     * @param magic Magic number of the file type.
+     * @throws IOException If the file can not be created.
+     */
+    public BinaryIndexWriter(String fileName, int magic) throws IOException {
+        outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+        outputStream.writeInt(magic);
+        outputStream.writeInt(VERSION);
+        position = HEADER_SIZE;
+        blob = new VariableByteArray();
+        termIds = new int[16];
+        offsets = new long[16];
+        termCount = 0;
+    }
+
+    /**
+     * Writes a record with the given term id, posting count and the blob, and adds the record to the term table.
+     * @param termId Term id of the record.
+     * @param count Number of postings.
+     */
+    private void writeRecord(int termId, int count) throws IOException {
+        if (termCount == termIds.length){
+            termIds = Arrays.copyOf(termIds, 2 * termIds.length);
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        termIds[termCount] = termId;
+        offsets[termCount] = position;
+        termCount++;
+        outputStream.writeInt(termId);
+        outputStream.writeInt(count);
+        outputStream.writeInt(blob.length());
+        outputStream.write(blob.getBytes(), 0, blob.length());
+        position += RECORD_HEADER_SIZE + blob.length();
+    }
+
+    /**
+     * Writes the posting list of a term. The document ids are stored as variable byte encoded gaps.
+     * @param termId Term id of the posting list.
+     * @param postingList Posting list to be written.
+     * @throws IOException If the file can not be written.
+     */
+    public void writePostingList(int termId, PostingList postingList) throws IOException {
+        int previous = 0;
+        blob.clear();
+        for (int i = 0; i < postingList.size(); i++){
+            blob.add(postingList.get(i) - previous);
+            previous = postingList.get(i);
+        }
+        writeRecord(termId, postingList.size());
+    }
+
+    /**
+     * Writes the positional posting list of a term. For each document, the document id gap, the number of positions
+     * and the position gaps are stored variable byte encoded.
+     * @param termId Term id of the positional posting list.
+     * @param positionalPostingList Positional posting list to be written.
+     * @throws IOException If the file can not be written.
+     */
+    public void writePositionalPostingList(int termId, PositionalPostingList positionalPostingList) throws IOException {
+        int previous = 0;
+        blob.clear();
+        for (int i = 0; i < positionalPostingList.size(); i++){
+            PositionalPosting positionalPosting = positionalPostingList.get(i);
+            ArrayList<Posting> positions = positionalPosting.getPositions();
+            int previousPosition = 0;
+            blob.add(positionalPosting.getDocId() - previous);
+            blob.add(positions.size());
+            for (Posting position : positions){
+                blob.add(position.getId() - previousPosition);
+                previousPosition = position.getId();
+            }
+            previous = positionalPosting.getDocId();
+        }
+        writeRecord(termId, positionalPostingList.size());
+    }
+
+    /**
+     * Writes the end marker, the term table and the offset of the term table, then closes the file.
+     * @throws IOException If the file can not be written.
+     */
+    public void close() throws IOException {
+        long tableOffset;
+        outputStream.writeInt(END_OF_RECORDS);
+        tableOffset = position + 4;
+        outputStream.writeInt(termCount);
+        for (int i = 0; i < termCount; i++){
+            outputStream.writeInt(termIds[i]);
+            outputStream.writeLong(offsets[i]);
+        }
+        outputStream.writeLong(tableOffset);
+        outputStream.close();
+    }
+}
@@ -0,0 +1,101 @@
+package InformationRetrieval.Index;
+
+/**
+ * Roaring container storing more than 4096 values as a bitset of 1024 long words.
+ */
+public class BitsetContainer extends RoaringContainer {
+    private final long[] words;
+    private int cardinality;
+
+    /**
+     * Constructs a bitset container from the given words.
+     * @param words Bitset of 1024 words.
+     * @param cardinality Number of set bits in the bitset.
+     */
+    public BitsetContainer(long[] words, int cardinality){
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Sets the bit of the given value.
+     * @param value Low 16 bits of the integer to be added.
+     * @return This container.
+     */
+    public RoaringContainer add(char value){
+        long mask = 1L << value;
+        if ((words[value >>> 6] & mask) == 0){
+            words[value >>> 6] |= mask;
+            cardinality++;
+        }
+        return this;
+    }
+
+    /**
+     * Checks if the bit of the given value is set.
+     * @param value Low 16 bits of the integer to be searched.
+     * @return True, if the value exists in the container, false otherwise.
+     */
+    public boolean contains(char value){
+        return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    /**
+     * Returns the number of values in the container.
+     * @return Number of values in the container.
+     */
+    public int cardinality(){
+        return cardinality;
+    }
+
+    /**
+     * Counts the runs of consecutive values in the bitset. A run starts at each set bit whose previous bit is not set;
+     * the previous bit of the first bit of a word is the last bit of the previous word.
+     * @return Number of runs of consecutive values in the container.
+     */
+    public int runCount(){
+        int runs = 0;
+        long carry = 0;
+        for (long word : words){
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> 63;
+        }
+        return runs;
+    }
+
+    /**
+     * Returns the words of the bitset.
+     * @return Bitset representation of the container.
+     */
+    public long[] toWords(){
+        return words;
+    }
+
+    /**
+     * Writes the integers in the container in increasing order into the buffer. The set bits of each word are
+     * enumerated with number of trailing zeros.
+     * @param buffer Output buffer.
+     * @param offset Position in the buffer to start writing.
+     * @param high High 16 bits of the integers in the container.
+     * @return Position in the buffer after the last integer written.
+     */
+    public int fill(int[] buffer, int offset, int high){
+        for (int i = 0; i < WORD_COUNT; i++){
+            long word = words[i];
+            while (word != 0){
+                buffer[offset] = (high << 16) | (i * 64 + Long.numberOfTrailingZeros(word));
+                offset++;
+                word &= word - 1;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Returns a copy of the container.
+     * @return Copy of the container.
+     */
+    public RoaringContainer copy(){
+        return new BitsetContainer(words.clone(), cardinality);
+    }
+}
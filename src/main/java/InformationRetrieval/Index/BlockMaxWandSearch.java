@@ -0,0 +1,81 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.TopKCollector;
+
+import java.util.ArrayList;
+
+/**
+ * Document at a time ranked search with the block max WAND dynamic pruning algorithm. The pivot is found with the
+ * upper bounds of the terms as in WAND, then the bound is refined with the upper bounds of the blocks containing the
+ * pivot document. If the block bounds cannot exceed the score of the K'th best document found so far, none of the
+ * documents up to the end of the first of those blocks can enter the top K either, so the cursors skip the rest of the
+ * blocks without scoring any document. This keeps the number of scored documents low for queries with very common
+ * terms, whose term upper bounds are large but whose block upper bounds are mostly small.
+ */
+public class BlockMaxWandSearch extends DocumentAtATimeSearch {
+
+    /**
+     * Constructs the search over the cursors of the query terms.
+     * @param scorers Cursors of the query terms, in the order of the terms in the query.
+     * @param documents Document collection
+     */
+    public BlockMaxWandSearch(ArrayList<PostingScorer> scorers, ArrayList<Document> documents){
+        super(scorers, documents);
+    }
+
+    /**
+     * Returns the K documents with the largest scores.
+     * @param K Number of documents to return.
+     * @return The best K documents, sorted in decreasing order of their scores.
+     */
+    public QueryResult search(int K){
+        TopKCollector collector = new TopKCollector(K);
+        if (K <= 0){
+            return collector.toQueryResult();
+        }
+        while (true){
+            sortByDocId();
+            double threshold = collector.threshold();
+            int pivot = findPivot(threshold);
+            if (pivot == -1){
+                break;
+            }
+            int pivotDocId = sorted[pivot].docId();
+            while (pivot + 1 < sorted.length && sorted[pivot + 1].docId() == pivotDocId){
+                pivot++;
+            }
+            double blockBound = 0.0;
+            for (int i = 0; i <= pivot; i++){
+                sorted[i].shallowAdvance(pivotDocId);
+                blockBound += sorted[i].getBlockMaxScore();
+            }
+            if (blockBound * (1 + BOUND_SLACK) > threshold){
+                if (sorted[0].docId() == pivotDocId){
+                    collector.add(pivotDocId, score(pivotDocId));
+                    nextAll(pivotDocId);
+                } else {
+                    for (int i = 0; i < pivot; i++){
+                        sorted[i].advance(pivotDocId);
+                    }
+                }
+            } else {
+                int nextDocId = Integer.MAX_VALUE;
+                if (pivot + 1 < sorted.length){
+                    nextDocId = sorted[pivot + 1].docId();
+                }
+                for (int i = 0; i <= pivot; i++){
+                    int lastDocId = sorted[i].blockLastDocId();
+                    if (lastDocId < nextDocId - 1){
+                        nextDocId = lastDocId + 1;
+                    }
+                }
+                for (int i = 0; i <= pivot; i++){
+                    sorted[i].advance(nextDocId);
+                }
+            }
+        }
+        return collector.toQueryResult();
+    }
+}
@@ -0,0 +1,115 @@
+package InformationRetrieval.Index;
+
+import Dictionary.Word;
+import Dictionary.WordComparator;
+
+/**
+ * Binary min heap of block numbers used in the k-way merge of the dictionary and index blocks of disk based index
+ * construction. The heap does not store the keys; it compares the current heads of the blocks, which are kept by the
+ * merger in an array indexed by the block number: term ids for index blocks, or words for dictionary blocks. Blocks
+ * with equal heads are ordered by their block numbers. Selecting the block with the smallest head takes O(log k) time
+ * instead of scanning all k heads.
+ */
+public class BlockMergeHeap {
+    private final int[] heap;
+    private int size;
+    private final int[] termIds;
+    private final Word[] words;
+    private final WordComparator comparator;
+
+    /**
+     * Constructs an empty heap of index blocks, ordered by their current term ids.
+     * @param termIds Current term ids of the blocks, indexed by the block number.
+     */
+    public BlockMergeHeap(int[] termIds){
+        this.heap = new int[termIds.length];
+        this.size = 0;
+        this.termIds = termIds;
+        this.words = null;
+        this.comparator = null;
+    }
+
+    /**
+     * Constructs an empty heap of dictionary blocks, ordered by their current words.
+     * @param words Current words of the blocks, indexed by the block number.
+     * @param comparator Comparator method to compare two words.
+     */
+    public BlockMergeHeap(Word[] words, WordComparator comparator){
+        this.heap = new int[words.length];
+        this.size = 0;
+        this.termIds = null;
+        this.words = words;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Checks if the head of the first block comes before the head of the second block. Heads that are equal, or words
+     * that the comparator finds equal, are ordered by their block numbers.
+     * @param blockA First block number.
+     * @param blockB Second block number.
+     * @return True, if the first block comes before the second block, false otherwise.
+     */
+    private boolean isSmaller(int blockA, int blockB){
+        int result;
+        if (words != null){
+            result = comparator.compare(words[blockA], words[blockB]);
+        } else {
+            result = Integer.compare(termIds[blockA], termIds[blockB]);
+        }
+        return result < 0 || (result == 0 && blockA < blockB);
+    }
+
+    /**
+     * Adds a block to the heap. The head of the block should be set before.
+     * @param block Block number.
+     */
+    public void push(int block){
+        int position = size;
+        size++;
+        while (position > 0 && isSmaller(block, heap[(position - 1) / 2])){
+            heap[position] = heap[(position - 1) / 2];
+            position = (position - 1) / 2;
+        }
+        heap[position] = block;
+    }
+
+    /**
+     * Returns the block with the smallest head without removing it.
+     * @return Block number with the smallest head.
+     */
+    public int peek(){
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the block with the smallest head.
+     * @return Block number with the smallest head.
+     */
+    public int pop(){
+        int top = heap[0];
+        size--;
+        int last = heap[size];
+        int position = 0;
+        while (2 * position + 1 < size){
+            int child = 2 * position + 1;
+            if (child + 1 < size && isSmaller(heap[child + 1], heap[child])){
+                child++;
+            }
+            if (!isSmaller(heap[child], last)){
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = last;
+        return top;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return True, if no block is left in the heap, false otherwise.
+     */
+    public boolean isEmpty(){
+        return size == 0;
+    }
+}
@@ -0,0 +1,216 @@
+package InformationRetrieval.Index;
+
+import java.util.Arrays;
+
+/**
+ * Posting list compressed with a patched frame of reference (PForDelta) codec. The gaps between successive document
+ * ids are split into blocks of 128 postings. In each block, the gaps are bit packed with a common bit width b, which is
+ * selected to minimize the size of the block; the gaps that do not fit into b bits are stored as exceptions, their low
+ * b bits in the packed area and their high bits in the exception area at the end of the block. For each block, the
+ * last document id and the offset of the block are kept in separate arrays, so that a cursor can skip whole blocks
+ * without decoding them.
+ */
+public class BlockPostingList extends CompressedPostingList {
+    public static final int BLOCK_SIZE = 128;
+    private static final int EXCEPTION_COST = 64;
+
+    private final int size;
+    private final int[] blockLastDocIds;
+    private final int[] blockOffsets;
+    private int[] data;
+    private int length;
+
+    /**
+     * Compresses the given posting list. The postings in the list should be sorted in increasing order.
+     * @param postingList Posting list to be compressed.
+     */
+    public BlockPostingList(PostingList postingList){
+        int blockCount, previous = 0;
+        int[] gaps = new int[BLOCK_SIZE];
+        size = postingList.size();
+        blockCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        blockLastDocIds = new int[blockCount];
+        blockOffsets = new int[blockCount];
+        data = new int[Math.max(blockCount * (BLOCK_SIZE / 4), 1)];
+        length = 0;
+        for (int block = 0; block < blockCount; block++){
+            int start = block * BLOCK_SIZE;
+            int count = Math.min(BLOCK_SIZE, size - start);
+            for (int i = 0; i < count; i++){
+                gaps[i] = postingList.get(start + i) - previous;
+                previous = postingList.get(start + i);
+            }
+            blockLastDocIds[block] = previous;
+            blockOffsets[block] = length;
+            encodeBlock(gaps, count);
+        }
+        data = Arrays.copyOf(data, length);
+    }
+
+    /**
+     * Returns the number of bits needed to represent the given non-negative integer.
+     * @param value Non-negative integer.
+     * @return Number of bits needed to represent the integer.
+     */
+    private static int bitWidth(int value){
+        return 32 - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Selects the bit width of a block. For each candidate bit width b, the cost of the block is the number of bits in
+     * the packed area plus a fixed cost for each exception, and the bit width with the smallest cost is returned.
+     * @param gaps Gaps of the block.
+     * @param count Number of gaps in the block.
+     * @return Bit width of the packed area.
+     */
+    private static int selectBitWidth(int[] gaps, int count){
+        int[] widthCounts = new int[33];
+        for (int i = 0; i < count; i++){
+            widthCounts[bitWidth(gaps[i])]++;
+        }
+        int best = 32, bestCost = 32 * count, exceptions = 0;
+        for (int b = 32; b >= 0; b--){
+            int cost = count * b + exceptions * EXCEPTION_COST;
+            if (cost < bestCost){
+                best = b;
+                bestCost = cost;
+            }
+            exceptions += widthCounts[b];
+        }
+        return best;
+    }
+
+    /**
+     * Appends the given integer to the data array.
+     * @param value Integer to be appended.
+     */
+    private void append(int value){
+        if (length == data.length){
+            data = Arrays.copyOf(data, 2 * data.length);
+        }
+        data[length] = value;
+        length++;
+    }
+
+    /**
+     * Encodes a block of gaps and appends it to the data array. The first word of the block stores the bit width and
+     * the number of exceptions, the following words store the packed low bits of the gaps, and the last words store
+     * the position and the high bits of each exception.
+     * @param gaps Gaps of the block.
+     * @param count Number of gaps in the block.
+     */
+    private void encodeBlock(int[] gaps, int count){
+        int b = selectBitWidth(gaps, count);
+        int exceptionCount = 0;
+        for (int i = 0; i < count; i++){
+            if (bitWidth(gaps[i]) > b){
+                exceptionCount++;
+            }
+        }
+        append(b | (exceptionCount << 8));
+        int packedStart = length;
+        int packedLength = (count * b + 31) / 32;
+        for (int i = 0; i < packedLength; i++){
+            append(0);
+        }
+        if (b > 0){
+            long mask = b == 32 ? 0xFFFFFFFFL : (1L << b) - 1;
+            for (int i = 0; i < count; i++){
+                long value = gaps[i] & mask;
+                int bit = i * b;
+                int word = packedStart + (bit >>> 5);
+                int shift = bit & 31;
+                data[word] |= (int) (value << shift);
+                if (shift + b > 32){
+                    data[word + 1] |= (int) (value >>> (32 - shift));
+                }
+            }
+        }
+        for (int i = 0; i < count; i++){
+            if (bitWidth(gaps[i]) > b){
+                append(i);
+                append(gaps[i] >>> b);
+            }
+        }
+    }
+
+    /**
+     * Decodes the document ids of the given block into the buffer.
+     * @param block Index of the block.
+     * @param buffer Buffer of size at least BLOCK_SIZE to store the document ids.
+     * @return Number of document ids in the block.
+     */
+    int decodeBlock(int block, int[] buffer){
+        int count = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+        int offset = blockOffsets[block];
+        int b = data[offset] & 255;
+        int exceptionCount = data[offset] >>> 8;
+        int packedStart = offset + 1;
+        if (b == 0){
+            Arrays.fill(buffer, 0, count, 0);
+        } else {
+            long mask = b == 32 ? 0xFFFFFFFFL : (1L << b) - 1;
+            for (int i = 0; i < count; i++){
+                int bit = i * b;
+                int word = packedStart + (bit >>> 5);
+                int shift = bit & 31;
+                long value = (data[word] & 0xFFFFFFFFL) >>> shift;
+                if (shift + b > 32){
+                    value |= (data[word + 1] & 0xFFFFFFFFL) << (32 - shift);
+                }
+                buffer[i] = (int) (value & mask);
+            }
+        }
+        int exceptionStart = packedStart + (count * b + 31) / 32;
+        for (int i = 0; i < exceptionCount; i++){
+            buffer[data[exceptionStart + 2 * i]] |= data[exceptionStart + 2 * i + 1] << b;
+        }
+        int previous = block == 0 ? 0 : blockLastDocIds[block - 1];
+        for (int i = 0; i < count; i++){
+            previous += buffer[i];
+            buffer[i] = previous;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of blocks in the posting list.
+     * @return Number of blocks in the posting list.
+     */
+    int blockCount(){
+        return blockLastDocIds.length;
+    }
+
+    /**
+     * Returns the last document id of the given block.
+     * @param block Index of the block.
+     * @return Last document id of the block.
+     */
+    int getBlockLastDocId(int block){
+        return blockLastDocIds[block];
+    }
+
+    /**
+     * Returns the number of postings in the posting list.
+     * @return Number of postings in the posting list.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used to store the postings, including the block headers.
+     * @return Number of bytes used to store the postings.
+     */
+    public int byteSize(){
+        return 4 * (length + blockLastDocIds.length + blockOffsets.length);
+    }
+
+    /**
+     * Returns a cursor positioned before the first posting of the list.
+     * @return A new cursor over the postings of this list.
+     */
+    public PostingCursor cursor(){
+        return new BlockPostingListCursor(this);
+    }
+}
@@ -0,0 +1,84 @@
+package InformationRetrieval.Index;
+
+/**
+ * Sequential decoder of a {@link BlockPostingList}. The postings are decoded one block at a time. While advancing to a
+ * target document id, the blocks whose last document id is smaller than the target are skipped without decoding.
+ */
+public class BlockPostingListCursor extends PostingCursor {
+    private final BlockPostingList postingList;
+    private final int[] buffer;
+    private int block;
+    private int blockLength;
+    private int position;
+    private int index;
+
+    /**
+     * Constructor of the BlockPostingListCursor class.
+     * @param postingList Block posting list to be decoded.
+     */
+    public BlockPostingListCursor(BlockPostingList postingList){
+        this.postingList = postingList;
+        this.buffer = new int[BlockPostingList.BLOCK_SIZE];
+        this.block = -1;
+        this.blockLength = 0;
+        this.position = 0;
+        this.index = 0;
+    }
+
+    /**
+     * Decodes the given block into the buffer and positions the cursor at its first posting.
+     * @param newBlock Index of the block to be decoded.
+     */
+    private void loadBlock(int newBlock){
+        block = newBlock;
+        blockLength = postingList.decodeBlock(block, buffer);
+        position = 0;
+        index = block * BlockPostingList.BLOCK_SIZE;
+    }
+
+    /**
+     * Checks if there are more postings to decode.
+     * @return True, if there are more postings; false otherwise.
+     */
+    public boolean hasNext(){
+        return index < postingList.size();
+    }
+
+    /**
+     * Decodes the next posting.
+     * @return Document id of the next posting.
+     */
+    public int next(){
+        if (position == blockLength){
+            loadBlock(block + 1);
+        }
+        index++;
+        return buffer[position++];
+    }
+
+    /**
+     * Moves the cursor to the first posting whose document id is larger than or equal to the target. First the
+     * block containing the target is found using the last document ids of the blocks, then only that block is decoded
+     * and searched.
+     * @param target Document id to be searched.
+     * @return Document id of the first posting larger than or equal to the target, -1 if there is no such posting.
+     */
+    public int advance(int target){
+        if (position == blockLength || buffer[blockLength - 1] < target){
+            int newBlock = block + 1;
+            while (newBlock < postingList.blockCount() && postingList.getBlockLastDocId(newBlock) < target){
+                newBlock++;
+            }
+            if (newBlock == postingList.blockCount()){
+                index = postingList.size();
+                return -1;
+            }
+            loadBlock(newBlock);
+        }
+        while (buffer[position] < target){
+            position++;
+        }
+        index = block * BlockPostingList.BLOCK_SIZE + position + 1;
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,185 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Query.QueryResult;
+
+/**
+ * Compressed form of a positional posting list. For each document, the gap from the previous document id, the number
+ * of positions and the gaps between successive positions are stored with variable byte encoding. The list is decoded
+ * sequentially with a {@link CompressedPositionalPostingListCursor}, which skips the positions of the documents that
+ * are not needed.
+ */
+public class CompressedPositionalPostingList {
+    private final VariableByteArray data;
+    private int size;
+    private int lastDocId;
+
+    /**
+     * Constructor of the CompressedPositionalPostingList class. Initializes an empty list.
+     */
+    public CompressedPositionalPostingList(){
+        data = new VariableByteArray();
+        size = 0;
+        lastDocId = 0;
+    }
+
+    /**
+     * Compresses the given positional posting list. The document ids and the positions in each positional posting
+     * should be sorted in increasing order.
+     * @param positionalPostingList Positional posting list to be compressed.
+     */
+    public CompressedPositionalPostingList(PositionalPostingList positionalPostingList){
+        this();
+        int[] positions = new int[1];
+        for (int i = 0; i < positionalPostingList.size(); i++){
+            PositionalPosting positionalPosting = positionalPostingList.get(i);
+            if (positions.length < positionalPosting.size()){
+                positions = new int[positionalPosting.size()];
+            }
+            for (int j = 0; j < positionalPosting.size(); j++){
+                positions[j] = positionalPosting.getPositions().get(j).getId();
+            }
+            add(positionalPosting.getDocId(), positions, positionalPosting.size());
+        }
+        data.trimToSize();
+    }
+
+    /**
+     * Adds the positions of a new document to the end of the list. Documents should be added in increasing order of
+     * their ids.
+     * @param docId Id of the document.
+     * @param positions Positions of the term in the document in increasing order.
+     * @param count Number of positions to be added from the positions array.
+     */
+    public void add(int docId, int[] positions, int count){
+        int previous = 0;
+        data.add(docId - lastDocId);
+        data.add(count);
+        for (int i = 0; i < count; i++){
+            data.add(positions[i] - previous);
+            previous = positions[i];
+        }
+        lastDocId = docId;
+        size++;
+    }
+
+    /**
+     * Returns the number of documents in the positional posting list.
+     * @return Number of documents in the positional posting list.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used to store the positional postings.
+     * @return Number of bytes used to store the positional postings.
+     */
+    public int byteSize(){
+        return data.length();
+    }
+
+    /**
+     * Returns a cursor positioned before the first document of the list.
+     * @return A new cursor over the positional postings of this list.
+     */
+    public CompressedPositionalPostingListCursor cursor(){
+        return new CompressedPositionalPostingListCursor(data.getBytes(), size);
+    }
+
+    /**
+     * Intersection of two compressed positional postings lists p1 and p2 for phrase search. The document ids of both
+     * lists are decoded with cursors. Only for the documents existing in both lists, the positions are decoded and the
+     * positions of p2 which immediately follow a position of p1 are added to the result.
+     * @param secondList p2, second positional posting list.
+     * @return Intersection of two positional postings lists p1 and p2.
+     */
+    public CompressedPositionalPostingList intersection(CompressedPositionalPostingList secondList){
+        CompressedPositionalPostingList result = new CompressedPositionalPostingList();
+        CompressedPositionalPostingListCursor cursor1 = cursor();
+        CompressedPositionalPostingListCursor cursor2 = secondList.cursor();
+        int[] positions1 = new int[16], positions2 = new int[16], matched = new int[16];
+        if (!cursor1.hasNext() || !cursor2.hasNext()){
+            return result;
+        }
+        int p1 = cursor1.nextDocument();
+        int p2 = cursor2.nextDocument();
+        while (true){
+            if (p1 == p2){
+                int size1 = cursor1.getFrequency(), size2 = cursor2.getFrequency();
+                positions1 = cursor1.readPositions(positions1);
+                positions2 = cursor2.readPositions(positions2);
+                if (matched.length < size2){
+                    matched = new int[positions2.length];
+                }
+                int position1 = 0, position2 = 0, count = 0;
+                while (position1 < size1 && position2 < size2){
+                    if (positions1[position1] + 1 == positions2[position2]){
+                        matched[count] = positions2[position2];
+                        count++;
+                        position1++;
+                        position2++;
+                    } else {
+                        if (positions1[position1] + 1 < positions2[position2]){
+                            position1++;
+                        } else {
+                            position2++;
+                        }
+                    }
+                }
+                if (count > 0){
+                    result.add(p1, matched, count);
+                }
+                if (!cursor1.hasNext() || !cursor2.hasNext()){
+                    break;
+                }
+                p1 = cursor1.nextDocument();
+                p2 = cursor2.nextDocument();
+            } else {
+                if (p1 < p2){
+                    if (!cursor1.hasNext()){
+                        break;
+                    }
+                    p1 = cursor1.nextDocument();
+                } else {
+                    if (!cursor2.hasNext()){
+                        break;
+                    }
+                    p2 = cursor2.nextDocument();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decompresses the list into an uncompressed positional posting list.
+     * @return Uncompressed positional posting list containing the positional postings in this object.
+     */
+    public PositionalPostingList toPositionalPostingList(){
+        PositionalPostingList result = new PositionalPostingList();
+        CompressedPositionalPostingListCursor cursor = cursor();
+        int[] positions = new int[16];
+        while (cursor.hasNext()){
+            int docId = cursor.nextDocument();
+            positions = cursor.readPositions(positions);
+            for (int i = 0; i < cursor.getFrequency(); i++){
+                result.add(docId, positions[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts the positional postings list to a query result object. Simply adds all document ids one by one to the
+     * result, the positions are skipped without decoding.
+     * @return QueryResult object containing the document ids in this object.
+     */
+    public QueryResult toQueryResult(){
+        QueryResult result = new QueryResult();
+        CompressedPositionalPostingListCursor cursor = cursor();
+        while (cursor.hasNext()){
+            result.add(cursor.nextDocument());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package InformationRetrieval.Index;
+
+/**
+ * Streaming decoder of a {@link CompressedPositionalPostingList}. The cursor moves from document to document; the
+ * positions of a document are decoded only if they are requested, otherwise they are skipped.
+ */
+public class CompressedPositionalPostingListCursor {
+    private final VariableByteReader reader;
+    private final int size;
+    private int index;
+    private int docId;
+    private int frequency;
+    private boolean positionsRead;
+
+    /**
+     * Constructor of the CompressedPositionalPostingListCursor class.
+     * @param bytes Variable byte encoded positional posting list.
+     * @param size Number of documents in the positional posting list.
+     */
+    public CompressedPositionalPostingListCursor(byte[] bytes, int size){
+        this.reader = new VariableByteReader(bytes, 0);
+        this.size = size;
+        this.index = 0;
+        this.docId = 0;
+        this.frequency = 0;
+        this.positionsRead = true;
+    }
+
+    /**
+     * Checks if there are more documents to decode.
+     * @return True, if there are more documents; false otherwise.
+     */
+    public boolean hasNext(){
+        return index < size;
+    }
+
+    /**
+     * Moves the cursor to the next document. If the positions of the current document are not read, they are skipped.
+     * @return Id of the next document.
+     */
+    public int nextDocument(){
+        if (!positionsRead){
+            reader.skip(frequency);
+        }
+        docId += reader.read();
+        frequency = reader.read();
+        positionsRead = false;
+        index++;
+        return docId;
+    }
+
+    /**
+     * Returns the number of positions of the term in the current document.
+     * @return Number of positions of the term in the current document.
+     */
+    public int getFrequency(){
+        return frequency;
+    }
+
+    /**
+     * Decodes the positions of the current document into the given buffer. If the buffer is not large enough, a new
+     * buffer is allocated. The positions of a document can be read only once.
+     * @param buffer Buffer to store the positions.
+     * @return The buffer containing the positions of the current document in its first getFrequency() items.
+     */
+    public int[] readPositions(int[] buffer){
+        if (buffer.length < frequency){
+            buffer = new int[frequency];
+        }
+        int position = 0;
+        for (int i = 0; i < frequency; i++){
+            position += reader.read();
+            buffer[i] = position;
+        }
+        positionsRead = true;
+        return buffer;
+    }
+}
@@ -0,0 +1,85 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Query.QueryResult;
+
+/**
+ * Base class of the compressed posting lists. A compressed posting list can only be read sequentially with a
+ * {@link PostingCursor}, which is created by the codec specific subclass. Intersection and conversion methods are
+ * implemented over the cursors, so that they work for all codecs.
+ */
+public abstract class CompressedPostingList {
+
+    /**
+     * Returns the number of postings in the posting list.
+     * @return Number of postings in the posting list.
+     */
+    public abstract int size();
+
+    /**
+     * Returns the number of bytes used to store the postings.
+     * @return Number of bytes used to store the postings.
+     */
+    public abstract int byteSize();
+
+    /**
+     * Returns a cursor positioned before the first posting of the list.
+     * @return A new cursor over the postings of this list.
+     */
+    public abstract PostingCursor cursor();
+
+    /**
+     * Intersection of two compressed postings lists p1 and p2. Both lists are decoded with cursors while walking
+     * through them simultaneously. When the document ids pointed by the cursors are different, the cursor pointing to
+     * the smaller document id is advanced to the larger one, which lets codecs skip the parts of the list that will not
+     * figure in the result.
+     * @param secondList p2, second posting list.
+     * @return Intersection of two postings lists p1 and p2.
+     */
+    public VariableBytePostingList intersection(CompressedPostingList secondList){
+        VariableBytePostingList result = new VariableBytePostingList();
+        PostingCursor cursor1 = cursor();
+        PostingCursor cursor2 = secondList.cursor();
+        int p1 = cursor1.hasNext() ? cursor1.next() : -1;
+        int p2 = cursor2.hasNext() ? cursor2.next() : -1;
+        while (p1 != -1 && p2 != -1){
+            if (p1 == p2){
+                result.add(p1);
+                p1 = cursor1.hasNext() ? cursor1.next() : -1;
+                p2 = cursor2.hasNext() ? cursor2.next() : -1;
+            } else {
+                if (p1 < p2){
+                    p1 = cursor1.advance(p2);
+                } else {
+                    p2 = cursor2.advance(p1);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decompresses the list into an uncompressed posting list.
+     * @return Uncompressed posting list containing the postings in this object.
+     */
+    public PostingList toPostingList(){
+        PostingList result = new PostingList(size());
+        PostingCursor cursor = cursor();
+        while (cursor.hasNext()){
+            result.add(cursor.next());
+        }
+        return result;
+    }
+
+    /**
+     * Converts the postings list to a query result object. Simply adds all postings one by one to the result.
+     * @return QueryResult object containing the postings in this object.
+     */
+    public QueryResult toQueryResult(){
+        QueryResult result = new QueryResult();
+        PostingCursor cursor = cursor();
+        while (cursor.hasNext()){
+            result.add(cursor.next());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package InformationRetrieval.Index;
+
+import java.util.Comparator;
+
+public class CompressedPostingListComparator implements Comparator<CompressedPostingList> {
+
+    /**
+     * Comparator method to compare two compressed posting lists.
+     * @param listA the first compressed posting list to be compared.
+     * @param listB the second compressed posting list to be compared.
+     * @return 1 if the size of the first posting list is larger than the second one, -1 if the size
+     * of the first posting list is smaller than the second one, 0 if they are the same.
+     */
+    public int compare(CompressedPostingList listA, CompressedPostingList listB){
+        return Integer.compare(listA.size(), listB.size());
+    }
+
+}
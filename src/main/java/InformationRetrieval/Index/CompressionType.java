@@ -0,0 +1,5 @@
+package InformationRetrieval.Index;
+
+public enum CompressionType {
+    NONE, VARIABLE_BYTE, PFOR_DELTA
+}
@@ -0,0 +1,5 @@
+package InformationRetrieval.Index;
+
+public enum DictionaryType {
+    STANDARD, FRONT_CODED, FINITE_STATE
+}
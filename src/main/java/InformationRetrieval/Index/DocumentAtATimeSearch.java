@@ -0,0 +1,102 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Query.QueryResult;
+
+import java.util.ArrayList;
+
+/**
+ * Base class of the document at a time ranked searches with dynamic pruning. The cursors of the query terms are kept
+ * both in the order of the terms in the query, to score the documents exactly as in the exhaustive ranked search, and
+ * in the increasing order of their current document ids, to find the next candidate document. Since the scores are
+ * the same as in the exhaustive search, all document at a time searches return the same top K documents.
+ */
+public abstract class DocumentAtATimeSearch {
+    /**
+     * Relative slack added to the upper bounds, so that rounding errors in the bounds never prune a document whose
+     * exact score enters the top K.
+     */
+    protected static final double BOUND_SLACK = 1e-9;
+    protected final PostingScorer[] scorers;
+    protected final PostingScorer[] sorted;
+    protected final ArrayList<Document> documents;
+
+    /**
+     * Constructs the search over the cursors of the query terms.
+     * @param scorers Cursors of the query terms, in the order of the terms in the query.
+     * @param documents Document collection
+     */
+    public DocumentAtATimeSearch(ArrayList<PostingScorer> scorers, ArrayList<Document> documents){
+        this.scorers = scorers.toArray(new PostingScorer[0]);
+        this.sorted = scorers.toArray(new PostingScorer[0]);
+        this.documents = documents;
+    }
+
+    /**
+     * Sorts the cursors in increasing order of their current document ids with insertion sort, which is linear when
+     * only a few cursors have moved since the last sort.
+     */
+    protected void sortByDocId(){
+        for (int i = 1; i < sorted.length; i++){
+            PostingScorer scorer = sorted[i];
+            int docId = scorer.docId();
+            int j = i - 1;
+            while (j >= 0 && sorted[j].docId() > docId){
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = scorer;
+        }
+    }
+
+    /**
+     * Finds the pivot, the first cursor in document id order at which the sum of the upper bounds of the cursors up to
+     * and including it exceeds the given threshold. No document before the document of the pivot can exceed the
+     * threshold.
+     * @param threshold Score a document should exceed to enter the top K.
+     * @return Position of the pivot in the sorted cursors, -1 if no remaining document can exceed the threshold.
+     */
+    protected int findPivot(double threshold){
+        double bound = 0.0;
+        for (int i = 0; i < sorted.length && sorted[i].docId() != Integer.MAX_VALUE; i++){
+            bound += sorted[i].getMaxScore();
+            if (bound * (1 + BOUND_SLACK) > threshold){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calculates the score of the given document. The contributions of the query terms are summed in the order of the
+     * terms in the query and the sum is divided by the document size, as in the exhaustive ranked search.
+     * @param docId Id of the document. Cursors on the document contribute to its score.
+     * @return Score of the document.
+     */
+    protected double score(int docId){
+        double score = 0.0;
+        for (PostingScorer scorer : scorers){
+            if (scorer.docId() == docId){
+                score += scorer.score();
+            }
+        }
+        return score / documents.get(docId).getSize();
+    }
+
+    /**
+     * Moves the sorted cursors on the given document to their next postings.
+     * @param docId Id of the document.
+     */
+    protected void nextAll(int docId){
+        for (int i = 0; i < sorted.length && sorted[i].docId() == docId; i++){
+            sorted[i].next();
+        }
+    }
+
+    /**
+     * Returns the K documents with the largest scores.
+     * @param K Number of documents to return.
+     * @return The best K documents, sorted in decreasing order of their scores.
+     */
+    public abstract QueryResult search(int K);
+}
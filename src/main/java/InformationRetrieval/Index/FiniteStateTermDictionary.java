@@ -0,0 +1,440 @@
+package InformationRetrieval.Index;
+
+import Dictionary.Word;
+import Dictionary.WordComparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Read only term dictionary stored as a minimal acyclic finite state automaton, in which the common prefixes and the
+ * common suffixes of the terms share their states and transitions. The automaton is built incrementally from the terms
+ * sorted in character order, merging each completed state with an equivalent registered state. After the construction,
+ * the automaton is stored in flat arrays: for each state, the range of its transitions; for each transition, its label,
+ * its target state and the number of terms accepted before taking it. The latter makes the automaton a transducer from
+ * the terms to their ranks in character order: the rank of a term is the sum of the numbers on its path. The ranks
+ * are mapped to the indexes of the terms in the order of the word comparator and to the term ids with plain arrays.
+ */
+public class FiniteStateTermDictionary extends TermDictionary {
+    private static final int ARRAY_BYTES = 16;
+
+    private final int root;
+    private final int[] firstTransition;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] transitionRanks;
+    private final BitSet finals;
+    private final int[] rankToIndex;
+    private final int[] indexToRank;
+    private final int[] rankToTermId;
+    private final int[] idOrder;
+    private final int longestWordSize;
+
+    /**
+     * Constructs the automaton from the terms of the given dictionary.
+     * @param comparator Comparator method to compare two terms.
+     * @param dictionary Dictionary containing the terms.
+     */
+    public FiniteStateTermDictionary(WordComparator comparator, TermDictionary dictionary){
+        super(comparator);
+        String[] names = new String[dictionary.size()];
+        int longest = 0;
+        for (int i = 0; i < names.length; i++){
+            names[i] = dictionary.getWord(i).getName();
+            longest = Math.max(longest, names[i].length());
+        }
+        longestWordSize = longest;
+        Arrays.sort(names);
+        AutomatonState start = build(names);
+        IdentityHashMap<AutomatonState, Integer> stateIds = new IdentityHashMap<>();
+        ArrayList<AutomatonState> states = new ArrayList<>();
+        root = number(start, stateIds, states);
+        int transitionCount = 0;
+        for (AutomatonState state : states){
+            transitionCount += state.size();
+        }
+        firstTransition = new int[states.size() + 1];
+        labels = new char[transitionCount];
+        targets = new int[transitionCount];
+        transitionRanks = new int[transitionCount];
+        finals = new BitSet(states.size());
+        int[] counts = new int[states.size()];
+        int transition = 0;
+        for (int i = 0; i < states.size(); i++){
+            AutomatonState state = states.get(i);
+            int count = state.isFinal() ? 1 : 0;
+            if (state.isFinal()){
+                finals.set(i);
+            }
+            firstTransition[i] = transition;
+            for (int j = 0; j < state.size(); j++){
+                labels[transition] = state.getLabel(j);
+                targets[transition] = stateIds.get(state.getTarget(j));
+                transitionRanks[transition] = count;
+                count += counts[targets[transition]];
+                transition++;
+            }
+            counts[i] = count;
+        }
+        firstTransition[states.size()] = transition;
+        rankToIndex = new int[names.length];
+        indexToRank = new int[names.length];
+        rankToTermId = new int[names.length];
+        long[] order = new long[names.length];
+        for (int i = 0; i < names.length; i++){
+            int index = dictionary.getWordIndex(names[i]);
+            rankToIndex[i] = index;
+            indexToRank[index] = i;
+            rankToTermId[i] = ((Term) dictionary.getWord(index)).getTermId();
+            order[i] = ((long) rankToTermId[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        idOrder = new int[names.length];
+        for (int i = 0; i < names.length; i++){
+            idOrder[i] = (int) order[i];
+        }
+    }
+
+    /**
+     * Builds the minimal automaton accepting the given terms. The terms are added one by one; the states of the
+     * previous term, which are not on the path of the current term, will not change anymore, therefore they are merged
+     * with their equivalents.
+     * @param names Terms sorted in character order.
+     * @return Start state of the automaton.
+     */
+    private static AutomatonState build(String[] names){
+        AutomatonState start = new AutomatonState();
+        HashMap<AutomatonState, AutomatonState> register = new HashMap<>();
+        String previous = null;
+        for (String name : names){
+            int common = 0;
+            if (previous != null){
+                while (common < previous.length() && common < name.length() && previous.charAt(common) == name.charAt(common)){
+                    common++;
+                }
+            }
+            AutomatonState state = start;
+            for (int i = 0; i < common; i++){
+                state = state.lastTarget();
+            }
+            if (state.size() > 0){
+                replaceOrRegister(state, register);
+            }
+            for (int i = common; i < name.length(); i++){
+                AutomatonState next = new AutomatonState();
+                state.addTransition(name.charAt(i), next);
+                state = next;
+            }
+            state.setFinal();
+            previous = name;
+        }
+        if (start.size() > 0){
+            replaceOrRegister(start, register);
+        }
+        return start;
+    }
+
+    /**
+     * Merges the states on the last path of the given state with their registered equivalents, starting from the
+     * deepest state. States without an equivalent are registered.
+     * @param state State whose last path will be merged.
+     * @param register Registered states.
+     */
+    private static void replaceOrRegister(AutomatonState state, HashMap<AutomatonState, AutomatonState> register){
+        AutomatonState child = state.lastTarget();
+        if (child.size() > 0){
+            replaceOrRegister(child, register);
+        }
+        AutomatonState equivalent = register.get(child);
+        if (equivalent != null){
+            state.setLastTarget(equivalent);
+        } else {
+            register.put(child, child);
+        }
+    }
+
+    /**
+     * Numbers the states reachable from the given state in post order, so that the target states of a state are
+     * numbered before the state.
+     * @param state State to number.
+     * @param stateIds Numbers of the states already numbered.
+     * @param states States in the order of their numbers.
+     * @return Number of the state.
+     */
+    private static int number(AutomatonState state, IdentityHashMap<AutomatonState, Integer> stateIds, ArrayList<AutomatonState> states){
+        Integer id = stateIds.get(state);
+        if (id != null){
+            return id;
+        }
+        for (int i = 0; i < state.size(); i++){
+            number(state.getTarget(i), stateIds, states);
+        }
+        stateIds.put(state, states.size());
+        states.add(state);
+        return states.size() - 1;
+    }
+
+    /**
+     * Finds the transition of the given state with the given label with binary search.
+     * @param state State whose transitions are searched.
+     * @param label Label of the transition.
+     * @return Index of the transition, -1 if the state does not have a transition with the label.
+     */
+    private int transition(int state, char label){
+        int low = firstTransition[state], high = firstTransition[state + 1] - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            if (labels[middle] == label){
+                return middle;
+            } else {
+                if (labels[middle] < label){
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Follows the path of the given string from the start state and adds the numbers of the transitions on the path.
+     * @param name String to follow.
+     * @return The state at the end of the path in the high 32 bits and the sum of the numbers in the low 32 bits, -1 if
+     * the path does not exist.
+     */
+    private long walk(String name){
+        int state = root, rank = 0;
+        for (int i = 0; i < name.length(); i++){
+            int transition = transition(state, name.charAt(i));
+            if (transition == -1){
+                return -1;
+            }
+            rank += transitionRanks[transition];
+            state = targets[transition];
+        }
+        return ((long) state << 32) | rank;
+    }
+
+    /**
+     * Returns the rank of the given term in character order.
+     * @param name Name of the term.
+     * @return Rank of the term, -1 if the term does not exist in the dictionary.
+     */
+    private int rank(String name){
+        long path = walk(name);
+        if (path == -1 || !finals.get((int) (path >>> 32))){
+            return -1;
+        }
+        return (int) path;
+    }
+
+    /**
+     * Returns the term with the given rank in character order. At each state, the last transition whose number does
+     * not exceed the remaining rank is taken.
+     * @param rank Rank of the term.
+     * @return Name of the term.
+     */
+    private String term(int rank){
+        StringBuilder name = new StringBuilder();
+        int state = root;
+        while (!finals.get(state) || rank != 0){
+            int low = firstTransition[state], high = firstTransition[state + 1] - 1;
+            while (low < high){
+                int middle = (low + high + 1) >>> 1;
+                if (transitionRanks[middle] <= rank){
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            rank -= transitionRanks[low];
+            name.append(labels[low]);
+            state = targets[low];
+        }
+        return name.toString();
+    }
+
+    /**
+     * Returns the number of terms in the dictionary.
+     * @return Number of terms in the dictionary.
+     */
+    public int size(){
+        return rankToIndex.length;
+    }
+
+    /**
+     * Returns the length of the longest term in the dictionary.
+     * @return Length of the longest term in the dictionary.
+     */
+    public int longestWordSize(){
+        return longestWordSize;
+    }
+
+    /**
+     * Returns the heap footprint of the dictionary, which is the flat arrays of the automaton and the arrays mapping
+     * the ranks of the terms to their indexes and ids.
+     * @return Heap footprint of the dictionary in bytes.
+     */
+    public long estimatedMemory(){
+        return 10L * ARRAY_BYTES + 4L * (firstTransition.length + targets.length + transitionRanks.length + rankToIndex.length +
+                indexToRank.length + rankToTermId.length + idOrder.length) + 2L * labels.length + finals.size() / 8;
+    }
+
+    /**
+     * The finite state dictionary is read only, new terms can not be added.
+     * @param name Lemma of the term
+     * @param termId Id of the term
+     */
+    public void addTerm(String name, int termId){
+        throw new UnsupportedOperationException("Finite state term dictionary is read only");
+    }
+
+    /**
+     * Returns the term at the given index of the terms sorted with the word comparator.
+     * @param index Index of the term in the sorted terms.
+     * @return Term at the given index.
+     */
+    public Term getWord(int index){
+        int rank = indexToRank[index];
+        return new Term(term(rank), rankToTermId[rank]);
+    }
+
+    /**
+     * Returns the index of the term with the given name in the terms sorted with the word comparator.
+     * @param name Name of the term.
+     * @return Index of the term in the sorted terms, -1 if the term does not exist in the dictionary.
+     */
+    public int getWordIndex(String name){
+        int rank = rank(name);
+        if (rank == -1){
+            return -1;
+        }
+        return rankToIndex[rank];
+    }
+
+    /**
+     * Returns the term with the given name.
+     * @param name Name of the term.
+     * @return Term with the given name, null if the term does not exist in the dictionary.
+     */
+    public Word getWord(String name){
+        int rank = rank(name);
+        if (rank == -1){
+            return null;
+        }
+        return new Term(name, rankToTermId[rank]);
+    }
+
+    /**
+     * Returns the id of the term with the given name.
+     * @param name Name of the term.
+     * @return Id of the term with the given name, -1 if the term does not exist in the dictionary.
+     */
+    public int getTermId(String name){
+        int rank = rank(name);
+        if (rank == -1){
+            return -1;
+        }
+        return rankToTermId[rank];
+    }
+
+    /**
+     * Returns the term with the given term id. If the term ids are the indexes of the terms, as in the dictionaries of
+     * the memory and medium collections, the term is found directly; otherwise the term is found with binary search
+     * over the ranks of the terms ordered by their term ids.
+     * @param termId Term id to search and get.
+     * @return Term with the given term id, null if the term does not exist in the dictionary.
+     */
+    public Term getTerm(int termId){
+        if (termId >= 0 && termId < size() && rankToTermId[indexToRank[termId]] == termId){
+            return getWord(termId);
+        }
+        int low = 0, high = size() - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            int current = rankToTermId[idOrder[middle]];
+            if (current == termId){
+                return new Term(term(idOrder[middle]), termId);
+            } else {
+                if (current < termId){
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the first term in the terms sorted with the word comparator, which is larger than or equal
+     * to the given prefix.
+     * @param hash Prefix to search.
+     * @return Index of the first term starting with the given prefix, or the insertion point of the prefix.
+     */
+    public int getWordStartingWith(String hash){
+        Word word = new Word(hash);
+        int low = 0, high = size() - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(new Word(term(indexToRank[middle])), word) < 0){
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Enumerates the terms accepted from the given state in character order.
+     * @param state Current state.
+     * @param name Characters on the path to the current state.
+     * @param rank Rank of the first term accepted from the current state.
+     * @param names Enumerated terms.
+     * @param indexes Indexes of the enumerated terms in the order of the word comparator, packed with their positions
+     *                in the names list.
+     */
+    private void enumerate(int state, StringBuilder name, int rank, ArrayList<String> names, ArrayList<Long> indexes){
+        if (finals.get(state)){
+            indexes.add(((long) rankToIndex[rank] << 32) | names.size());
+            names.add(name.toString());
+        }
+        for (int transition = firstTransition[state]; transition < firstTransition[state + 1]; transition++){
+            name.append(labels[transition]);
+            enumerate(targets[transition], name, rank + transitionRanks[transition], names, indexes);
+            name.setLength(name.length() - 1);
+        }
+    }
+
+    /**
+     * Returns the names of the terms starting with the given prefix. The path of the prefix is followed in the automaton
+     * and the terms accepted after the path are enumerated, then they are sorted with the word comparator using their
+     * indexes.
+     * @param prefix Prefix to search.
+     * @return Names of the terms starting with the given prefix.
+     */
+    public ArrayList<String> getWordsStartingWith(String prefix){
+        ArrayList<String> result = new ArrayList<>();
+        long path = walk(prefix);
+        if (path == -1 || size() == 0){
+            return result;
+        }
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<Long> indexes = new ArrayList<>();
+        enumerate((int) (path >>> 32), new StringBuilder(prefix), (int) path, names, indexes);
+        long[] order = new long[indexes.size()];
+        for (int i = 0; i < order.length; i++){
+            order[i] = indexes.get(i);
+        }
+        Arrays.sort(order);
+        for (long index : order){
+            result.add(names.get((int) index));
+        }
+        return result;
+    }
+}
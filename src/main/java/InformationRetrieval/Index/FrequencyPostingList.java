@@ -0,0 +1,126 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Query.VectorSpaceModel;
+
+import java.util.ArrayList;
+
+/**
+ * Postings list of a term used in document at a time ranked search. Only the document ids and the term frequencies of
+ * the postings are kept, in two primitive arrays, so the list can be searched by position without keeping or decoding
+ * the positions of the term.
+ */
+public class FrequencyPostingList {
+    public static final int SCORE_BLOCK_SIZE = 64;
+
+    private final int[] docIds;
+    private final int[] frequencies;
+
+    /**
+     * Constructs the list from the positional postings list of a term. The term frequency of a posting is the number of
+     * its positions.
+     * @param positionalPostingList Positional postings list of the term.
+     */
+    public FrequencyPostingList(PositionalPostingList positionalPostingList){
+        docIds = new int[positionalPostingList.size()];
+        frequencies = new int[positionalPostingList.size()];
+        for (int i = 0; i < positionalPostingList.size(); i++){
+            PositionalPosting positionalPosting = positionalPostingList.get(i);
+            docIds[i] = positionalPosting.getDocId();
+            frequencies[i] = positionalPosting.size();
+        }
+    }
+
+    /**
+     * Constructs the list from the compressed positional postings list of a term. The document ids and the numbers of
+     * positions are decoded with a cursor, and the positions themselves are skipped.
+     * @param compressedPostingList Compressed positional postings list of the term.
+     */
+    public FrequencyPostingList(CompressedPositionalPostingList compressedPostingList){
+        docIds = new int[compressedPostingList.size()];
+        frequencies = new int[compressedPostingList.size()];
+        CompressedPositionalPostingListCursor cursor = compressedPostingList.cursor();
+        int i = 0;
+        while (cursor.hasNext()){
+            docIds[i] = cursor.nextDocument();
+            frequencies[i] = cursor.getFrequency();
+            i++;
+        }
+    }
+
+    /**
+     * Returns the number of postings in the list.
+     * @return Number of postings in the list.
+     */
+    public int size(){
+        return docIds.length;
+    }
+
+    /**
+     * Returns the document id of the posting at the given position.
+     * @param index Position of the posting.
+     * @return Document id of the posting.
+     */
+    public int getDocId(int index){
+        return docIds[index];
+    }
+
+    /**
+     * Returns the term frequency of the posting at the given position.
+     * @param index Position of the posting.
+     * @return Term frequency of the posting.
+     */
+    public int getFrequency(int index){
+        return frequencies[index];
+    }
+
+    /**
+     * Divides the postings into blocks of SCORE_BLOCK_SIZE successive postings and calculates the largest weight in each
+     * block, where the weight of a posting is its term frequency weight divided by the size of its document. Multiplied
+     * with the document frequency weight of the term, the weight of a block bounds the score contribution of the term
+     * to the documents in that block.
+     * @param termWeighting Term weighting scheme.
+     * @param documents Document collection.
+     * @return Largest posting weight of each block.
+     */
+    public double[] blockMaxWeights(TermWeighting termWeighting, ArrayList<Document> documents){
+        double[] weights = new double[(docIds.length + SCORE_BLOCK_SIZE - 1) / SCORE_BLOCK_SIZE];
+        for (int i = 0; i < docIds.length; i++){
+            double weight = VectorSpaceModel.termFrequencyWeight(frequencies[i], termWeighting) / documents.get(docIds[i]).getSize();
+            if (weight > weights[i / SCORE_BLOCK_SIZE]){
+                weights[i / SCORE_BLOCK_SIZE] = weight;
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Exponential search on the postings list for a specific document id. Starting from position from, the search
+     * interval is doubled until a posting with document id larger than or equal to the target is found, then binary
+     * search is done inside the last interval.
+     * @param from Position to start the search.
+     * @param docId Document id to be searched.
+     * @return Position of the first posting with document id larger than or equal to the target, size() if there is no
+     * such posting.
+     */
+    int gallop(int from, int docId){
+        int bound = 1, low, high;
+        if (from >= docIds.length || docIds[from] >= docId){
+            return from;
+        }
+        while (from + bound < docIds.length && docIds[from + bound] < docId){
+            bound *= 2;
+        }
+        low = from + bound / 2 + 1;
+        high = Math.min(from + bound, docIds.length);
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (docIds[middle] < docId){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,442 @@
+package InformationRetrieval.Index;
+
+import Dictionary.Word;
+import Dictionary.WordComparator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Read only term dictionary, which stores the sorted terms in a single byte array instead of a Term object per term.
+ * The terms are grouped into blocks of 16 terms. The first term of a block is stored as its length and its UTF-8
+ * bytes; every other term is stored as the length of the prefix it shares with the previous term, the length of the
+ * remaining suffix and the suffix bytes (front coding). A term is searched with a binary search over the first terms of
+ * the blocks followed by a scan of a single block. Besides the byte array, the dictionary stores the offset of each
+ * block, the term id of each term in sorted order and the positions of the terms ordered by their term ids, which are
+ * used to find a term with its id. The dictionary can be saved into a file and memory mapped from that file, in which
+ * case none of these arrays are copied into the heap.
+ */
+public class FrontCodedTermDictionary extends TermDictionary {
+    public static final int BLOCK_SIZE = 16;
+    private static final int HEADER_SIZE = BinaryIndexWriter.HEADER_SIZE + 20;
+    private static final int BUFFER_BYTES = 48;
+
+    private final int size;
+    private final int longestWordSize;
+    private final int maxTermLength;
+    private final ByteBuffer data;
+    private final IntBuffer blockOffsets;
+    private final IntBuffer termIds;
+    private final IntBuffer idOrder;
+
+    /**
+     * Constructs a front coded dictionary from the terms of the given dictionary.
+     * @param comparator Comparator method to compare two terms.
+     * @param dictionary Dictionary containing the terms.
+     */
+    public FrontCodedTermDictionary(WordComparator comparator, TermDictionary dictionary){
+        super(comparator);
+        VariableByteArray bytes = new VariableByteArray();
+        int[] offsets = new int[(dictionary.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        int[] ids = new int[dictionary.size()];
+        long[] order = new long[dictionary.size()];
+        byte[] previous = new byte[0];
+        int longest = 0, maxLength = 0;
+        for (int i = 0; i < dictionary.size(); i++){
+            Term term = (Term) dictionary.getWord(i);
+            byte[] current = term.getName().getBytes(StandardCharsets.UTF_8);
+            if (i % BLOCK_SIZE == 0){
+                offsets[i / BLOCK_SIZE] = bytes.length();
+                bytes.add(current.length);
+                bytes.addBytes(current, 0, current.length);
+            } else {
+                int shared = 0;
+                while (shared < previous.length && shared < current.length && previous[shared] == current[shared]){
+                    shared++;
+                }
+                bytes.add(shared);
+                bytes.add(current.length - shared);
+                bytes.addBytes(current, shared, current.length - shared);
+            }
+            ids[i] = term.getTermId();
+            order[i] = ((long) term.getTermId() << 32) | i;
+            longest = Math.max(longest, term.getName().length());
+            maxLength = Math.max(maxLength, current.length);
+            previous = current;
+        }
+        Arrays.sort(order);
+        int[] positions = new int[order.length];
+        for (int i = 0; i < order.length; i++){
+            positions[i] = (int) order[i];
+        }
+        size = dictionary.size();
+        longestWordSize = longest;
+        maxTermLength = maxLength;
+        data = ByteBuffer.wrap(Arrays.copyOf(bytes.getBytes(), bytes.length()));
+        blockOffsets = IntBuffer.wrap(offsets);
+        termIds = IntBuffer.wrap(ids);
+        idOrder = IntBuffer.wrap(positions);
+    }
+
+    /**
+     * Memory maps a front coded dictionary file, which is written by the saveFrontCoded method.
+     * @param comparator Comparator method to compare two terms.
+     * @param fileName Dictionary file name. Real dictionary file name is created by attaching
+     *                 -frontCodedDictionary.bin to this file name
+     */
+    public FrontCodedTermDictionary(WordComparator comparator, String fileName){
+        super(comparator);
+        try {
+            RandomAccessFile file = new RandomAccessFile(fileName + "-frontCodedDictionary.bin", "r");
+            ByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            file.close();
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != BinaryIndexWriter.FRONT_CODED_DICTIONARY_MAGIC ||
+                    buffer.getInt(4) != BinaryIndexWriter.VERSION){
+                throw new IOException(fileName + "-frontCodedDictionary.bin is not a supported dictionary file");
+            }
+            size = buffer.getInt(8);
+            int blockCount = buffer.getInt(12);
+            longestWordSize = buffer.getInt(16);
+            maxTermLength = buffer.getInt(20);
+            int dataLength = buffer.getInt(24);
+            int position = HEADER_SIZE;
+            blockOffsets = slice(buffer, position, 4 * blockCount).asIntBuffer();
+            position += 4 * blockCount;
+            termIds = slice(buffer, position, 4 * size).asIntBuffer();
+            position += 4 * size;
+            idOrder = slice(buffer, position, 4 * size).asIntBuffer();
+            position += 4 * size;
+            data = slice(buffer, position, dataLength);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the given region of the buffer as a new buffer.
+     * @param buffer Buffer to slice.
+     * @param position Start of the region.
+     * @param length Length of the region.
+     * @return Region of the buffer.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length){
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        duplicate.limit(position + length);
+        return duplicate.slice();
+    }
+
+    /**
+     * Decodes the next variable byte encoded integer from the buffer and advances the buffer.
+     * @param buffer Buffer positioned at the integer.
+     * @return Decoded integer.
+     */
+    private static int readInt(ByteBuffer buffer){
+        int value = 0;
+        byte current = buffer.get();
+        while (current >= 0){
+            value = (value << 7) | current;
+            current = buffer.get();
+        }
+        return (value << 7) | (current & 127);
+    }
+
+    /**
+     * Decodes the next term of a block into the term buffer and advances the buffer.
+     * @param buffer Buffer positioned at the term.
+     * @param term Term buffer containing the previous term of the block.
+     * @param first True, if the term is the first term of the block.
+     * @return Length of the decoded term in bytes.
+     */
+    private static int readTerm(ByteBuffer buffer, byte[] term, boolean first){
+        int shared = 0, length;
+        if (!first){
+            shared = readInt(buffer);
+        }
+        length = readInt(buffer);
+        buffer.get(term, shared, length);
+        return shared + length;
+    }
+
+    /**
+     * Checks if the term buffer starts with the given bytes.
+     * @param term Term buffer.
+     * @param bytes Bytes to compare.
+     * @return True, if the first bytes of the term buffer are equal to the given bytes, false otherwise.
+     */
+    private static boolean startsWith(byte[] term, byte[] bytes){
+        for (int i = 0; i < bytes.length; i++){
+            if (term[i] != bytes[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a buffer positioned at the start of the given block.
+     * @param block Index of the block.
+     * @return Buffer positioned at the block.
+     */
+    private ByteBuffer block(int block){
+        ByteBuffer buffer = data.duplicate();
+        buffer.position(blockOffsets.get(block));
+        return buffer;
+    }
+
+    /**
+     * Decodes the first term of the given block.
+     * @param block Index of the block.
+     * @return First term of the block.
+     */
+    private String blockHead(int block){
+        byte[] term = new byte[maxTermLength];
+        int length = readTerm(block(block), term, true);
+        return new String(term, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the last block, whose first term is smaller than or equal to the given name, with binary search.
+     * @param name Name to search.
+     * @return Index of the block, -1 if the name is smaller than all terms.
+     */
+    private int findBlock(String name){
+        Word word = new Word(name);
+        int low = 0, high = blockOffsets.limit() - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(new Word(blockHead(middle)), word) <= 0){
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the number of terms in the dictionary.
+     * @return Number of terms in the dictionary.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the length of the longest term in the dictionary.
+     * @return Length of the longest term in the dictionary.
+     */
+    public int longestWordSize(){
+        return longestWordSize;
+    }
+
+    /**
+     * Returns the heap footprint of the dictionary, which is the byte array of the front coded terms and the three
+     * integer arrays, or only the buffer objects if the dictionary is memory mapped from a file.
+     * @return Heap footprint of the dictionary in bytes.
+     */
+    public long estimatedMemory(){
+        long estimatedMemory = 4L * BUFFER_BYTES;
+        if (!data.isDirect()){
+            estimatedMemory += data.capacity() + 4L * (blockOffsets.capacity() + termIds.capacity() + idOrder.capacity());
+        }
+        return estimatedMemory;
+    }
+
+    /**
+     * The front coded dictionary is read only, new terms can not be added.
+     * @param name Lemma of the term
+     * @param termId Id of the term
+     */
+    public void addTerm(String name, int termId){
+        throw new UnsupportedOperationException("Front coded term dictionary is read only");
+    }
+
+    /**
+     * Returns the term at the given index of the sorted terms. The block of the term is decoded until the term.
+     * @param index Index of the term in the sorted terms.
+     * @return Term at the given index.
+     */
+    public Term getWord(int index){
+        ByteBuffer buffer = block(index / BLOCK_SIZE);
+        byte[] term = new byte[maxTermLength];
+        int length = 0;
+        for (int i = 0; i <= index % BLOCK_SIZE; i++){
+            length = readTerm(buffer, term, i == 0);
+        }
+        return new Term(new String(term, 0, length, StandardCharsets.UTF_8), termIds.get(index));
+    }
+
+    /**
+     * Returns the index of the term with the given name in the sorted terms. The block of the term is found with binary
+     * search, then the block is scanned.
+     * @param name Name of the term.
+     * @return Index of the term in the sorted terms, -1 if the term does not exist in the dictionary.
+     */
+    public int getWordIndex(String name){
+        int block = findBlock(name);
+        if (block == -1){
+            return -1;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = block(block);
+        byte[] term = new byte[maxTermLength];
+        int count = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+        for (int i = 0; i < count; i++){
+            int length = readTerm(buffer, term, i == 0);
+            if (length == bytes.length && startsWith(term, bytes)){
+                return block * BLOCK_SIZE + i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the term with the given name.
+     * @param name Name of the term.
+     * @return Term with the given name, null if the term does not exist in the dictionary.
+     */
+    public Word getWord(String name){
+        int index = getWordIndex(name);
+        if (index == -1){
+            return null;
+        }
+        return getWord(index);
+    }
+
+    /**
+     * Returns the id of the term with the given name.
+     * @param name Name of the term.
+     * @return Id of the term with the given name, -1 if the term does not exist in the dictionary.
+     */
+    public int getTermId(String name){
+        int index = getWordIndex(name);
+        if (index == -1){
+            return -1;
+        }
+        return termIds.get(index);
+    }
+
+    /**
+     * Returns the term with the given term id. If the term ids are the indexes of the terms, as in the dictionaries of
+     * the memory and medium collections, the term is found directly; otherwise the term is found with binary search
+     * over the positions of the terms ordered by their term ids.
+     * @param termId Term id to search and get.
+     * @return Term with the given term id, null if the term does not exist in the dictionary.
+     */
+    public Term getTerm(int termId){
+        if (termId >= 0 && termId < size && termIds.get(termId) == termId){
+            return getWord(termId);
+        }
+        int low = 0, high = size - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            int current = termIds.get(idOrder.get(middle));
+            if (current == termId){
+                return getWord(idOrder.get(middle));
+            } else {
+                if (current < termId){
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the first term in the sorted terms, which is larger than or equal to the given prefix.
+     * @param hash Prefix to search.
+     * @return Index of the first term starting with the given prefix, or the insertion point of the prefix.
+     */
+    public int getWordStartingWith(String hash){
+        int block = findBlock(hash);
+        if (block == -1){
+            return 0;
+        }
+        Word word = new Word(hash);
+        ByteBuffer buffer = block(block);
+        byte[] term = new byte[maxTermLength];
+        int count = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+        for (int i = 0; i < count; i++){
+            int length = readTerm(buffer, term, i == 0);
+            if (comparator.compare(new Word(new String(term, 0, length, StandardCharsets.UTF_8)), word) >= 0){
+                return block * BLOCK_SIZE + i;
+            }
+        }
+        return block * BLOCK_SIZE + count;
+    }
+
+    /**
+     * Returns the names of the terms starting with the given prefix in sorted order. The terms are decoded
+     * sequentially, starting from the block of the first term larger than or equal to the prefix.
+     * @param prefix Prefix to search.
+     * @return Names of the terms starting with the given prefix.
+     */
+    public ArrayList<String> getWordsStartingWith(String prefix){
+        ArrayList<String> result = new ArrayList<>();
+        int index = getWordStartingWith(prefix);
+        byte[] term = new byte[maxTermLength];
+        ByteBuffer buffer = null;
+        for (int i = index - index % BLOCK_SIZE; i < size; i++){
+            if (i % BLOCK_SIZE == 0){
+                buffer = block(i / BLOCK_SIZE);
+            }
+            int length = readTerm(buffer, term, i % BLOCK_SIZE == 0);
+            if (i >= index){
+                String name = new String(term, 0, length, StandardCharsets.UTF_8);
+                if (!name.startsWith(prefix)){
+                    break;
+                }
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Saves the dictionary into a front coded dictionary file, which can be memory mapped. After the header, the file
+     * stores the number of terms, the number of blocks, the length of the longest term in characters and in bytes, the
+     * length of the byte array, followed by the block offsets, the term ids, the positions ordered by term ids and the
+     * byte array.
+     * @param fileName Dictionary file name. Real dictionary file name is created by attaching
+     *                 -frontCodedDictionary.bin to this file name
+     */
+    public void saveFrontCoded(String fileName){
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName + "-frontCodedDictionary.bin"), 1 << 16));
+            outputStream.writeInt(BinaryIndexWriter.FRONT_CODED_DICTIONARY_MAGIC);
+            outputStream.writeInt(BinaryIndexWriter.VERSION);
+            outputStream.writeInt(size);
+            outputStream.writeInt(blockOffsets.limit());
+            outputStream.writeInt(longestWordSize);
+            outputStream.writeInt(maxTermLength);
+            outputStream.writeInt(data.limit());
+            for (int i = 0; i < blockOffsets.limit(); i++){
+                outputStream.writeInt(blockOffsets.get(i));
+            }
+            for (int i = 0; i < size; i++){
+                outputStream.writeInt(termIds.get(i));
+            }
+            for (int i = 0; i < size; i++){
+                outputStream.writeInt(idOrder.get(i));
+            }
+            for (int i = 0; i < data.limit(); i++){
+                outputStream.write(data.get(i));
+            }
+            outputStream.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
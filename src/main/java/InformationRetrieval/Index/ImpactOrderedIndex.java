@@ -0,0 +1,62 @@
+package InformationRetrieval.Index;
+
+/**
+ * Impact ordered layout of the positional index for one combination of term weighting and document weighting schemes.
+ * The score contribution of each posting, its term frequency weight times the document frequency weight of its term
+ * divided by the size of its document, is quantized linearly into an integer impact between 0 and MAX_IMPACT with the
+ * same scale for all terms, so that the impacts of different terms can be added and compared. The impacts are rounded
+ * up, therefore the sum of the impacts of a document times the scale is never smaller than its score.
+ */
+public class ImpactOrderedIndex {
+    public static final int MAX_IMPACT = 255;
+
+    private final TermIndexMap<ImpactOrderedPostingList> postingLists;
+    private final double maxWeight;
+
+    /**
+     * Constructs an empty impact ordered index.
+     * @param maxWeight Largest score contribution of a posting in the index, which is quantized to MAX_IMPACT.
+     */
+    public ImpactOrderedIndex(double maxWeight){
+        this.postingLists = new TermIndexMap<>();
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Quantizes the score contribution of a posting.
+     * @param weight Score contribution of the posting.
+     * @return Impact of the posting, the smallest integer whose score is not smaller than the weight.
+     */
+    public int quantize(double weight){
+        if (weight <= 0 || maxWeight <= 0){
+            return 0;
+        }
+        return Math.max(1, Math.min(MAX_IMPACT, (int) Math.ceil(weight * MAX_IMPACT / maxWeight)));
+    }
+
+    /**
+     * Returns the score corresponding to one unit of impact.
+     * @return Score of one unit of impact.
+     */
+    public double getScale(){
+        return maxWeight / MAX_IMPACT;
+    }
+
+    /**
+     * Adds the impact ordered postings list of a term.
+     * @param termId Id of the term
+     * @param postingList Impact ordered postings list of the term
+     */
+    public void put(int termId, ImpactOrderedPostingList postingList){
+        postingLists.put(termId, postingList);
+    }
+
+    /**
+     * Returns the impact ordered postings list of a term.
+     * @param termId Id of the term
+     * @return Impact ordered postings list of the term, null if the term does not exist in the index.
+     */
+    public ImpactOrderedPostingList get(int termId){
+        return postingLists.get(termId);
+    }
+}
@@ -0,0 +1,103 @@
+package InformationRetrieval.Index;
+
+/**
+ * Postings list of a term in which the postings are grouped into segments by their quantized impacts. The impact of a
+ * posting is its integer score contribution to the document; the segments are stored in decreasing order of their
+ * impacts and the document ids in a segment are stored in increasing order. Score at a time search processes the
+ * segments with the largest impacts first, so the postings contributing most to the scores are seen first.
+ */
+public class ImpactOrderedPostingList {
+    private final int[] docIds;
+    private final int[] segmentImpacts;
+    private final int[] segmentStarts;
+
+    /**
+     * Constructs the impact ordered postings list from the document ids and the quantized impacts of the postings of a
+     * term. The postings are distributed into the segments with a counting sort over the impacts, which keeps the
+     * document ids of a segment in their original increasing order.
+     * @param docIds Document ids of the postings, in increasing order.
+     * @param impacts Quantized impacts of the postings, between 0 and maxImpact.
+     * @param maxImpact Largest possible impact.
+     */
+    public ImpactOrderedPostingList(int[] docIds, int[] impacts, int maxImpact){
+        int[] counts = new int[maxImpact + 2];
+        int segmentCount = 0;
+        for (int impact : impacts){
+            if (counts[maxImpact - impact] == 0){
+                segmentCount++;
+            }
+            counts[maxImpact - impact]++;
+        }
+        segmentImpacts = new int[segmentCount];
+        segmentStarts = new int[segmentCount + 1];
+        int[] offsets = new int[maxImpact + 1];
+        int segment = 0, offset = 0;
+        for (int i = 0; i <= maxImpact; i++){
+            offsets[i] = offset;
+            if (counts[i] > 0){
+                segmentImpacts[segment] = maxImpact - i;
+                segmentStarts[segment] = offset;
+                segment++;
+            }
+            offset += counts[i];
+        }
+        segmentStarts[segmentCount] = offset;
+        this.docIds = new int[docIds.length];
+        for (int i = 0; i < docIds.length; i++){
+            this.docIds[offsets[maxImpact - impacts[i]]] = docIds[i];
+            offsets[maxImpact - impacts[i]]++;
+        }
+    }
+
+    /**
+     * Returns the number of segments.
+     * @return Number of segments.
+     */
+    public int segmentCount(){
+        return segmentImpacts.length;
+    }
+
+    /**
+     * Returns the impact of the postings in the given segment.
+     * @param segment Index of the segment.
+     * @return Impact of the postings in the segment.
+     */
+    public int getImpact(int segment){
+        return segmentImpacts[segment];
+    }
+
+    /**
+     * Returns the position of the first posting of the given segment.
+     * @param segment Index of the segment.
+     * @return Position of the first posting of the segment.
+     */
+    public int segmentStart(int segment){
+        return segmentStarts[segment];
+    }
+
+    /**
+     * Returns the position after the last posting of the given segment.
+     * @param segment Index of the segment.
+     * @return Position after the last posting of the segment.
+     */
+    public int segmentEnd(int segment){
+        return segmentStarts[segment + 1];
+    }
+
+    /**
+     * Returns the document id of the posting at the given position.
+     * @param index Position of the posting.
+     * @return Document id of the posting.
+     */
+    public int getDocId(int index){
+        return docIds[index];
+    }
+
+    /**
+     * Returns the number of postings.
+     * @return Number of postings.
+     */
+    public int size(){
+        return docIds.length;
+    }
+}
@@ -5,8 +5,13 @@ import InformationRetrieval.Query.QueryResult;
 
 import java.util.ArrayList;
 
+/**
+ * Term-document incidence matrix. Each row of the matrix, the documents containing a term, is stored as a compressed
+ * {@link RoaringBitmap}, so that the matrix costs memory proportional to the number of postings instead of the number
+ * of cells, and the rows are intersected word at a time.
+ */
 public class IncidenceMatrix {
-    private final boolean[][] incidenceMatrix;
+    private final RoaringBitmap[] incidenceMatrix;
     private final int dictionarySize;
     private final int documentSize;
 
@@ -19,7 +24,7 @@ public class IncidenceMatrix {
     public IncidenceMatrix(int dictionarySize, int documentSize){
         this.dictionarySize = dictionarySize;
         this.documentSize = documentSize;
-        incidenceMatrix = new boolean[dictionarySize][documentSize];
+        incidenceMatrix = new RoaringBitmap[dictionarySize];
     }
 
     /**
@@ -42,6 +47,31 @@ public class IncidenceMatrix {
                 i++;
             }
         }
+        optimize();
+    }
+
+    /**
+     * Converts the containers of each row to their smallest representation. Should be called after the matrix is
+     * constructed.
+     */
+    public void optimize(){
+        for (RoaringBitmap row : incidenceMatrix){
+            if (row != null){
+                row.optimize();
+            }
+        }
+    }
+
+    /**
+     * Returns the row of the given term, the bitmap of the documents containing the term.
+     * @param row Row no of the term.
+     * @return The bitmap of the documents containing the term.
+     */
+    public RoaringBitmap getRow(int row){
+        if (incidenceMatrix[row] == null){
+            return new RoaringBitmap();
+        }
+        return incidenceMatrix[row];
     }
 
     /**
@@ -58,37 +88,69 @@ public class IncidenceMatrix {
             System.out.println("The document with index " + row + " is out of incidence matrix\n");
             return;
         }
-        incidenceMatrix[row][col] = true;
+        if (incidenceMatrix[row] == null){
+            incidenceMatrix[row] = new RoaringBitmap();
+        }
+        incidenceMatrix[row].add(col);
     }
 
     /**
-     * Searches a given query in the document collection using incidence matrix boolean search.
+     * Searches a given query in the document collection using incidence matrix boolean search. The rows of the query
+     * terms are intersected starting from the rarest row. If the rarest row is dense, that is, it has on average at
+     * least one document in 64, the rows are ANDed into a word-packed bitset 64 documents per operation and the set
+     * bits are enumerated with number of trailing zeros; otherwise the compressed rows are intersected. A query without
+     * terms matches all documents.
      * @param query Query string
      * @param dictionary Term dictionary
      * @return The result of the query obtained by doing incidence matrix boolean search in the collection.
      */
     public QueryResult search(Query query, TermDictionary dictionary){
-        int i, j, termIndex;
-        boolean[] resultRow;
+        int i, termIndex, rarest = 0;
         QueryResult result = new QueryResult();
-        resultRow = new boolean[documentSize];
-        for (i = 0; i < documentSize; i++){
-            resultRow[i] = true;
-        }
+        RoaringBitmap[] rows = new RoaringBitmap[query.size()];
+        int[] cardinalities = new int[query.size()];
         for (i = 0; i < query.size(); i++){
             termIndex = dictionary.getWordIndex(query.getTerm(i).getName());
             if (termIndex != -1){
-                for (j = 0; j < documentSize; j++){
-                    resultRow[j] = resultRow[j] && incidenceMatrix[termIndex][j];
+                rows[i] = getRow(termIndex);
+                cardinalities[i] = rows[i].cardinality();
+                if (cardinalities[i] < cardinalities[rarest]){
+                    rarest = i;
                 }
             } else {
                 return result;
             }
         }
-        for (i = 0; i < documentSize; i++){
-            if (resultRow[i]){
+        if (rows.length == 0){
+            for (i = 0; i < documentSize; i++){
                 result.add(i);
             }
+        } else {
+            if (64L * cardinalities[rarest] >= documentSize){
+                long[] resultRow = rows[rarest].toWords(documentSize);
+                for (i = 0; i < rows.length; i++){
+                    if (i != rarest){
+                        rows[i].andWords(resultRow);
+                    }
+                }
+                for (i = 0; i < resultRow.length; i++){
+                    long word = resultRow[i];
+                    while (word != 0){
+                        result.add(64 * i + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                RoaringBitmap resultRow = rows[rarest];
+                for (i = 0; i < rows.length; i++){
+                    if (i != rarest){
+                        resultRow = resultRow.and(rows[i]);
+                    }
+                }
+                for (int docId : resultRow.toArray()){
+                    result.add(docId);
+                }
+            }
         }
         return result;
     }
@@ -0,0 +1,43 @@
+package InformationRetrieval.Index;
+
+import Dictionary.TurkishWordComparator;
+
+import java.io.File;
+
+/**
+ * Converts the text dictionary and index files of a collection to the binary index format. For the collection and its
+ * phrase, bi-gram and tri-gram indexes, each existing -dictionary.txt, -postings.txt and -positionalPostings.txt file
+ * is read and saved as the corresponding -dictionary.bin, -postings.bin and -positionalPostings.bin file.
+ */
+public class IndexFileConverter {
+    private static final String[] SUFFIXES = {"", "-phrase", "-biGram", "-triGram"};
+
+    /**
+     * Converts the text files of the given collection to the binary format.
+     * @param name Name of the collection, which is the prefix of its dictionary and index files.
+     */
+    public static void convert(String name){
+        for (String suffix : SUFFIXES){
+            String fileName = name + suffix;
+            if (new File(fileName + "-dictionary.txt").exists()){
+                new TermDictionary(new TurkishWordComparator(), fileName).save(fileName, IndexFileFormat.BINARY);
+            }
+            if (new File(fileName + "-postings.txt").exists()){
+                new InvertedIndex(fileName).save(fileName, IndexFileFormat.BINARY);
+            }
+            if (new File(fileName + "-positionalPostings.txt").exists()){
+                new PositionalIndex(fileName).save(fileName, IndexFileFormat.BINARY);
+            }
+        }
+    }
+
+    /**
+     * Converts the text files of the collections given as arguments to the binary format.
+     * @param args Names of the collections.
+     */
+    public static void main(String[] args){
+        for (String name : args){
+            convert(name);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package InformationRetrieval.Index;
+
+public enum IndexFileFormat {
+    TEXT, BINARY
+}
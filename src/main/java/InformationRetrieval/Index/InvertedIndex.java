@@ -9,17 +9,21 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 public class InvertedIndex {
-    private final TreeMap<Integer, PostingList> index;
+    private static final int POSTING_LIST_BYTES = 96;
+    private static final int POSTING_BYTES = 6;
+
+    private final TermIndexMap<PostingList> index;
+    private TermIndexMap<CompressedPostingList> compressedIndex = null;
+    private long addedPostingCount = 0;
 
     /**
      * Constructs an empty inverted index.
      */
     public InvertedIndex(){
-        index = new TreeMap<>();
+        index = new TermIndexMap<>();
     }
 
     /**
@@ -60,6 +64,18 @@ public class InvertedIndex {
                 i++;
                 previousTerm = term;
             }
+            trimToSize();
+        }
+    }
+
+    /**
+     * Shrinks the postings arrays of all posting lists to their sizes and augments them with skip pointers. Called after
+     * the construction of the index, when no more postings will be added, so that the searches only read the lists.
+     */
+    public void trimToSize(){
+        for (int key : index.keys()){
+            index.get(key).trimToSize();
+            index.get(key).addSkipPointers();
         }
     }
 
@@ -77,7 +93,9 @@ public class InvertedIndex {
                 String[] items = line.split(" ");
                 int wordId = Integer.parseInt(items[0]);
                 line = br.readLine();
-                index.put(wordId, new PostingList(line));
+                PostingList postingList = new PostingList(line);
+                postingList.addSkipPointers();
+                index.put(wordId, postingList);
                 line = br.readLine();
             }
             br.close();
@@ -85,13 +103,47 @@ public class InvertedIndex {
         }
     }
 
+    /**
+     * Reads the postings lists of the inverted index from a binary index file, in which each record stores the term id,
+     * the number of postings and the variable byte encoded posting list of a term. As in the text format, a missing
+     * file gives an empty index, but a file of another type or version is reported.
+     * @param fileName Inverted index file.
+     */
+    private void readBinaryPostingList(String fileName){
+        try {
+            BinaryIndexReader reader = new BinaryIndexReader(fileName + "-postings.bin", BinaryIndexWriter.POSTINGS_MAGIC);
+            while (reader.next()){
+                PostingList postingList = reader.readPostingList();
+                postingList.addSkipPointers();
+                index.put(reader.getTermId(), postingList);
+            }
+            reader.close();
+        } catch (FileNotFoundException ignored) {
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Reads the inverted index from an input file.
      * @param fileName Input file name for the inverted index.
      */
     public InvertedIndex(String fileName){
-        index = new TreeMap<>();
-        readPostingList(fileName);
+        this(fileName, IndexFileFormat.TEXT);
+    }
+
+    /**
+     * Reads the inverted index from an input file in the given format.
+     * @param fileName Input file name for the inverted index.
+     * @param format Format of the index file, text or binary.
+     */
+    public InvertedIndex(String fileName, IndexFileFormat format){
+        index = new TermIndexMap<>();
+        if (format == IndexFileFormat.BINARY){
+            readBinaryPostingList(fileName);
+        } else {
+            readPostingList(fileName);
+        }
     }
 
     /**
@@ -104,8 +156,14 @@ public class InvertedIndex {
     public void save(String fileName){
         try {
             PrintWriter printWriter = new PrintWriter(fileName + "-postings.txt", "UTF-8");
-            for (Integer key : index.keySet()){
-                index.get(key).writeToFile(printWriter, key);
+            if (compressedIndex != null){
+                for (int key : compressedIndex.keys()){
+                    compressedIndex.get(key).toPostingList().writeToFile(printWriter, key);
+                }
+            } else {
+                for (int key : index.keys()){
+                    index.get(key).writeToFile(printWriter, key);
+                }
             }
             printWriter.close();
         } catch (FileNotFoundException | UnsupportedEncodingException e) {
@@ -114,50 +172,144 @@ public class InvertedIndex {
     }
 
     /**
-     * Adds a possible new term with a document id to the inverted index. First the term is searched in the hash map,
-     * then the document id is put into the correct postings list.
+     * Saves the inverted index into the index file in the given format. In the binary format, each term is stored as a
+     * record of the term id, the number of postings and the variable byte encoded posting list, followed by a term
+     * table with the offsets of the records.
+     * @param fileName Index file name. Real index file name is created by attaching -postings.txt or -postings.bin to
+     *                 this file name
+     * @param format Format of the index file, text or binary.
+     */
+    public void save(String fileName, IndexFileFormat format){
+        if (format == IndexFileFormat.TEXT){
+            save(fileName);
+            return;
+        }
+        try {
+            BinaryIndexWriter writer = new BinaryIndexWriter(fileName + "-postings.bin", BinaryIndexWriter.POSTINGS_MAGIC);
+            if (compressedIndex != null){
+                for (int key : compressedIndex.keys()){
+                    writer.writePostingList(key, compressedIndex.get(key).toPostingList());
+                }
+            } else {
+                for (int key : index.keys()){
+                    writer.writePostingList(key, index.get(key));
+                }
+            }
+            writer.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Adds a possible new term with a document id to the inverted index. First the term is searched in the term index
+     * map, then the document id is put into the correct postings list.
      * @param termId Id of the term
      * @param docId Document id in which the term exists
      */
     public void add(int termId, int docId){
-        PostingList postingList;
-        if (!index.containsKey(termId)){
+        PostingList postingList = index.get(termId);
+        if (postingList == null){
             postingList = new PostingList();
-        } else {
-            postingList = index.get(termId);
+            index.put(termId, postingList);
         }
         postingList.add(docId);
-        index.put(termId, postingList);
+        addedPostingCount++;
+    }
+
+    /**
+     * Returns the estimated heap footprint of the postings added to the index with the add method. A posting list costs
+     * its object, its array header and its entry in the term index map; a posting costs four bytes in the postings
+     * array, plus half of it on average for the unused capacity of the array. The estimate is updated as the postings
+     * are added, so it can be checked after each document while an index block is constructed.
+     * @return Estimated heap footprint of the index in bytes.
+     */
+    public long estimatedMemory(){
+        return (long) index.size() * POSTING_LIST_BYTES + addedPostingCount * POSTING_BYTES;
+    }
+
+    /**
+     * Compresses all posting lists of the index with the given codec. With variable byte encoding, the gaps between
+     * successive document ids are stored in a byte array; with PForDelta, the gaps are bit packed in blocks of 128
+     * postings with per block skip information. The uncompressed posting lists are released and the queries are
+     * evaluated over the compressed posting lists afterwards, therefore this method should be called after the
+     * construction of the index.
+     * @param compressionType Codec used to compress the posting lists.
+     */
+    public void compress(CompressionType compressionType){
+        if (compressionType == CompressionType.NONE){
+            return;
+        }
+        compressedIndex = new TermIndexMap<>();
+        for (int key : index.keys()){
+            if (compressionType == CompressionType.PFOR_DELTA){
+                compressedIndex.put(key, new BlockPostingList(index.get(key)));
+            } else {
+                compressedIndex.put(key, new VariableBytePostingList(index.get(key)));
+            }
+        }
+        index.clear();
+    }
+
+    /**
+     * Returns the posting list of the term with the given id. Subclasses that do not keep the posting lists in memory
+     * override this method to load the posting list when a query needs it.
+     * @param termId Id of the term
+     * @return Posting list of the term, null if the term does not exist in the index.
+     */
+    protected PostingList getPostingList(int termId){
+        return index.get(termId);
     }
 
     /**
-     * Constructs a sorted array list of frequency counts for a word list and also sorts the word list according to
-     * those frequencies.
-     * @param wordList Word list for which frequency array is constructed.
+     * Returns the number of documents containing the term with the given id.
+     * @param termId Id of the term
+     * @return Document frequency of the term.
+     */
+    protected int documentFrequency(int termId){
+        if (compressedIndex != null){
+            CompressedPostingList compressedPostingList = compressedIndex.get(termId);
+            return compressedPostingList != null ? compressedPostingList.size() : 0;
+        }
+        PostingList postingList = getPostingList(termId);
+        return postingList != null ? postingList.size() : 0;
+    }
+
+    /**
+     * Sorts a word list according to the document frequencies of the words in decreasing order. Words with the same
+     * frequency keep their order in the list.
+     * @param wordList Word list to be sorted.
      * @param dictionary Term dictionary
      */
     public void autoCompleteWord(ArrayList<String> wordList, TermDictionary dictionary){
-        ArrayList<Integer> counts = new ArrayList<>();
-        for (String word : wordList){
-            counts.add(index.get(dictionary.getWordIndex(word)).size());
-        }
-        for (int i = 0; i < wordList.size() - 1; i++){
-            for (int j = i + 1; j < wordList.size(); j++){
-                if (counts.get(i) < counts.get(j)){
-                    Collections.swap(counts, i, j);
-                    Collections.swap(wordList, i, j);
-                }
-            }
+        long[] keys = new long[wordList.size()];
+        for (int i = 0; i < wordList.size(); i++){
+            int count = documentFrequency(dictionary.getWordIndex(wordList.get(i)));
+            keys[i] = ((long) (Integer.MAX_VALUE - count) << 32) | i;
+        }
+        Arrays.sort(keys);
+        ArrayList<String> sorted = new ArrayList<>(wordList.size());
+        for (long key : keys){
+            sorted.add(wordList.get((int) key));
+        }
+        for (int i = 0; i < sorted.size(); i++){
+            wordList.set(i, sorted.get(i));
         }
     }
 
     /**
-     * Searches a given query in the document collection using inverted index boolean search.
+     * Searches a given query in the document collection using inverted index boolean search. The search only reads the
+     * posting lists; the skip pointers added at the end of the construction of the index are used while intersecting
+     * two lists. Queries with more than two terms are intersected in a single pass over all lists, driven by the rarest
+     * list.
      * @param query Query string
      * @param dictionary Term dictionary
      * @return The result of the query obtained by doing inverted index boolean search in the collection.
      */
     public QueryResult search(Query query, TermDictionary dictionary){
+        if (compressedIndex != null){
+            return compressedSearch(query, dictionary);
+        }
         int i, termIndex;
         PostingList result;
         PostingListComparator comparator = new PostingListComparator();
@@ -165,7 +317,46 @@ public class InvertedIndex {
         for (i = 0; i < query.size(); i++){
             termIndex = dictionary.getWordIndex(query.getTerm(i).getName());
             if (termIndex != -1){
-                queryTerms.add(index.get(termIndex));
+                PostingList postingList = getPostingList(termIndex);
+                if (postingList == null){
+                    return new QueryResult();
+                }
+                queryTerms.add(postingList);
+            } else {
+                return new QueryResult();
+            }
+        }
+        if (queryTerms.size() > 2){
+            return PostingList.multiWayIntersection(queryTerms);
+        }
+        queryTerms.sort(comparator);
+        result = queryTerms.get(0);
+        for (i = 1; i < queryTerms.size(); i++){
+            result = result.intersection(queryTerms.get(i));
+        }
+        return result.toQueryResult();
+    }
+
+    /**
+     * Searches a given query in the document collection using the compressed posting lists. The posting lists are
+     * intersected starting from the shortest one, decoding them with cursors.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @return The result of the query obtained by doing inverted index boolean search in the collection.
+     */
+    private QueryResult compressedSearch(Query query, TermDictionary dictionary){
+        int i, termIndex;
+        CompressedPostingList result;
+        CompressedPostingListComparator comparator = new CompressedPostingListComparator();
+        ArrayList<CompressedPostingList> queryTerms = new ArrayList<>();
+        for (i = 0; i < query.size(); i++){
+            termIndex = dictionary.getWordIndex(query.getTerm(i).getName());
+            if (termIndex != -1){
+                CompressedPostingList postingList = compressedIndex.get(termIndex);
+                if (postingList == null){
+                    return new QueryResult();
+                }
+                queryTerms.add(postingList);
             } else {
                 return new QueryResult();
             }
@@ -0,0 +1,224 @@
+package InformationRetrieval.Index;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read only inverted index over a memory mapped binary index file. Only the term table of the file is read into the
+ * heap; the posting list of a term is decoded from the mapped file when a query needs it. Since a single mapping can
+ * not exceed 2GB, the file is mapped as a sequence of regions, and the records crossing a region boundary are read
+ * from both regions. The mapped pages live in the page cache of the operating system, so that several processes
+ * searching the same index share them.
+ * <p>
+ * The index only supports the read methods of {@link InvertedIndex}: add throws UnsupportedOperationException, compress
+ * does nothing since the posting lists are already stored compressed in the file, and saving the index in binary format
+ * under the name of the mapped file does not write anything, since that file already stores the index and rewriting it
+ * would overwrite the mapped pages while they are read.
+ */
+public class MappedInvertedIndex extends InvertedIndex {
+    private static final int REGION_SIZE = 1 << 30;
+
+    private final String fileName;
+    private final MappedByteBuffer[] regions;
+    private final int[] termIds;
+    private final long[] offsets;
+
+    /**
+     * Maps the binary index file and reads its term table. The file is written by {@link BinaryIndexWriter}.
+     * @param fileName Index file name. Real index file name is created by attaching -postings.bin to this file name.
+     */
+    public MappedInvertedIndex(String fileName){
+        super();
+        this.fileName = fileName;
+        try {
+            RandomAccessFile file = new RandomAccessFile(fileName + "-postings.bin", "r");
+            FileChannel channel = file.getChannel();
+            long size = channel.size();
+            regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+            for (int i = 0; i < regions.length; i++){
+                long start = (long) i * REGION_SIZE;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+            }
+            file.close();
+            if (size < BinaryIndexWriter.HEADER_SIZE + 8 || getInt(0) != BinaryIndexWriter.POSTINGS_MAGIC ||
+                    getInt(4) != BinaryIndexWriter.VERSION){
+                throw new IOException(fileName + "-postings.bin is not a supported binary index file");
+            }
+            long tableOffset = getLong(size - 8);
+            int termCount = getInt(tableOffset);
+            termIds = new int[termCount];
+            offsets = new long[termCount];
+            for (int i = 0; i < termCount; i++){
+                termIds[i] = getInt(tableOffset + 4 + 12L * i);
+                offsets[i] = getLong(tableOffset + 8 + 12L * i);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Copies the given number of bytes starting from the given file position into the buffer. The bytes may span two or
+     * more regions.
+     * @param position Position in the file.
+     * @param buffer Output buffer.
+     * @param length Number of bytes to copy.
+     */
+    private void read(long position, byte[] buffer, int length){
+        int copied = 0;
+        while (copied < length){
+            ByteBuffer region = regions[(int) (position / REGION_SIZE)].duplicate();
+            int offset = (int) (position % REGION_SIZE);
+            int count = Math.min(length - copied, region.limit() - offset);
+            region.position(offset);
+            region.get(buffer, copied, count);
+            copied += count;
+            position += count;
+        }
+    }
+
+    /**
+     * Reads a big endian integer from the given file position.
+     * @param position Position in the file.
+     * @return Integer at the given position.
+     */
+    private int getInt(long position){
+        int offset = (int) (position % REGION_SIZE);
+        MappedByteBuffer region = regions[(int) (position / REGION_SIZE)];
+        if (offset + 4 <= region.limit()){
+            return region.getInt(offset);
+        }
+        byte[] bytes = new byte[4];
+        read(position, bytes, 4);
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    /**
+     * Reads a big endian long from the given file position.
+     * @param position Position in the file.
+     * @return Long at the given position.
+     */
+    private long getLong(long position){
+        byte[] bytes = new byte[8];
+        read(position, bytes, 8);
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * Finds the record of the term with the given id in the term table with binary search.
+     * @param termId Id of the term
+     * @return Position of the term in the term table, -1 if the term does not exist in the index.
+     */
+    private int find(int termId){
+        int low = 0, high = termIds.length - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            if (termIds[middle] == termId){
+                return middle;
+            } else {
+                if (termIds[middle] < termId){
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the posting list of the term with the given id from the mapped file.
+     * @param termId Id of the term
+     * @return Posting list of the term, null if the term does not exist in the index.
+     */
+    protected PostingList getPostingList(int termId){
+        int index = find(termId);
+        if (index == -1){
+            return null;
+        }
+        long position = offsets[index];
+        int count = getInt(position + 4);
+        byte[] blob = new byte[getInt(position + 8)];
+        read(position + BinaryIndexWriter.RECORD_HEADER_SIZE, blob, blob.length);
+        return BinaryIndexReader.decodePostingList(blob, 0, count);
+    }
+
+    /**
+     * Returns the number of documents containing the term with the given id, which is read from the record header
+     * without decoding the posting list.
+     * @param termId Id of the term
+     * @return Document frequency of the term.
+     */
+    protected int documentFrequency(int termId){
+        int index = find(termId);
+        if (index == -1){
+            return 0;
+        }
+        return getInt(offsets[index] + 4);
+    }
+
+    /**
+     * The mapped index is read only, new postings can not be added.
+     * @param termId Id of the term
+     * @param docId Document id in which the term exists
+     */
+    public void add(int termId, int docId){
+        throw new UnsupportedOperationException("Memory mapped inverted index is read only");
+    }
+
+    /**
+     * The posting lists of the mapped index are already stored compressed in the file and decoded per query, therefore
+     * the index is not compressed in memory and this method does nothing.
+     * @param compressionType Codec used to compress the posting lists.
+     */
+    public void compress(CompressionType compressionType){
+    }
+
+    /**
+     * Saves the inverted index into the text index file, decoding the posting lists one by one.
+     * @param fileName Index file name. Real index file name is created by attaching -postings.txt to this
+     *                 file name
+     */
+    public void save(String fileName){
+        try {
+            PrintWriter printWriter = new PrintWriter(fileName + "-postings.txt", "UTF-8");
+            for (int termId : termIds){
+                getPostingList(termId).writeToFile(printWriter, termId);
+            }
+            printWriter.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Saves the inverted index into the index file in the given format, decoding the posting lists one by one. If the
+     * binary file is the mapped file itself, nothing is written: the file already stores the index, and writing it
+     * while it is mapped would truncate the pages the posting lists are decoded from.
+     * @param fileName Index file name. Real index file name is created by attaching -postings.txt or -postings.bin to
+     *                 this file name
+     * @param format Format of the index file, text or binary.
+     */
+    public void save(String fileName, IndexFileFormat format){
+        if (format == IndexFileFormat.TEXT){
+            save(fileName);
+            return;
+        }
+        if (fileName.equals(this.fileName)){
+            return;
+        }
+        try {
+            BinaryIndexWriter writer = new BinaryIndexWriter(fileName + "-postings.bin", BinaryIndexWriter.POSTINGS_MAGIC);
+            for (int termId : termIds){
+                writer.writePostingList(termId, getPostingList(termId));
+            }
+            writer.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
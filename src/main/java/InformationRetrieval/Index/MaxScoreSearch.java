@@ -0,0 +1,112 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.TopKCollector;
+
+import java.util.ArrayList;
+
+/**
+ * Document at a time ranked search with the MaxScore dynamic pruning algorithm. The cursors are sorted in increasing
+ * order of their upper bounds and the cumulative upper bounds are calculated. The cursors whose cumulative upper bound
+ * does not exceed the score of the K'th best document found so far are non essential: a document containing only their
+ * terms cannot enter the top K. The candidate documents are therefore taken only from the postings of the essential
+ * cursors, and the non essential cursors are advanced to a candidate one at a time, from the largest upper bound to
+ * the smallest, stopping as soon as the partial score and the remaining upper bounds cannot exceed the threshold.
+ */
+public class MaxScoreSearch extends DocumentAtATimeSearch {
+    private final PostingScorer[] byMaxScore;
+    private final double[] cumulativeMaxScores;
+
+    /**
+     * Constructs the search over the cursors of the query terms, and sorts the cursors in increasing order of their
+     * upper bounds.
+     * @param scorers Cursors of the query terms, in the order of the terms in the query.
+     * @param documents Document collection
+     */
+    public MaxScoreSearch(ArrayList<PostingScorer> scorers, ArrayList<Document> documents){
+        super(scorers, documents);
+        byMaxScore = scorers.toArray(new PostingScorer[0]);
+        for (int i = 1; i < byMaxScore.length; i++){
+            PostingScorer scorer = byMaxScore[i];
+            int j = i - 1;
+            while (j >= 0 && byMaxScore[j].getMaxScore() > scorer.getMaxScore()){
+                byMaxScore[j + 1] = byMaxScore[j];
+                j--;
+            }
+            byMaxScore[j + 1] = scorer;
+        }
+        cumulativeMaxScores = new double[byMaxScore.length];
+        double sum = 0.0;
+        for (int i = 0; i < byMaxScore.length; i++){
+            sum += byMaxScore[i].getMaxScore();
+            cumulativeMaxScores[i] = sum;
+        }
+    }
+
+    /**
+     * Finds the first essential cursor, that is, the first cursor in upper bound order whose cumulative upper bound
+     * exceeds the given threshold.
+     * @param from Position to start the search, the first essential cursor for a smaller threshold.
+     * @param threshold Score a document should exceed to enter the top K.
+     * @return Position of the first essential cursor, the number of cursors if no document can exceed the threshold.
+     */
+    private int firstEssential(int from, double threshold){
+        while (from < byMaxScore.length && cumulativeMaxScores[from] * (1 + BOUND_SLACK) <= threshold){
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Returns the K documents with the largest scores.
+     * @param K Number of documents to return.
+     * @return The best K documents, sorted in decreasing order of their scores.
+     */
+    public QueryResult search(int K){
+        TopKCollector collector = new TopKCollector(K);
+        if (K <= 0){
+            return collector.toQueryResult();
+        }
+        int essential = firstEssential(0, collector.threshold());
+        while (essential < byMaxScore.length){
+            int docId = Integer.MAX_VALUE;
+            for (int i = essential; i < byMaxScore.length; i++){
+                if (byMaxScore[i].docId() < docId){
+                    docId = byMaxScore[i].docId();
+                }
+            }
+            if (docId == Integer.MAX_VALUE){
+                break;
+            }
+            double threshold = collector.threshold();
+            double size = documents.get(docId).getSize();
+            double partialScore = 0.0;
+            for (int i = essential; i < byMaxScore.length; i++){
+                if (byMaxScore[i].docId() == docId){
+                    partialScore += byMaxScore[i].score() / size;
+                }
+            }
+            boolean candidate = true;
+            for (int i = essential - 1; i >= 0; i--){
+                if ((partialScore + cumulativeMaxScores[i]) * (1 + BOUND_SLACK) <= threshold){
+                    candidate = false;
+                    break;
+                }
+                byMaxScore[i].advance(docId);
+                if (byMaxScore[i].docId() == docId){
+                    partialScore += byMaxScore[i].score() / size;
+                }
+            }
+            if (candidate && collector.add(docId, score(docId))){
+                essential = firstEssential(essential, collector.threshold());
+            }
+            for (int i = 0; i < byMaxScore.length; i++){
+                if (byMaxScore[i].docId() == docId){
+                    byMaxScore[i].next();
+                }
+            }
+        }
+        return collector.toQueryResult();
+    }
+}
@@ -32,4 +32,13 @@ public class NGramIndex extends InvertedIndex{
         super(fileName);
     }
 
+    /**
+     * Reads the NGram index from an input file in the given format.
+     * @param fileName Input file name for the NGram index.
+     * @param format Format of the index file, text or binary.
+     */
+    public NGramIndex(String fileName, IndexFileFormat format) {
+        super(fileName, format);
+    }
+
 }
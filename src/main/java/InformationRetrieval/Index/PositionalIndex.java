@@ -2,9 +2,13 @@ package InformationRetrieval.Index;
 
 import Dictionary.WordComparator;
 import InformationRetrieval.Document.Document;
+import InformationRetrieval.Document.DocumentWeighting;
 import InformationRetrieval.Query.Query;
 import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.QueryResultItem;
+import InformationRetrieval.Query.ScoreAccumulator;
 import InformationRetrieval.Query.SearchParameter;
+import InformationRetrieval.Query.TopKCollector;
 import InformationRetrieval.Query.VectorSpaceModel;
 
 import java.io.*;
@@ -12,21 +16,30 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 /**
  * Positional index is an extension of inverted index, the postings lists are replaced with positional postings lists.
  */
 public class PositionalIndex {
+    private static final int POSTING_LIST_BYTES = 104;
+    private static final int POSTING_BYTES = 72;
+    private static final int POSITION_BYTES = 24;
 
-    private final TreeMap<Integer, PositionalPostingList> positionalIndex;
+    private final TermIndexMap<PositionalPostingList> positionalIndex;
+    private TermIndexMap<CompressedPositionalPostingList> compressedIndex = null;
+    private final ThreadLocal<ScoreAccumulator> accumulators = new ThreadLocal<>();
+    private TermIndexMap<double[][]> blockMaxWeights = null;
+    private TermIndexMap<FrequencyPostingList> frequencyPostingLists = null;
+    private ImpactOrderedIndex[][] impactOrderedIndexes = null;
+    private long addedPostingCount = 0;
+    private long addedPositionCount = 0;
 
     /**
      * Constructs an empty inverted index.
      */
     public PositionalIndex(){
-        positionalIndex = new TreeMap<>();
+        positionalIndex = new TermIndexMap<>();
     }
 
     /**
@@ -34,8 +47,21 @@ public class PositionalIndex {
      * @param fileName Input file name for the positional inverted index.
      */
     public PositionalIndex(String fileName){
-        positionalIndex = new TreeMap<>();
-        readPositionalPostingList(fileName);
+        this(fileName, IndexFileFormat.TEXT);
+    }
+
+    /**
+     * Reads the positional inverted index from an input file in the given format.
+     * @param fileName Input file name for the positional inverted index.
+     * @param format Format of the index file, text or binary.
+     */
+    public PositionalIndex(String fileName, IndexFileFormat format){
+        positionalIndex = new TermIndexMap<>();
+        if (format == IndexFileFormat.BINARY){
+            readBinaryPositionalPostingList(fileName);
+        } else {
+            readPositionalPostingList(fileName);
+        }
     }
 
     /**
@@ -102,6 +128,25 @@ public class PositionalIndex {
         }
     }
 
+    /**
+     * Reads the positional postings lists of the positional index from a binary index file, in which each record stores
+     * the term id, the number of documents and the variable byte encoded positional posting list of a term. As in the
+     * text format, a missing file gives an empty index, but a file of another type or version is reported.
+     * @param fileName Positional index file.
+     */
+    private void readBinaryPositionalPostingList(String fileName){
+        try {
+            BinaryIndexReader reader = new BinaryIndexReader(fileName + "-positionalPostings.bin", BinaryIndexWriter.POSITIONAL_POSTINGS_MAGIC);
+            while (reader.next()){
+                positionalIndex.put(reader.getTermId(), reader.readPositionalPostingList());
+            }
+            reader.close();
+        } catch (FileNotFoundException ignored) {
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Saves the positional index into the index file. The postings are stored in n lines. The first line contains the
      * term id and the number of documents that term occurs. Other n - 1 lines contain the postings list for that term
@@ -112,8 +157,8 @@ public class PositionalIndex {
     public void save(String fileName){
         try {
             PrintWriter printWriter = new PrintWriter(fileName + "-positionalPostings.txt", "UTF-8");
-            for (Integer key : positionalIndex.keySet()){
-                positionalIndex.get(key).writeToFile(printWriter, key);
+            for (int key : termIds()){
+                getPositionalPostingList(key).writeToFile(printWriter, key);
             }
             printWriter.close();
         } catch (FileNotFoundException | UnsupportedEncodingException e) {
@@ -121,44 +166,198 @@ public class PositionalIndex {
         }
     }
 
+    /**
+     * Saves the positional index into the index file in the given format. In the binary format, each term is stored as
+     * a record of the term id, the number of documents and the variable byte encoded positional posting list, followed
+     * by a term table with the offsets of the records.
+     * @param fileName Index file name. Real index file name is created by attaching -positionalPostings.txt or
+     *                 -positionalPostings.bin to this file name
+     * @param format Format of the index file, text or binary.
+     */
+    public void save(String fileName, IndexFileFormat format){
+        if (format == IndexFileFormat.TEXT){
+            save(fileName);
+            return;
+        }
+        try {
+            BinaryIndexWriter writer = new BinaryIndexWriter(fileName + "-positionalPostings.bin", BinaryIndexWriter.POSITIONAL_POSTINGS_MAGIC);
+            for (int key : termIds()){
+                writer.writePositionalPostingList(key, getPositionalPostingList(key));
+            }
+            writer.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Adds a possible new term with a position and document id to the positional index. First the term is searched in
-     * the hash map, then the position and the document id is put into the correct postings list.
+     * the term index map, then the position and the document id is put into the correct postings list.
      * @param termId Id of the term
      * @param docId Document id in which the term exists
      * @param position Position of the term in the document with id docId
      */
     public void addPosition(int termId, int docId, int position){
-        PositionalPostingList positionalPostingList;
-        if (!positionalIndex.containsKey(termId)){
+        PositionalPostingList positionalPostingList = positionalIndex.get(termId);
+        if (positionalPostingList == null){
             positionalPostingList = new PositionalPostingList();
-        } else {
-            positionalPostingList = positionalIndex.get(termId);
+            positionalIndex.put(termId, positionalPostingList);
         }
+        int size = positionalPostingList.size();
         positionalPostingList.add(docId, position);
-        positionalIndex.put(termId, positionalPostingList);
+        if (positionalPostingList.size() > size){
+            addedPostingCount++;
+        }
+        addedPositionCount++;
+        blockMaxWeights = null;
+        impactOrderedIndexes = null;
+    }
+
+    /**
+     * Returns the estimated heap footprint of the positional postings added to the index with the addPosition method. A
+     * positional posting list costs its object, its array list and its entry in the term index map; a positional
+     * posting costs its object and its position list; and a position costs its posting object and its reference in
+     * the position list. The estimate is updated as the positions are added, so it can be checked after each document
+     * while an index block is constructed.
+     * @return Estimated heap footprint of the positional index in bytes.
+     */
+    public long estimatedMemory(){
+        return (long) positionalIndex.size() * POSTING_LIST_BYTES + addedPostingCount * POSTING_BYTES + addedPositionCount * POSITION_BYTES;
+    }
+
+    /**
+     * Compresses all positional posting lists of the index by storing the gaps between successive document ids and
+     * successive positions with variable byte encoding. The uncompressed positional posting lists are released and the
+     * positional queries are evaluated over the compressed lists afterwards, therefore this method should be called
+     * after the construction of the index.
+     */
+    public void compress(){
+        compressedIndex = new TermIndexMap<>();
+        for (int key : positionalIndex.keys()){
+            compressedIndex.put(key, new CompressedPositionalPostingList(positionalIndex.get(key)));
+        }
+        positionalIndex.clear();
+        frequencyPostingLists = null;
+    }
+
+    /**
+     * Returns the ids of the terms in the index in increasing order.
+     * @return Ids of the terms in the index.
+     */
+    private int[] termIds(){
+        if (compressedIndex != null){
+            return compressedIndex.keys();
+        }
+        return positionalIndex.keys();
     }
 
     /**
-     * Searches a given query in the document collection using positional index boolean search.
+     * Returns the positional posting list of the term with the given id. If the index is compressed, the positional
+     * posting list is decompressed.
+     * @param termId Id of the term
+     * @return Positional posting list of the term, null if the term does not exist in the index.
+     */
+    private PositionalPostingList getPositionalPostingList(int termId){
+        if (compressedIndex != null){
+            CompressedPositionalPostingList compressedPostingList = compressedIndex.get(termId);
+            if (compressedPostingList == null){
+                return null;
+            }
+            return compressedPostingList.toPositionalPostingList();
+        }
+        return positionalIndex.get(termId);
+    }
+
+    /**
+     * Returns the document ids and the term frequencies of the postings of the term with the given id. If the index is
+     * compressed, only the document ids and the numbers of positions are decoded, and the positions are skipped.
+     * @param termId Id of the term
+     * @return Document ids and term frequencies of the postings of the term, null if the term does not exist in the
+     * index.
+     */
+    private FrequencyPostingList toFrequencyPostingList(int termId){
+        if (compressedIndex != null){
+            CompressedPositionalPostingList compressedPostingList = compressedIndex.get(termId);
+            if (compressedPostingList == null){
+                return null;
+            }
+            return new FrequencyPostingList(compressedPostingList);
+        }
+        PositionalPostingList positionalPostingList = positionalIndex.get(termId);
+        if (positionalPostingList == null){
+            return null;
+        }
+        return new FrequencyPostingList(positionalPostingList);
+    }
+
+    /**
+     * Returns the document ids and the term frequencies of the postings of the term with the given id for document at a
+     * time ranked search. The lists are decoded once for each term searched document at a time, and decoded again only
+     * after the index is compressed, so the queries neither decompress the positional postings lists nor construct
+     * positional postings. The cache is shared by concurrent queries, therefore it is read and filled while holding the
+     * lock of the index.
+     * @param termId Id of the term
+     * @return Document ids and term frequencies of the postings of the term, null if the term does not exist in the
+     * index.
+     */
+    private synchronized FrequencyPostingList frequencyPostingList(int termId){
+        if (frequencyPostingLists == null){
+            frequencyPostingLists = new TermIndexMap<>();
+        }
+        FrequencyPostingList postingList = frequencyPostingLists.get(termId);
+        if (postingList == null){
+            postingList = toFrequencyPostingList(termId);
+            if (postingList != null){
+                frequencyPostingLists.put(termId, postingList);
+            }
+        }
+        return postingList;
+    }
+
+    /**
+     * Searches a given query in the document collection using positional index boolean search. The positional postings
+     * lists of all query terms are intersected together in a single pass, checking the phrase positions of the common
+     * documents.
      * @param query Query string
      * @param dictionary Term dictionary
      * @return The result of the query obtained by doing positional index boolean search in the collection.
      */
     public QueryResult positionalSearch(Query query, TermDictionary dictionary){
+        if (compressedIndex != null){
+            return compressedPositionalSearch(query, dictionary);
+        }
         int i, term;
-        PositionalPostingList postingResult = null;
+        ArrayList<PositionalPostingList> queryTerms = new ArrayList<>();
         for (i = 0; i < query.size(); i++){
             term = dictionary.getWordIndex(query.getTerm(i).getName());
-            if (term != -1){
+            PositionalPostingList positionalPostingList = term != -1 ? positionalIndex.get(term) : null;
+            if (positionalPostingList != null){
+                queryTerms.add(positionalPostingList);
+            } else {
+                return new QueryResult();
+            }
+        }
+        return PositionalPostingList.phraseIntersection(queryTerms);
+    }
+
+    /**
+     * Searches a given query in the document collection using the compressed positional posting lists. Intermediate
+     * results are also kept compressed, and the positions of a document are decoded only if the document exists in both
+     * lists.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @return The result of the query obtained by doing positional index boolean search in the collection.
+     */
+    private QueryResult compressedPositionalSearch(Query query, TermDictionary dictionary){
+        int i, term;
+        CompressedPositionalPostingList postingResult = null;
+        for (i = 0; i < query.size(); i++){
+            term = dictionary.getWordIndex(query.getTerm(i).getName());
+            if (term != -1 && compressedIndex.containsKey(term)){
                 if (i == 0){
-                    postingResult = positionalIndex.get(term);
+                    postingResult = compressedIndex.get(term);
                 } else {
-                    if (postingResult != null){
-                        postingResult = postingResult.intersection(positionalIndex.get(term));
-                    } else {
-                        return new QueryResult();
-                    }
+                    postingResult = postingResult.intersection(compressedIndex.get(term));
                 }
             } else {
                 return new QueryResult();
@@ -180,10 +379,11 @@ public class PositionalIndex {
         int[] tf;
         int index;
         PositionalPostingList positionalPostingList;
-        tf = new int[positionalIndex.size()];
+        int[] termIds = termIds();
+        tf = new int[termIds.length];
         int i = 0;
-        for (Integer key : positionalIndex.keySet()){
-            positionalPostingList = positionalIndex.get(key);
+        for (int key : termIds){
+            positionalPostingList = getPositionalPostingList(key);
             index = positionalPostingList.getIndex(docId);
             if (index != -1){
                 tf[i] = positionalPostingList.get(index).size();
@@ -201,10 +401,15 @@ public class PositionalIndex {
      */
     public int[] getDocumentFrequencies(){
         int[] df;
-        df = new int[positionalIndex.size()];
+        int[] termIds = termIds();
+        df = new int[termIds.length];
         int i = 0;
-        for (Integer key : positionalIndex.keySet()){
-            df[i] = positionalIndex.get(key).size();
+        for (int key : termIds){
+            if (compressedIndex != null){
+                df[i] = compressedIndex.get(key).size();
+            } else {
+                df[i] = positionalIndex.get(key).size();
+            }
             i++;
         }
         return df;
@@ -216,8 +421,8 @@ public class PositionalIndex {
      */
     public void setDocumentSizes(ArrayList<Document> documents){
         int[] sizes = new int[documents.size()];
-        for (int termId : positionalIndex.keySet()){
-            PositionalPostingList positionalPostingList = positionalIndex.get(termId);
+        for (int termId : termIds()){
+            PositionalPostingList positionalPostingList = getPositionalPostingList(termId);
             for (int j = 0; j < positionalPostingList.size(); j++) {
                 PositionalPosting positionalPosting = positionalPostingList.get(j);
                 int docId = positionalPosting.getDocId();
@@ -227,6 +432,8 @@ public class PositionalIndex {
         for (Document document : documents){
             document.setSize(sizes[document.getDocId()]);
         }
+        blockMaxWeights = null;
+        impactOrderedIndexes = null;
     }
 
     /**
@@ -234,8 +441,8 @@ public class PositionalIndex {
      * @param documents Document collection.
      */
     public void setCategoryCounts(ArrayList<Document> documents){
-        for (int termId : positionalIndex.keySet()) {
-            PositionalPostingList positionalPostingList = positionalIndex.get(termId);
+        for (int termId : termIds()) {
+            PositionalPostingList positionalPostingList = getPositionalPostingList(termId);
             for (int j = 0; j < positionalPostingList.size(); j++) {
                 PositionalPosting positionalPosting = positionalPostingList.get(j);
                 int docId = positionalPosting.getDocId();
@@ -248,7 +455,76 @@ public class PositionalIndex {
     }
 
     /**
-     * Searches a given query in the document collection using inverted index ranked search.
+     * Returns the score accumulator of the calling thread, reset for a new query. Each thread reuses its own
+     * accumulator, so concurrent ranked searches do not share any scores.
+     * @param documentCount Number of documents in the collection
+     * @return Empty score accumulator of the calling thread.
+     */
+    private ScoreAccumulator accumulator(int documentCount){
+        ScoreAccumulator accumulator = accumulators.get();
+        if (accumulator == null){
+            accumulator = new ScoreAccumulator(documentCount);
+            accumulators.set(accumulator);
+        } else {
+            accumulator.reset(documentCount);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Adds the scores of the documents for the query terms into the score accumulator, one query term at a time. The
+     * inverse document frequency part of the weight is calculated once per query term, and only the term frequency
+     * part is calculated for each posting. If the index is compressed, the postings are scored directly from a cursor
+     * over the compressed positional postings list, which skips the positions without decoding them.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @param documentCount Number of documents in the collection
+     * @param parameter Search parameter
+     * @return Score accumulator of the calling thread, containing the scores of the documents.
+     */
+    private ScoreAccumulator accumulateScores(Query query, TermDictionary dictionary, int documentCount, SearchParameter parameter){
+        ScoreAccumulator accumulator = accumulator(documentCount);
+        for (int i = 0; i < query.size(); i++){
+            int term = dictionary.getWordIndex(query.getTerm(i).getName());
+            if (term == -1){
+                continue;
+            }
+            if (compressedIndex != null){
+                CompressedPositionalPostingList compressedPostingList = compressedIndex.get(term);
+                if (compressedPostingList == null || compressedPostingList.size() == 0){
+                    continue;
+                }
+                double idf = VectorSpaceModel.documentFrequencyWeight(compressedPostingList.size(), documentCount, parameter.getDocumentWeighting());
+                CompressedPositionalPostingListCursor cursor = compressedPostingList.cursor();
+                while (cursor.hasNext()){
+                    int docId = cursor.nextDocument();
+                    if (cursor.getFrequency() > 0){
+                        accumulator.add(docId, VectorSpaceModel.termFrequencyWeight(cursor.getFrequency(), parameter.getTermWeighting()) * idf);
+                    }
+                }
+            } else {
+                PositionalPostingList positionalPostingList = positionalIndex.get(term);
+                if (positionalPostingList == null || positionalPostingList.size() == 0){
+                    continue;
+                }
+                int df = positionalPostingList.size();
+                double idf = VectorSpaceModel.documentFrequencyWeight(df, documentCount, parameter.getDocumentWeighting());
+                for (int j = 0; j < df; j++){
+                    PositionalPosting positionalPosting = positionalPostingList.get(j);
+                    int tf = positionalPosting.size();
+                    if (tf > 0){
+                        accumulator.add(positionalPosting.getDocId(), VectorSpaceModel.termFrequencyWeight(tf, parameter.getTermWeighting()) * idf);
+                    }
+                }
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * Searches a given query in the document collection using inverted index ranked search. The scores are accumulated
+     * term at a time in the reusable score accumulator of the calling thread, and all scored documents are returned in
+     * increasing order of their document ids.
      * @param query Query string
      * @param dictionary Term dictionary
      * @param documents Document collection
@@ -259,34 +535,245 @@ public class PositionalIndex {
                                     TermDictionary dictionary,
                                     ArrayList<Document> documents,
                                     SearchParameter parameter){
-        int i, j, term, docID, N = documents.size(), tf, df;
         QueryResult result = new QueryResult();
-        HashMap<Integer, Double> scores = new HashMap<>();
-        PositionalPostingList positionalPostingList;
-        for (i = 0; i < query.size(); i++){
-            term = dictionary.getWordIndex(query.getTerm(i).getName());
+        ScoreAccumulator accumulator = accumulateScores(query, dictionary, documents.size(), parameter);
+        accumulator.sortTouched();
+        for (int i = 0; i < accumulator.touchedCount(); i++){
+            int docId = accumulator.touchedDocId(i);
+            result.add(docId, accumulator.getScore(docId) / documents.get(docId).getSize());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest weights of the blocks of the postings list of the term, where the weight of a posting is its
+     * term frequency weight divided by the document size. The weights are calculated once for each term
+     * and term weighting scheme, and recalculated only after the index or the document sizes change. The cache is
+     * shared by concurrent queries, therefore it is read and filled while holding the lock of the index.
+     * @param termId Id of the term
+     * @param postingList Document ids and term frequencies of the postings of the term
+     * @param termWeighting Term weighting scheme
+     * @param documents Document collection
+     * @return Largest posting weight of each block of the postings list.
+     */
+    private synchronized double[] blockMaxWeights(int termId, FrequencyPostingList postingList, TermWeighting termWeighting, ArrayList<Document> documents){
+        if (blockMaxWeights == null){
+            blockMaxWeights = new TermIndexMap<>();
+        }
+        double[][] termBlockMaxWeights = blockMaxWeights.get(termId);
+        if (termBlockMaxWeights == null){
+            termBlockMaxWeights = new double[TermWeighting.values().length][];
+            blockMaxWeights.put(termId, termBlockMaxWeights);
+        }
+        if (termBlockMaxWeights[termWeighting.ordinal()] == null){
+            termBlockMaxWeights[termWeighting.ordinal()] = postingList.blockMaxWeights(termWeighting, documents);
+        }
+        return termBlockMaxWeights[termWeighting.ordinal()];
+    }
+
+    /**
+     * Constructs the posting cursors of the query terms for document at a time ranked search, in the order of the
+     * terms in the query. Terms missing in the dictionary or in the index are skipped, as in the exhaustive ranked
+     * search.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @param documents Document collection
+     * @param parameter Search parameter
+     * @return Posting cursors of the query terms.
+     */
+    private ArrayList<PostingScorer> postingScorers(Query query, TermDictionary dictionary, ArrayList<Document> documents, SearchParameter parameter){
+        ArrayList<PostingScorer> scorers = new ArrayList<>();
+        for (int i = 0; i < query.size(); i++){
+            int term = dictionary.getWordIndex(query.getTerm(i).getName());
             if (term != -1){
-                positionalPostingList = positionalIndex.get(term);
-                for (j = 0; j < positionalPostingList.size(); j++){
-                    PositionalPosting positionalPosting = positionalPostingList.get(j);
-                    docID = positionalPosting.getDocId();
-                    tf = positionalPosting.size();
-                    df = positionalIndex.get(term).size();
-                    if (tf > 0 && df > 0){
-                        double score = VectorSpaceModel.weighting(tf, df, N, parameter.getTermWeighting(), parameter.getDocumentWeighting());
-                        if (scores.containsKey(docID)){
-                            scores.put(docID, scores.get(docID) + score);
-                        } else {
-                            scores.put(docID, score);
-                        }
+                FrequencyPostingList postingList = frequencyPostingList(term);
+                if (postingList == null || postingList.size() == 0){
+                    continue;
+                }
+                double idf = VectorSpaceModel.documentFrequencyWeight(postingList.size(), documents.size(), parameter.getDocumentWeighting());
+                double[] blockMaxWeights = blockMaxWeights(term, postingList, parameter.getTermWeighting(), documents);
+                scorers.add(new PostingScorer(postingList, idf, parameter.getTermWeighting(), blockMaxWeights));
+            }
+        }
+        return scorers;
+    }
+
+    /**
+     * Returns the impact ordered layout of the index for the given term weighting and document weighting schemes. The
+     * layout is constructed on first use for each combination of the schemes, and constructed again only after the
+     * index or the document sizes change. The largest score contribution, which determines the quantization scale, is
+     * found from the block maximum weights of the terms. The layout is constructed while holding the lock of the index,
+     * so that concurrent first queries construct it only once and all of them search the same layout.
+     * @param termWeighting Term weighting scheme
+     * @param documentWeighting Document weighting scheme
+     * @param documents Document collection
+     * @return Impact ordered layout of the index.
+     */
+    private synchronized ImpactOrderedIndex impactOrderedIndex(TermWeighting termWeighting, DocumentWeighting documentWeighting, ArrayList<Document> documents){
+        if (impactOrderedIndexes == null){
+            impactOrderedIndexes = new ImpactOrderedIndex[TermWeighting.values().length][DocumentWeighting.values().length];
+        }
+        if (impactOrderedIndexes[termWeighting.ordinal()][documentWeighting.ordinal()] == null){
+            int[] termIds = termIds();
+            double maxWeight = 0.0;
+            for (int termId : termIds){
+                FrequencyPostingList postingList = toFrequencyPostingList(termId);
+                double idf = VectorSpaceModel.documentFrequencyWeight(postingList.size(), documents.size(), documentWeighting);
+                for (double weight : blockMaxWeights(termId, postingList, termWeighting, documents)){
+                    if (idf * weight > maxWeight){
+                        maxWeight = idf * weight;
                     }
                 }
             }
+            ImpactOrderedIndex impactOrderedIndex = new ImpactOrderedIndex(maxWeight);
+            for (int termId : termIds){
+                FrequencyPostingList postingList = toFrequencyPostingList(termId);
+                double idf = VectorSpaceModel.documentFrequencyWeight(postingList.size(), documents.size(), documentWeighting);
+                int[] docIds = new int[postingList.size()];
+                int[] impacts = new int[postingList.size()];
+                for (int i = 0; i < postingList.size(); i++){
+                    docIds[i] = postingList.getDocId(i);
+                    impacts[i] = impactOrderedIndex.quantize(VectorSpaceModel.termFrequencyWeight(postingList.getFrequency(i), termWeighting) * idf / documents.get(docIds[i]).getSize());
+                }
+                impactOrderedIndex.put(termId, new ImpactOrderedPostingList(docIds, impacts, ImpactOrderedIndex.MAX_IMPACT));
+            }
+            impactOrderedIndexes[termWeighting.ordinal()][documentWeighting.ordinal()] = impactOrderedIndex;
+        }
+        return impactOrderedIndexes[termWeighting.ordinal()][documentWeighting.ordinal()];
+    }
+
+    /**
+     * Searches a given query score at a time over the impact ordered layout of the index. The segments of the
+     * postings lists of all query terms are processed in decreasing order of their impacts, adding the impacts into
+     * the score accumulator, so the postings with the largest contributions are processed first. If the search
+     * parameter has a posting budget, the search stops after that many postings, which bounds its latency; the
+     * documents are then ranked by the impacts seen so far. The returned scores are the accumulated impacts times the
+     * quantization scale.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @param documents Document collection
+     * @param parameter Search parameter
+     * @param K Number of documents to return.
+     * @return The best K documents for the query, sorted in decreasing order of their scores.
+     */
+    private QueryResult scoreAtATimeSearch(Query query, TermDictionary dictionary, ArrayList<Document> documents, SearchParameter parameter, int K){
+        ImpactOrderedIndex impactOrderedIndex = impactOrderedIndex(parameter.getTermWeighting(), parameter.getDocumentWeighting(), documents);
+        ArrayList<ImpactOrderedPostingList> postingLists = new ArrayList<>();
+        int segmentCount = 0;
+        for (int i = 0; i < query.size(); i++){
+            int term = dictionary.getWordIndex(query.getTerm(i).getName());
+            if (term != -1){
+                ImpactOrderedPostingList postingList = impactOrderedIndex.get(term);
+                if (postingList != null && postingList.size() > 0){
+                    postingLists.add(postingList);
+                    segmentCount += postingList.segmentCount();
+                }
+            }
         }
-        for (int docId : scores.keySet()){
-            result.add(docId, scores.get(docId) / documents.get(docId).getSize());
+        long[] segments = new long[segmentCount];
+        int[] segmentLists = new int[segmentCount];
+        int[] segmentIndexes = new int[segmentCount];
+        int k = 0;
+        for (int i = 0; i < postingLists.size(); i++){
+            for (int j = 0; j < postingLists.get(i).segmentCount(); j++){
+                segments[k] = ((long) (ImpactOrderedIndex.MAX_IMPACT - postingLists.get(i).getImpact(j)) << 32) | k;
+                segmentLists[k] = i;
+                segmentIndexes[k] = j;
+                k++;
+            }
         }
-        return result;
+        Arrays.sort(segments);
+        ScoreAccumulator accumulator = accumulator(documents.size());
+        int remaining = parameter.getPostingBudget() > 0 ? parameter.getPostingBudget() : Integer.MAX_VALUE;
+        for (int i = 0; i < segmentCount && remaining > 0; i++){
+            int segment = (int) segments[i];
+            ImpactOrderedPostingList postingList = postingLists.get(segmentLists[segment]);
+            int impact = postingList.getImpact(segmentIndexes[segment]);
+            int end = Math.min(postingList.segmentEnd(segmentIndexes[segment]), postingList.segmentStart(segmentIndexes[segment]) + remaining);
+            for (int j = postingList.segmentStart(segmentIndexes[segment]); j < end; j++){
+                accumulator.add(postingList.getDocId(j), impact);
+                remaining--;
+            }
+        }
+        TopKCollector collector = new TopKCollector(K);
+        for (int i = 0; i < accumulator.touchedCount(); i++){
+            int docId = accumulator.touchedDocId(i);
+            collector.add(docId, accumulator.getScore(docId) * impactOrderedIndex.getScale());
+        }
+        return collector.toQueryResult();
+    }
+
+    /**
+     * Searches a given query in the document collection using inverted index ranked search and returns only the K
+     * documents with the largest scores. With the exhaustive ranking strategy, the scores are accumulated term at a
+     * time in the reusable score accumulator of the calling thread, and the best documents are selected directly from
+     * the accumulator with a top K collector, without constructing a result item for every scored document. With the
+     * WAND, block max WAND and MaxScore ranking strategies, the documents are scored document at a time and the
+     * documents which cannot enter the top K are skipped, using the upper bounds of the terms or of the blocks of their
+     * postings. With the score at a time ranking strategy, the impact ordered layout of the index is searched, and the
+     * returned scores are quantized.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @param documents Document collection
+     * @param parameter Search parameter
+     * @param K Number of documents to return.
+     * @return The best K documents for the query, sorted in decreasing order of their scores.
+     */
+    public QueryResult rankedSearch(Query query,
+                                    TermDictionary dictionary,
+                                    ArrayList<Document> documents,
+                                    SearchParameter parameter,
+                                    int K){
+        switch (parameter.getRankingStrategy()){
+            case WAND:
+                return new WandSearch(postingScorers(query, dictionary, documents, parameter), documents).search(K);
+            case BLOCK_MAX_WAND:
+                return new BlockMaxWandSearch(postingScorers(query, dictionary, documents, parameter), documents).search(K);
+            case MAX_SCORE:
+                return new MaxScoreSearch(postingScorers(query, dictionary, documents, parameter), documents).search(K);
+            case SCORE_AT_A_TIME:
+                return scoreAtATimeSearch(query, dictionary, documents, parameter, K);
+        }
+        TopKCollector collector = new TopKCollector(K);
+        ScoreAccumulator accumulator = accumulateScores(query, dictionary, documents.size(), parameter);
+        for (int i = 0; i < accumulator.touchedCount(); i++){
+            int docId = accumulator.touchedDocId(i);
+            collector.add(docId, accumulator.getScore(docId) / documents.get(docId).getSize());
+        }
+        return collector.toQueryResult();
+    }
+
+    /**
+     * Searches a given query in the document collection using inverted index ranked search and returns only the K
+     * best documents among the given candidate documents. The scores are accumulated term at a time, and only the
+     * scored candidates are fed to a top K collector, so neither the scored documents nor their intersection with the
+     * candidates are constructed as query results. The ranking strategy of the search parameter is not used here: the
+     * WAND, block max WAND and MaxScore strategies skip the documents which cannot enter the top K of the whole
+     * collection, and could therefore skip candidates that belong to the top K of the candidates, and the score at a
+     * time strategy returns quantized scores, so the candidates are always scored exactly.
+     * @param query Query string
+     * @param dictionary Term dictionary
+     * @param documents Document collection
+     * @param parameter Search parameter
+     * @param K Number of documents to return.
+     * @param candidates Documents allowed in the result.
+     * @return The best K candidate documents for the query, sorted in decreasing order of their scores.
+     */
+    public QueryResult rankedSearch(Query query,
+                                    TermDictionary dictionary,
+                                    ArrayList<Document> documents,
+                                    SearchParameter parameter,
+                                    int K,
+                                    QueryResult candidates){
+        TopKCollector collector = new TopKCollector(K);
+        ScoreAccumulator accumulator = accumulateScores(query, dictionary, documents.size(), parameter);
+        for (QueryResultItem item : candidates.getItems()){
+            int docId = item.getDocId();
+            if (accumulator.contains(docId)){
+                collector.add(docId, accumulator.getScore(docId) / documents.get(docId).getSize());
+            }
+        }
+        return collector.toQueryResult();
     }
 
 }
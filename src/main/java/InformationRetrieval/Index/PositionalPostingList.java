@@ -6,6 +6,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * For each term, we have a list that records which documents and also positions the term occurs in. Each item in the
@@ -82,6 +83,118 @@ public class PositionalPostingList {
         return -1;
     }
 
+    /**
+     * Exponential search on the positional postings list for a specific document id. Starting from position from, the
+     * search interval is doubled until a positional posting with document id larger than or equal to the target is
+     * found, then binary search is done inside the last interval.
+     * @param from Position to start the search.
+     * @param docId Document id to be searched.
+     * @return Position of the first positional posting with document id larger than or equal to the target, size() if
+     * there is no such positional posting.
+     */
+    int gallop(int from, int docId){
+        int bound = 1, low, high;
+        if (from >= postings.size() || postings.get(from).getDocId() >= docId){
+            return from;
+        }
+        while (from + bound < postings.size() && postings.get(from + bound).getDocId() < docId){
+            bound *= 2;
+        }
+        low = from + bound / 2 + 1;
+        high = Math.min(from + bound, postings.size());
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (postings.get(middle).getDocId() < docId){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks if the terms occur as a phrase in a document, that is, if there is a position p such that the i'th term
+     * occurs at position p + i for every i. Since the positions of each term are sorted, the position pointers of the
+     * terms only move forward while the start position p increases.
+     * @param documentPostings Positional postings of the terms in the document, in the order of the phrase.
+     * @param pointers Position pointers, one for each term.
+     * @return True, if the terms occur as a phrase in the document, false otherwise.
+     */
+    private static boolean containsPhrase(PositionalPosting[] documentPostings, int[] pointers){
+        Arrays.fill(pointers, 0);
+        ArrayList<Posting> first = documentPostings[0].getPositions();
+        for (Posting start : first){
+            int k;
+            for (k = 1; k < documentPostings.length; k++){
+                ArrayList<Posting> positions = documentPostings[k].getPositions();
+                int expected = start.getId() + k;
+                while (pointers[k] < positions.size() && positions.get(pointers[k]).getId() < expected){
+                    pointers[k]++;
+                }
+                if (pointers[k] == positions.size()){
+                    return false;
+                }
+                if (positions.get(pointers[k]).getId() != expected){
+                    break;
+                }
+            }
+            if (k == documentPostings.length){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Single pass phrase intersection of k positional postings lists. The documents containing all terms are found by
+     * driving the intersection with the rarest list and advancing the pointers of the other lists by galloping. For
+     * each common document, the positions of the terms are then checked for a phrase occurrence in one pass. The
+     * matching document ids are added directly to the query result, no intermediate positional postings lists are
+     * constructed.
+     * @param postingLists Positional postings lists of the terms, in the order of the phrase.
+     * @return Query result containing the documents in which the terms occur as a phrase.
+     */
+    public static QueryResult phraseIntersection(ArrayList<PositionalPostingList> postingLists){
+        QueryResult result = new QueryResult();
+        int k, driver = 0;
+        if (postingLists.isEmpty()){
+            return result;
+        }
+        PositionalPostingList[] lists = postingLists.toArray(new PositionalPostingList[0]);
+        for (k = 1; k < lists.length; k++){
+            if (lists[k].size() < lists[driver].size()){
+                driver = k;
+            }
+        }
+        int[] positions = new int[lists.length];
+        int[] pointers = new int[lists.length];
+        PositionalPosting[] documentPostings = new PositionalPosting[lists.length];
+        while (positions[driver] < lists[driver].size()){
+            int candidate = lists[driver].postings.get(positions[driver]).getDocId();
+            for (k = 0; k < lists.length; k++){
+                positions[k] = lists[k].gallop(positions[k], candidate);
+                if (positions[k] == lists[k].size()){
+                    return result;
+                }
+                if (lists[k].postings.get(positions[k]).getDocId() != candidate){
+                    candidate = lists[k].postings.get(positions[k]).getDocId();
+                    break;
+                }
+                documentPostings[k] = lists[k].postings.get(positions[k]);
+            }
+            if (k == lists.length){
+                if (containsPhrase(documentPostings, pointers)){
+                    result.add(candidate);
+                }
+                positions[driver]++;
+            } else {
+                positions[driver] = lists[driver].gallop(positions[driver] + 1, candidate);
+            }
+        }
+        return result;
+    }
+
     /**
      * Converts the positional postings list to a query result object. Simply adds all positional postings one by one
      * to the result.
@@ -96,11 +209,21 @@ public class PositionalPostingList {
     }
 
     /**
-     * Adds a new positional posting (document id and position) to the posting list.
+     * Adds a new positional posting (document id and position) to the posting list. Since the postings are usually
+     * added in increasing order of document ids, the last positional posting is checked before the binary search.
      * @param docId New document id to be added to the positional posting list.
      * @param position New position to be added to the positional posting list.
      */
     public void add(int docId, int position){
+        if (postings.isEmpty() || postings.get(postings.size() - 1).getDocId() < docId){
+            postings.add(new PositionalPosting(docId));
+            postings.get(postings.size() - 1).add(position);
+            return;
+        }
+        if (postings.get(postings.size() - 1).getDocId() == docId){
+            postings.get(postings.size() - 1).add(position);
+            return;
+        }
         int index = getIndex(docId);
         if (index == -1){
             postings.add(new PositionalPosting(docId));
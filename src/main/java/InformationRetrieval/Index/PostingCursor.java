@@ -0,0 +1,36 @@
+package InformationRetrieval.Index;
+
+/**
+ * Sequential decoder of a {@link CompressedPostingList}.
+ */
+public abstract class PostingCursor {
+
+    /**
+     * Checks if there are more postings to decode.
+     * @return True, if there are more postings; false otherwise.
+     */
+    public abstract boolean hasNext();
+
+    /**
+     * Decodes the next posting.
+     * @return Document id of the next posting.
+     */
+    public abstract int next();
+
+    /**
+     * Moves the cursor to the first posting whose document id is larger than or equal to the target. The target should
+     * be larger than the last document id returned by the cursor. The default implementation decodes the postings one
+     * by one; codecs storing skip information override it.
+     * @param target Document id to be searched.
+     * @return Document id of the first posting larger than or equal to the target, -1 if there is no such posting.
+     */
+    public int advance(int target){
+        while (hasNext()){
+            int docId = next();
+            if (docId >= target){
+                return docId;
+            }
+        }
+        return -1;
+    }
+}
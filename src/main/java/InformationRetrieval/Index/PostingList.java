@@ -4,19 +4,39 @@ import InformationRetrieval.Query.QueryResult;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * For each term, we have a list that records which documents the term occurs in. Each item in the list – which records
- * that a term appeared in a document is conventionally called a posting.
+ * that a term appeared in a document is conventionally called a posting. The postings are stored as document ids in a
+ * growable primitive array, so that a posting costs four bytes and the postings of a term are contiguous in memory.
+ * Optionally, the list is augmented with skip pointers, which are stored as two side arrays holding the document id
+ * and the position of every square root of P'th posting.
  */
 public class PostingList {
-    protected ArrayList<Posting> postings;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int GALLOPING_RATIO = 16;
+
+    protected int[] postings;
+    protected int size;
+    private int[] skipDocIds;
+    private int[] skipOffsets;
 
     /**
      * Constructor of the PostingList class. Initializes the list.
      */
     public PostingList(){
-        postings = new ArrayList<>();
+        postings = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Constructor of the PostingList class. Initializes the list with the given capacity.
+     * @param capacity Initial number of postings that can be stored without growing the list.
+     */
+    public PostingList(int capacity){
+        postings = new int[Math.max(capacity, 1)];
+        size = 0;
     }
 
     /**
@@ -24,19 +44,33 @@ public class PostingList {
      * @param line A string containing postings separated with space character.
      */
     public PostingList(String line){
-        postings = new ArrayList<>();
         String[] ids = line.split(" ");
+        postings = new int[ids.length];
+        size = 0;
         for (String id : ids){
             add(Integer.parseInt(id));
         }
     }
 
+    /**
+     * Doubles the capacity of the postings array if it is full.
+     */
+    private void ensureCapacity(){
+        if (size == postings.length){
+            postings = Arrays.copyOf(postings, 2 * postings.length);
+        }
+    }
+
     /**
      * Adds a new posting (document id) to the posting list.
      * @param docId New document id to be added to the posting list.
      */
     public void add(int docId){
-        postings.add(new Posting(docId));
+        skipDocIds = null;
+        skipOffsets = null;
+        ensureCapacity();
+        postings[size] = docId;
+        size++;
     }
 
     /**
@@ -44,7 +78,79 @@ public class PostingList {
      * @return Number of postings in the posting list.
      */
     public int size(){
-        return postings.size();
+        return size;
+    }
+
+    /**
+     * Returns the document id of the posting at position index.
+     * @param index Position of the posting.
+     * @return Document id of the posting at position index.
+     */
+    public int get(int index){
+        return postings[index];
+    }
+
+    /**
+     * Shrinks the postings array to the number of postings in the list. Called when no more postings will be added to
+     * the list, such as after the construction of the index.
+     */
+    public void trimToSize(){
+        if (postings.length != size){
+            postings = Arrays.copyOf(postings, Math.max(size, 1));
+        }
+    }
+
+    /**
+     * Augments postings lists with skip pointers. Skip pointers are effectively shortcuts that allow us to avoid
+     * processing parts of the postings list that will not figure in the search results. We follow a simple heuristic
+     * for placing skips, which has been found to work well in practice, is that for a postings list of length P, use
+     * square root of P evenly-spaced skip pointers. The skip pointers are kept until a new posting is added to the list.
+     * The skip arrays are filled before they are assigned to the list, and the skip pointers should be added when the
+     * construction of the list ends, not while the list is searched.
+     */
+    public void addSkipPointers(){
+        int interval, count;
+        if (skipDocIds != null){
+            return;
+        }
+        interval = (int) Math.sqrt(size);
+        count = interval > 1 ? (size - 1) / interval : 0;
+        int[] docIds = new int[count];
+        int[] offsets = new int[count];
+        for (int i = 0; i < count; i++){
+            offsets[i] = (i + 1) * interval;
+            docIds[i] = postings[offsets[i]];
+        }
+        skipOffsets = offsets;
+        skipDocIds = docIds;
+    }
+
+    /**
+     * Checks if the posting list is augmented with skip pointers.
+     * @return True, if the skip pointers are available, false otherwise.
+     */
+    public boolean hasSkipPointers(){
+        return skipDocIds != null;
+    }
+
+    /**
+     * Intersection of two postings lists p1 and p2. If one of the lists is much longer than the other, the shorter list
+     * is iterated and each of its postings is searched in the longer list by galloping. Otherwise, if one of the lists
+     * has skip pointers, the lists are intersected using them; if not, the lists are merged linearly.
+     * @param secondList p2, second posting list.
+     * @return Intersection of two postings lists p1 and p2.
+     */
+    public PostingList intersection(PostingList secondList){
+        if (size > GALLOPING_RATIO * secondList.size){
+            return secondList.gallopingIntersection(this);
+        }
+        if (secondList.size > GALLOPING_RATIO * size){
+            return gallopingIntersection(secondList);
+        }
+        if (hasSkipPointers() || secondList.hasSkipPointers()){
+            return skipIntersection(secondList);
+        }
+        return linearIntersection(secondList);
     }
 
     /**
@@ -55,18 +161,20 @@ public class PostingList {
      * @param secondList p2, second posting list.
      * @return Intersection of two postings lists p1 and p2.
      */
-    public PostingList intersection(PostingList secondList){
+    public PostingList linearIntersection(PostingList secondList){
         int i = 0, j = 0;
-        PostingList result = new PostingList();
-        while (i < size() && j < secondList.size()){
-            Posting p1 = postings.get(i);
-            Posting p2 = secondList.postings.get(j);
-            if (p1.getId() == p2.getId()){
-                result.add(p1.getId());
+        int[] postings1 = postings, postings2 = secondList.postings;
+        int size1 = size, size2 = secondList.size;
+        PostingList result = new PostingList(Math.min(size1, size2));
+        while (i < size1 && j < size2){
+            int p1 = postings1[i];
+            int p2 = postings2[j];
+            if (p1 == p2){
+                result.add(p1);
                 i++;
                 j++;
             } else {
-                if (p1.getId() < p2.getId()){
+                if (p1 < p2){
                     i++;
                 } else {
                     j++;
@@ -76,6 +184,169 @@ public class PostingList {
         return result;
     }
 
+    /**
+     * Algorithm for the intersection of two postings lists p1 and p2 with skip pointers. We maintain pointers into both
+     * lists and walk through the two postings lists simultaneously. At each step, we compare the docID pointed to by
+     * both pointers. If they are the same, we put that docID in the results list, and advance both pointers. Otherwise,
+     * we use the skip pointers of the list pointing to the smaller docID to skip as many postings as possible, or
+     * advance its pointer by one if no skip is possible. A list without skip pointers is advanced one by one.
+     * @param secondList p2, second posting list.
+     * @return Intersection of two postings lists p1 and p2.
+     */
+    public PostingList skipIntersection(PostingList secondList){
+        int i = 0, j = 0, skip1 = 0, skip2 = 0;
+        int[] postings1 = postings, postings2 = secondList.postings;
+        int size1 = size, size2 = secondList.size;
+        PostingList result = new PostingList(Math.min(size1, size2));
+        while (i < size1 && j < size2){
+            int p1 = postings1[i];
+            int p2 = postings2[j];
+            if (p1 == p2){
+                result.add(p1);
+                i++;
+                j++;
+            } else {
+                if (p1 < p2){
+                    skip1 = nextSkip(skip1, i);
+                    if (skip1 != -1 && skipDocIds[skip1] <= p2){
+                        i = skipTo(skip1, p2);
+                    } else {
+                        i++;
+                    }
+                } else {
+                    skip2 = secondList.nextSkip(skip2, j);
+                    if (skip2 != -1 && secondList.skipDocIds[skip2] <= p1){
+                        j = secondList.skipTo(skip2, p1);
+                    } else {
+                        j++;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first skip pointer that points beyond the given position.
+     * @param skip Index of the skip pointer to start the search.
+     * @param position Current position in the posting list.
+     * @return Index of the first skip pointer pointing beyond the given position, -1 if there is no such skip pointer.
+     */
+    private int nextSkip(int skip, int position){
+        if (skipDocIds == null || skip == -1){
+            return -1;
+        }
+        while (skip < skipOffsets.length && skipOffsets[skip] <= position){
+            skip++;
+        }
+        return skip < skipOffsets.length ? skip : -1;
+    }
+
+    /**
+     * Follows the skip pointers starting from the given skip pointer as long as they point to a document id not larger
+     * than the target.
+     * @param skip Index of the first skip pointer, which should point to a document id not larger than the target.
+     * @param target Document id to be reached.
+     * @return Position of the posting pointed by the last skip pointer followed.
+     */
+    private int skipTo(int skip, int target){
+        while (skip + 1 < skipDocIds.length && skipDocIds[skip + 1] <= target){
+            skip++;
+        }
+        return skipOffsets[skip];
+    }
+
+    /**
+     * Intersection of a short postings list p1 with a long postings list p2. For each posting of p1, the posting is
+     * searched in p2 with exponential search starting from the position where the previous search ended. The cost is
+     * logarithmic in the distance between two successive matches, instead of linear in the size of p2.
+     * @param secondList p2, the longer posting list.
+     * @return Intersection of two postings lists p1 and p2.
+     */
+    public PostingList gallopingIntersection(PostingList secondList){
+        int j = 0;
+        PostingList result = new PostingList(size);
+        for (int i = 0; i < size && j < secondList.size; i++){
+            j = gallop(secondList.postings, j, secondList.size, postings[i]);
+            if (j < secondList.size && secondList.postings[j] == postings[i]){
+                result.add(postings[i]);
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Single pass intersection of k postings lists. The rarest list drives the intersection: its current document id is
+     * the candidate, and the pointers of the other lists are advanced to the candidate by galloping. If a list does not
+     * contain the candidate, the document id it stops at becomes the new candidate and the driver is advanced to it.
+     * The document ids that all lists contain are added directly to the query result, no intermediate posting lists are
+     * constructed.
+     * @param postingLists Postings lists to be intersected.
+     * @return Query result containing the document ids common to all postings lists.
+     */
+    public static QueryResult multiWayIntersection(ArrayList<PostingList> postingLists){
+        QueryResult result = new QueryResult();
+        if (postingLists.isEmpty()){
+            return result;
+        }
+        PostingList[] lists = postingLists.toArray(new PostingList[0]);
+        Arrays.sort(lists, new PostingListComparator());
+        int[] positions = new int[lists.length];
+        PostingList driver = lists[0];
+        while (positions[0] < driver.size){
+            int candidate = driver.postings[positions[0]];
+            int k;
+            for (k = 1; k < lists.length; k++){
+                positions[k] = gallop(lists[k].postings, positions[k], lists[k].size, candidate);
+                if (positions[k] == lists[k].size){
+                    return result;
+                }
+                if (lists[k].postings[positions[k]] != candidate){
+                    candidate = lists[k].postings[positions[k]];
+                    break;
+                }
+            }
+            if (k == lists.length){
+                result.add(candidate);
+                positions[0]++;
+            } else {
+                positions[0] = gallop(driver.postings, positions[0] + 1, driver.size, candidate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Exponential search in a sorted array. Starting from position from, the search interval is doubled until an item
+     * larger than or equal to the target is found, then binary search is done inside the last interval.
+     * @param array Sorted array to be searched.
+     * @param from Position to start the search.
+     * @param to End of the array (exclusive).
+     * @param target Item to be searched.
+     * @return Position of the first item larger than or equal to the target, to if there is no such item.
+     */
+    static int gallop(int[] array, int from, int to, int target){
+        int bound = 1, low, high;
+        if (from >= to || array[from] >= target){
+            return from;
+        }
+        while (from + bound < to && array[from + bound] < target){
+            bound *= 2;
+        }
+        low = from + bound / 2 + 1;
+        high = Math.min(from + bound, to);
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (array[middle] < target){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     /**
      * Returns simple union of two postings list p1 and p2. The algorithm assumes the intersection of two postings list
      * is empty, therefore the union is just concatenation of two postings lists.
@@ -83,10 +354,10 @@ public class PostingList {
      * @return Union of two postings lists.
      */
     public PostingList merge(PostingList secondList){
-        PostingList result = new PostingList();
-        result.postings = new ArrayList<>();
-        result.postings.addAll(postings);
-        result.postings.addAll(secondList.postings);
+        PostingList result = new PostingList(size + secondList.size);
+        System.arraycopy(postings, 0, result.postings, 0, size);
+        System.arraycopy(secondList.postings, 0, result.postings, size, secondList.size);
+        result.size = size + secondList.size;
         return result;
     }
 
@@ -96,8 +367,8 @@ public class PostingList {
      */
     public QueryResult toQueryResult(){
         QueryResult result = new QueryResult();
-        for (Posting posting:postings){
-            result.add(posting.getId());
+        for (int i = 0; i < size; i++){
+            result.add(postings[i]);
         }
         return result;
     }
@@ -120,9 +391,12 @@ public class PostingList {
      */
     public String toString(){
         StringBuilder result = new StringBuilder();
-        for (Posting posting : postings){
-            result.append(posting.getId()).append(" ");
+        for (int i = 0; i < size; i++){
+            if (i > 0){
+                result.append(" ");
+            }
+            result.append(postings[i]);
         }
-        return result.toString().trim() + "\n";
+        return result + "\n";
     }
 }
@@ -0,0 +1,163 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Query.VectorSpaceModel;
+
+/**
+ * Cursor over the postings list of a query term, used in document at a time ranked search. The cursor
+ * points to one posting at a time, moves forward with next and advance, and gives the score contribution of the term
+ * to the current document. It also carries upper bounds of the contribution of the term to the score of a document,
+ * normalized by the document size, over all documents and over the documents in each block of SCORE_BLOCK_SIZE
+ * postings, so that the documents which cannot enter the top K can be skipped.
+ */
+public class PostingScorer {
+    private final FrequencyPostingList postingList;
+    private final double idf;
+    private final TermWeighting termWeighting;
+    private final double[] blockMaxWeights;
+    private final double maxScore;
+    private int position;
+    private int docId;
+    private int block;
+    private int blockTarget;
+
+    /**
+     * Constructs a cursor pointing to the first posting of the given postings list.
+     * @param postingList Document ids and term frequencies of the postings of the query term.
+     * @param idf Document frequency weight of the query term.
+     * @param termWeighting Term weighting scheme.
+     * @param blockMaxWeights Largest posting weight of each block of the postings list, where the weight of a posting is
+     *                        its term frequency weight divided by the document size.
+     */
+    public PostingScorer(FrequencyPostingList postingList, double idf, TermWeighting termWeighting, double[] blockMaxWeights){
+        double maxWeight = 0.0;
+        this.postingList = postingList;
+        this.idf = idf;
+        this.termWeighting = termWeighting;
+        this.blockMaxWeights = blockMaxWeights;
+        for (double weight : blockMaxWeights){
+            if (weight > maxWeight){
+                maxWeight = weight;
+            }
+        }
+        this.maxScore = idf * maxWeight;
+        this.position = 0;
+        this.docId = postingList.size() > 0 ? postingList.getDocId(0) : Integer.MAX_VALUE;
+        this.block = 0;
+        this.blockTarget = 0;
+    }
+
+    /**
+     * Returns the document id of the current posting.
+     * @return Document id of the current posting, Integer.MAX_VALUE if the cursor is past the last posting.
+     */
+    public int docId(){
+        return docId;
+    }
+
+    /**
+     * Updates the document id of the current posting after the cursor moves.
+     */
+    private void updateDocId(){
+        if (position < postingList.size()){
+            docId = postingList.getDocId(position);
+        } else {
+            docId = Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Moves the cursor to the next posting.
+     */
+    public void next(){
+        position++;
+        updateDocId();
+    }
+
+    /**
+     * Moves the cursor to the first posting with document id larger than or equal to the given document id, by
+     * galloping over the postings list.
+     * @param docId Target document id.
+     */
+    public void advance(int docId){
+        if (docId > this.docId){
+            position = postingList.gallop(position, docId);
+            updateDocId();
+        }
+    }
+
+    /**
+     * Returns the unnormalized score contribution of the query term to the current document, which is the term
+     * frequency weight times the document frequency weight.
+     * @return Score contribution of the query term to the current document.
+     */
+    public double score(){
+        return VectorSpaceModel.termFrequencyWeight(postingList.getFrequency(position), termWeighting) * idf;
+    }
+
+    /**
+     * Returns the upper bound of the score contribution of the query term, divided by the document size, over all
+     * documents.
+     * @return Upper bound of the normalized score contribution of the query term.
+     */
+    public double getMaxScore(){
+        return maxScore;
+    }
+
+    /**
+     * Moves the block pointer, without moving the cursor, to the block containing the first posting with document id
+     * larger than or equal to the given document id. The block pointer moves backward only if the given document id is
+     * smaller than the previous one.
+     * @param docId Target document id.
+     */
+    public void shallowAdvance(int docId){
+        if (docId < blockTarget || block < position / FrequencyPostingList.SCORE_BLOCK_SIZE){
+            block = position / FrequencyPostingList.SCORE_BLOCK_SIZE;
+        }
+        blockTarget = docId;
+        while (block < blockMaxWeights.length && blockLastDocId(block) < docId){
+            block++;
+        }
+    }
+
+    /**
+     * Returns the document id of the last posting in the given block.
+     * @param block Index of the block.
+     * @return Document id of the last posting in the block.
+     */
+    private int blockLastDocId(int block){
+        return postingList.getDocId(Math.min((block + 1) * FrequencyPostingList.SCORE_BLOCK_SIZE, postingList.size()) - 1);
+    }
+
+    /**
+     * Returns the document id of the last posting in the block of the block pointer.
+     * @return Document id of the last posting in the block, Integer.MAX_VALUE if the block pointer is past the last
+     * block.
+     */
+    public int blockLastDocId(){
+        if (block < blockMaxWeights.length){
+            return blockLastDocId(block);
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the upper bound of the score contribution of the query term, divided by the document size, over the
+     * documents in the block of the block pointer.
+     * @return Upper bound of the normalized score contribution in the block, 0 if the block pointer is past the last
+     * block.
+     */
+    public double getBlockMaxScore(){
+        if (block < blockMaxWeights.length){
+            return idf * blockMaxWeights[block];
+        }
+        return 0.0;
+    }
+
+    /**
+     * Returns the number of postings of the query term.
+     * @return Number of postings of the query term.
+     */
+    public int size(){
+        return postingList.size();
+    }
+}
@@ -0,0 +1,245 @@
+package InformationRetrieval.Index;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative integers. The integers are partitioned with respect to their high 16 bits; for each
+ * partition, the low 16 bits are stored in a {@link RoaringContainer}, which is an array, a bitset or a run list
+ * depending on the density of the partition. The partition keys are kept sorted, so that the binary operations merge
+ * the partitions of two bitmaps and combine only the containers with the same key.
+ */
+public class RoaringBitmap {
+    private char[] keys;
+    private RoaringContainer[] containers;
+    private int size;
+
+    /**
+     * Constructs an empty bitmap.
+     */
+    public RoaringBitmap(){
+        keys = new char[4];
+        containers = new RoaringContainer[4];
+        size = 0;
+    }
+
+    /**
+     * Constructs a bitmap with the given number of partitions.
+     * @param capacity Number of partitions that can be stored without growing the bitmap.
+     */
+    private RoaringBitmap(int capacity){
+        keys = new char[Math.max(capacity, 1)];
+        containers = new RoaringContainer[Math.max(capacity, 1)];
+        size = 0;
+    }
+
+    /**
+     * Appends a partition to the end of the bitmap. The key should be larger than the keys in the bitmap.
+     * @param key High 16 bits of the partition.
+     * @param container Container of the partition.
+     */
+    private void append(char key, RoaringContainer container){
+        if (size == keys.length){
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+            containers = Arrays.copyOf(containers, 2 * containers.length);
+        }
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    /**
+     * Adds an integer to the bitmap. Adding integers in increasing order only touches the last partition.
+     * @param value Non-negative integer to be added.
+     */
+    public void add(int value){
+        char key = (char) (value >>> 16);
+        int index;
+        if (size > 0 && keys[size - 1] == key){
+            index = size - 1;
+        } else {
+            if (size == 0 || keys[size - 1] < key){
+                append(key, new ArrayContainer());
+                index = size - 1;
+            } else {
+                index = Arrays.binarySearch(keys, 0, size, key);
+                if (index < 0){
+                    index = -index - 1;
+                    append(key, null);
+                    System.arraycopy(keys, index, keys, index + 1, size - 1 - index);
+                    System.arraycopy(containers, index, containers, index + 1, size - 1 - index);
+                    keys[index] = key;
+                    containers[index] = new ArrayContainer();
+                }
+            }
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    /**
+     * Checks if the bitmap contains the given integer.
+     * @param value Integer to be searched.
+     * @return True, if the integer exists in the bitmap, false otherwise.
+     */
+    public boolean contains(int value){
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of integers in the bitmap.
+     * @return Number of integers in the bitmap.
+     */
+    public int cardinality(){
+        int cardinality = 0;
+        for (int i = 0; i < size; i++){
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Converts each container to its smallest representation. Should be called after the bitmap is constructed.
+     */
+    public void optimize(){
+        for (int i = 0; i < size; i++){
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    /**
+     * Intersection of two bitmaps. The partitions of two bitmaps are merged with respect to their keys, and only the
+     * containers existing in both bitmaps are intersected.
+     * @param other Second bitmap.
+     * @return Intersection of two bitmaps.
+     */
+    public RoaringBitmap and(RoaringBitmap other){
+        RoaringBitmap result = new RoaringBitmap(Math.min(size, other.size));
+        int i = 0, j = 0;
+        while (i < size && j < other.size){
+            if (keys[i] == other.keys[j]){
+                RoaringContainer container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0){
+                    result.append(keys[i], container);
+                }
+                i++;
+                j++;
+            } else {
+                if (keys[i] < other.keys[j]){
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Union of two bitmaps. The partitions of two bitmaps are merged with respect to their keys; the containers with
+     * the same key are combined, the others are copied.
+     * @param other Second bitmap.
+     * @return Union of two bitmaps.
+     */
+    public RoaringBitmap or(RoaringBitmap other){
+        RoaringBitmap result = new RoaringBitmap(size + other.size);
+        int i = 0, j = 0;
+        while (i < size || j < other.size){
+            if (j == other.size || (i < size && keys[i] < other.keys[j])){
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else {
+                if (i == size || other.keys[j] < keys[i]){
+                    result.append(other.keys[j], other.containers[j].copy());
+                } else {
+                    result.append(keys[i], containers[i].or(other.containers[j]));
+                    i++;
+                }
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Difference of two bitmaps, the integers in this bitmap that do not exist in the second bitmap.
+     * @param other Second bitmap.
+     * @return Integers of this bitmap not in the second bitmap.
+     */
+    public RoaringBitmap andNot(RoaringBitmap other){
+        RoaringBitmap result = new RoaringBitmap(size);
+        int j = 0;
+        for (int i = 0; i < size; i++){
+            while (j < other.size && other.keys[j] < keys[i]){
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]){
+                RoaringContainer container = containers[i].andNot(other.containers[j]);
+                if (container.cardinality() > 0){
+                    result.append(keys[i], container);
+                }
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bitmap as a word-packed bitset, where the bit i of the word w is set if the integer 64w + i exists
+     * in the bitmap. Integers larger than or equal to the given bit count are ignored.
+     * @param bitCount Number of bits in the bitset.
+     * @return Bitset representation of the bitmap.
+     */
+    public long[] toWords(int bitCount){
+        long[] words = new long[(bitCount + 63) >>> 6];
+        for (int i = 0; i < size; i++){
+            int offset = keys[i] * RoaringContainer.WORD_COUNT;
+            if (offset < words.length){
+                System.arraycopy(containers[i].toWords(), 0, words, offset,
+                        Math.min(RoaringContainer.WORD_COUNT, words.length - offset));
+            }
+        }
+        if (bitCount % 64 != 0){
+            words[words.length - 1] &= -1L >>> (64 - bitCount % 64);
+        }
+        return words;
+    }
+
+    /**
+     * Intersects the given word-packed bitset with this bitmap in place, 64 integers per operation. The words of the
+     * partitions missing in this bitmap are cleared.
+     * @param words Bitset to be intersected.
+     */
+    public void andWords(long[] words){
+        int partitionCount = (words.length + RoaringContainer.WORD_COUNT - 1) / RoaringContainer.WORD_COUNT;
+        int j = 0;
+        for (int partition = 0; partition < partitionCount; partition++){
+            int offset = partition * RoaringContainer.WORD_COUNT;
+            int end = Math.min(offset + RoaringContainer.WORD_COUNT, words.length);
+            while (j < size && keys[j] < partition){
+                j++;
+            }
+            if (j < size && keys[j] == partition){
+                long[] containerWords = containers[j].toWords();
+                for (int i = offset; i < end; i++){
+                    words[i] &= containerWords[i - offset];
+                }
+            } else {
+                Arrays.fill(words, offset, end, 0L);
+            }
+        }
+    }
+
+    /**
+     * Returns the integers in the bitmap in increasing order.
+     * @return Integers in the bitmap.
+     */
+    public int[] toArray(){
+        int[] result = new int[cardinality()];
+        int offset = 0;
+        for (int i = 0; i < size; i++){
+            offset = containers[i].fill(result, offset, keys[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+package InformationRetrieval.Index;
+
+/**
+ * A container stores the low 16 bits of the integers in a {@link RoaringBitmap} sharing the same high 16 bits. Sparse
+ * containers are stored as sorted arrays, dense containers as bitsets of 1024 words, and containers consisting of a
+ * few long runs of consecutive integers as run lists. The binary operations return new containers and do not modify
+ * their operands.
+ */
+public abstract class RoaringContainer {
+    public static final int MAX_ARRAY_SIZE = 4096;
+    public static final int WORD_COUNT = 1024;
+
+    /**
+     * Adds the given value to the container. If the container does not fit the representation anymore, a new container
+     * with the value added is returned.
+     * @param value Low 16 bits of the integer to be added.
+     * @return This container or the container replacing it.
+     */
+    public abstract RoaringContainer add(char value);
+
+    /**
+     * Checks if the container contains the given value.
+     * @param value Low 16 bits of the integer to be searched.
+     * @return True, if the value exists in the container, false otherwise.
+     */
+    public abstract boolean contains(char value);
+
+    /**
+     * Returns the number of values in the container.
+     * @return Number of values in the container.
+     */
+    public abstract int cardinality();
+
+    /**
+     * Returns the number of runs of consecutive values in the container.
+     * @return Number of runs of consecutive values in the container.
+     */
+    public abstract int runCount();
+
+    /**
+     * Returns the container as a bitset of 1024 words. The returned array should not be modified, since a bitset
+     * container returns its own words.
+     * @return Bitset representation of the container.
+     */
+    public abstract long[] toWords();
+
+    /**
+     * Writes the integers in the container in increasing order into the buffer.
+     * @param buffer Output buffer.
+     * @param offset Position in the buffer to start writing.
+     * @param high High 16 bits of the integers in the container.
+     * @return Position in the buffer after the last integer written.
+     */
+    public abstract int fill(int[] buffer, int offset, int high);
+
+    /**
+     * Returns a copy of the container.
+     * @return Copy of the container.
+     */
+    public abstract RoaringContainer copy();
+
+    /**
+     * Constructs the container representing the set bits of the given bitset. If there are at most 4096 set bits, an
+     * array container is returned, otherwise a bitset container.
+     * @param words Bitset of 1024 words.
+     * @return Container representing the bitset.
+     */
+    public static RoaringContainer fromWords(long[] words){
+        int cardinality = 0;
+        for (long word : words){
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality <= MAX_ARRAY_SIZE){
+            return new ArrayContainer(words, cardinality);
+        }
+        return new BitsetContainer(words, cardinality);
+    }
+
+    /**
+     * Converts the container to its smallest representation. An array container costs 2 bytes per value, a bitset
+     * container 8192 bytes, and a run container 4 bytes per run.
+     * @return The smallest container representing the same values.
+     */
+    public RoaringContainer optimize(){
+        int cardinality = cardinality(), runs = runCount();
+        int arrayBytes = cardinality <= MAX_ARRAY_SIZE ? 2 * cardinality : Integer.MAX_VALUE;
+        int runBytes = 4 * runs;
+        if (runBytes < Math.min(arrayBytes, 8 * WORD_COUNT)){
+            return this instanceof RunContainer ? this : new RunContainer(toWords(), runs);
+        }
+        if (arrayBytes <= 8 * WORD_COUNT){
+            return this instanceof ArrayContainer ? this : new ArrayContainer(toWords(), cardinality);
+        }
+        return this instanceof BitsetContainer ? this : new BitsetContainer(toWords().clone(), cardinality);
+    }
+
+    /**
+     * Intersection of two containers. If one of the containers is an array, the values of the array are searched in
+     * the other container; otherwise the bitsets of the containers are intersected word at a time.
+     * @param other Second container.
+     * @return Intersection of two containers.
+     */
+    public RoaringContainer and(RoaringContainer other){
+        if (this instanceof ArrayContainer){
+            return ((ArrayContainer) this).filter(other, true);
+        }
+        if (other instanceof ArrayContainer){
+            return ((ArrayContainer) other).filter(this, true);
+        }
+        long[] words1 = toWords(), words2 = other.toWords();
+        long[] result = new long[WORD_COUNT];
+        for (int i = 0; i < WORD_COUNT; i++){
+            result[i] = words1[i] & words2[i];
+        }
+        return fromWords(result);
+    }
+
+    /**
+     * Union of two containers. Two small arrays are merged into an array, otherwise the bitsets of the containers are
+     * combined word at a time.
+     * @param other Second container.
+     * @return Union of two containers.
+     */
+    public RoaringContainer or(RoaringContainer other){
+        if (this instanceof ArrayContainer && other instanceof ArrayContainer &&
+                cardinality() + other.cardinality() <= MAX_ARRAY_SIZE){
+            return ((ArrayContainer) this).merge((ArrayContainer) other);
+        }
+        long[] result = toWords().clone();
+        if (other instanceof ArrayContainer){
+            ((ArrayContainer) other).setBits(result);
+        } else {
+            long[] words = other.toWords();
+            for (int i = 0; i < WORD_COUNT; i++){
+                result[i] |= words[i];
+            }
+        }
+        return fromWords(result);
+    }
+
+    /**
+     * Difference of two containers, the values in this container that do not exist in the second container. If this
+     * container is an array, its values are searched in the second container; otherwise the bitsets are combined word
+     * at a time.
+     * @param other Second container.
+     * @return Values of this container not in the second container.
+     */
+    public RoaringContainer andNot(RoaringContainer other){
+        if (this instanceof ArrayContainer){
+            return ((ArrayContainer) this).filter(other, false);
+        }
+        long[] result = toWords().clone();
+        if (other instanceof ArrayContainer){
+            ((ArrayContainer) other).clearBits(result);
+        } else {
+            long[] words = other.toWords();
+            for (int i = 0; i < WORD_COUNT; i++){
+                result[i] &= ~words[i];
+            }
+        }
+        return fromWords(result);
+    }
+}
@@ -0,0 +1,151 @@
+package InformationRetrieval.Index;
+
+/**
+ * Roaring container storing the values as runs of consecutive integers. Each run is stored as its start and its length
+ * minus one, so that a run container of r runs costs 4r bytes.
+ */
+public class RunContainer extends RoaringContainer {
+    private final char[] starts;
+    private final char[] lengths;
+    private final int runCount;
+
+    /**
+     * Constructs a run container from the set bits of a bitset. Runs are found word at a time: the trailing zeros of a
+     * word give the start of the next run, and after filling the bits below the start with ones, the trailing ones give
+     * the end of the run.
+     * @param words Bitset of 1024 words.
+     * @param runCount Number of runs in the bitset.
+     */
+    public RunContainer(long[] words, int runCount){
+        int index = 0, k = 0;
+        long word = words[0];
+        starts = new char[runCount];
+        lengths = new char[runCount];
+        this.runCount = runCount;
+        while (true){
+            int start, end;
+            long filled;
+            while (word == 0 && index < WORD_COUNT - 1){
+                index++;
+                word = words[index];
+            }
+            if (word == 0){
+                break;
+            }
+            start = index * 64 + Long.numberOfTrailingZeros(word);
+            filled = word | (word - 1);
+            while (filled == -1L && index < WORD_COUNT - 1){
+                index++;
+                filled = words[index];
+            }
+            if (filled == -1L){
+                starts[k] = (char) start;
+                lengths[k] = (char) (WORD_COUNT * 64 - 1 - start);
+                break;
+            }
+            end = index * 64 + Long.numberOfTrailingZeros(~filled);
+            starts[k] = (char) start;
+            lengths[k] = (char) (end - start - 1);
+            k++;
+            word = filled & (filled + 1);
+        }
+    }
+
+    /**
+     * Run containers are not modified in place; the container is converted to an array or a bitset container and the
+     * value is added to it.
+     * @param value Low 16 bits of the integer to be added.
+     * @return The container replacing this container.
+     */
+    public RoaringContainer add(char value){
+        if (contains(value)){
+            return this;
+        }
+        return fromWords(toWords()).add(value);
+    }
+
+    /**
+     * Checks if one of the runs contains the given value. The run is found with binary search on the run starts.
+     * @param value Low 16 bits of the integer to be searched.
+     * @return True, if the value exists in the container, false otherwise.
+     */
+    public boolean contains(char value){
+        int low = 0, high = runCount - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= value){
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high >= 0 && value - starts[high] <= lengths[high];
+    }
+
+    /**
+     * Returns the number of values in the container.
+     * @return Number of values in the container.
+     */
+    public int cardinality(){
+        int cardinality = 0;
+        for (int i = 0; i < runCount; i++){
+            cardinality += lengths[i] + 1;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the number of runs in the container.
+     * @return Number of runs of consecutive values in the container.
+     */
+    public int runCount(){
+        return runCount;
+    }
+
+    /**
+     * Returns the runs as a new bitset of 1024 words. Full words inside a run are filled at once.
+     * @return Bitset representation of the container.
+     */
+    public long[] toWords(){
+        long[] words = new long[WORD_COUNT];
+        for (int i = 0; i < runCount; i++){
+            int start = starts[i], end = starts[i] + lengths[i] + 1;
+            int firstWord = start >>> 6, lastWord = (end - 1) >>> 6;
+            if (firstWord == lastWord){
+                words[firstWord] |= (-1L >>> (64 - (end - start))) << start;
+            } else {
+                words[firstWord] |= -1L << start;
+                for (int j = firstWord + 1; j < lastWord; j++){
+                    words[j] = -1L;
+                }
+                words[lastWord] |= -1L >>> (64 - (end - lastWord * 64));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Writes the integers in the container in increasing order into the buffer.
+     * @param buffer Output buffer.
+     * @param offset Position in the buffer to start writing.
+     * @param high High 16 bits of the integers in the container.
+     * @return Position in the buffer after the last integer written.
+     */
+    public int fill(int[] buffer, int offset, int high){
+        for (int i = 0; i < runCount; i++){
+            for (int value = starts[i]; value <= starts[i] + lengths[i]; value++){
+                buffer[offset] = (high << 16) | value;
+                offset++;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Run containers are not modified in place, therefore the copy is the container itself.
+     * @return This container.
+     */
+    public RoaringContainer copy(){
+        return this;
+    }
+}
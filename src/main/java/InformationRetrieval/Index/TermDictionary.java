@@ -5,18 +5,32 @@ import Dictionary.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 
 /**
- * A dictionary of terms is kept for easy access.
+ * A dictionary of terms is kept for easy access. Besides the words array, the dictionary keeps a hash map from the term
+ * names to their positions in the words array, so that a term is found without a binary search over the words array.
+ * The constructors and the loaders sort the words array once they finish, so a constructed or loaded dictionary is only
+ * read by the queries. New terms added later with addTerm are appended to the end of the words array; if they do not
+ * come in sorted order, the words array is sorted only when the sorted order is needed, namely when a term is accessed
+ * with its sorted index, when a prefix is searched or when the dictionary is saved.
+ * <p>
+ * A read only subclass that keeps the terms in another layout leaves the words array and the hash maps empty, therefore
+ * it must override size, longestWordSize, getWord(int), getWord(String), getWordIndex, getTermId, getTerm,
+ * getWordStartingWith, getWordsStartingWith and estimatedMemory, and throw UnsupportedOperationException from addTerm.
+ * The save methods and constructNGramTermsFromDictionary only use the overridden accessors, so they work unchanged.
  */
 public class TermDictionary extends Dictionary{
+    private static final int TERM_BYTES = 168;
 
     private final HashMap<Integer, Term> idMap;
+    private final HashMap<String, Integer> indexMap;
+    private volatile boolean sorted = true;
+    private long nameLength = 0;
 
     /**
      * Constructor of the TermDictionary. Initializes the comparator for terms and the hasp map.
@@ -25,6 +39,7 @@ public class TermDictionary extends Dictionary{
     public TermDictionary(WordComparator comparator){
         super(comparator);
         idMap = new HashMap<>();
+        indexMap = new HashMap<>();
     }
 
     /**
@@ -34,16 +49,40 @@ public class TermDictionary extends Dictionary{
      * @param fileName Dictionary file name
      */
     public TermDictionary(WordComparator comparator, String fileName){
+        this(comparator, fileName, IndexFileFormat.TEXT);
+    }
+
+    /**
+     * Constructor of the TermDictionary. Reads the terms and their ids from the dictionary file in the given format.
+     * @param comparator Comparator method to compare two terms.
+     * @param fileName Dictionary file name
+     * @param format Format of the dictionary file, text or binary.
+     */
+    public TermDictionary(WordComparator comparator, String fileName, IndexFileFormat format){
         super(comparator);
         idMap = new HashMap<>();
+        indexMap = new HashMap<>();
+        if (format == IndexFileFormat.BINARY){
+            readBinaryDictionary(fileName);
+        } else {
+            readTextDictionary(fileName);
+        }
+        sort();
+    }
+
+    /**
+     * Reads the terms and their ids from the text dictionary file. Each line stores the term id and the term name
+     * separated via space.
+     * @param fileName Dictionary file name. Real dictionary file name is created by attaching -dictionary.txt to this
+     *                 file name
+     */
+    private void readTextDictionary(String fileName){
         try {
             BufferedReader br = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(fileName + "-dictionary.txt")), StandardCharsets.UTF_8));
             String line = br.readLine();
             while (line != null){
                 int termId = Integer.parseInt(line.substring(0, line.indexOf(" ")));
-                Term newTerm = new Term(line.substring(line.indexOf(" ") + 1), termId);
-                words.add(newTerm);
-                idMap.put(termId, newTerm);
+                appendTerm(new Term(line.substring(line.indexOf(" ") + 1), termId));
                 line = br.readLine();
             }
             br.close();
@@ -51,6 +90,33 @@ public class TermDictionary extends Dictionary{
         }
     }
 
+    /**
+     * Reads the terms and their ids from the binary dictionary file. After the header, the file stores the number of
+     * terms, and for each term in sorted order, its id and its name in modified UTF-8. As in the text format, a missing
+     * file gives an empty dictionary, but a file of another type or version is reported.
+     * @param fileName Dictionary file name. Real dictionary file name is created by attaching -dictionary.bin to this
+     *                 file name
+     */
+    private void readBinaryDictionary(String fileName){
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(fileName + "-dictionary.bin")), 1 << 16));
+            if (inputStream.readInt() != BinaryIndexWriter.DICTIONARY_MAGIC || inputStream.readInt() != BinaryIndexWriter.VERSION){
+                inputStream.close();
+                throw new IOException(fileName + "-dictionary.bin is not a supported binary dictionary file");
+            }
+            int count = inputStream.readInt();
+            words.ensureCapacity(count);
+            for (int i = 0; i < count; i++){
+                int termId = inputStream.readInt();
+                appendTerm(new Term(inputStream.readUTF(), termId));
+            }
+            inputStream.close();
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Constructs the TermDictionary from a list of tokens (term occurrences). The terms array should be sorted
      * before calling this method. Constructs the distinct terms and their corresponding term ids.
@@ -60,6 +126,7 @@ public class TermDictionary extends Dictionary{
     public TermDictionary(WordComparator comparator, ArrayList<TermOccurrence> terms){
         super(comparator);
         idMap = new HashMap<>();
+        indexMap = new HashMap<>();
         int i, termId = 0;
         TermOccurrence term, previousTerm;
         if (!terms.isEmpty()){
@@ -78,6 +145,7 @@ public class TermDictionary extends Dictionary{
                 previousTerm = term;
             }
         }
+        sort();
     }
 
     /**
@@ -89,6 +157,7 @@ public class TermDictionary extends Dictionary{
     public TermDictionary(WordComparator comparator, HashSet<String> words){
         super(comparator);
         idMap = new HashMap<>();
+        indexMap = new HashMap<>();
         ArrayList<Word> wordList = new ArrayList<>();
         for (String word : words){
             wordList.add(new Word(word));
@@ -99,25 +168,142 @@ public class TermDictionary extends Dictionary{
             addTerm(term.getName(), termID);
             termID++;
         }
+        sort();
+    }
+
+    /**
+     * Appends a term to the end of the words array and puts it into the hash maps. If the term is smaller than the last
+     * term of the words array, the words array is marked as unsorted. Terms that the comparator finds equal to the last
+     * term keep the words array sorted, so that loading a sorted dictionary file does not sort it again.
+     * @param term Term to be appended.
+     */
+    private void appendTerm(Term term){
+        if (sorted && !words.isEmpty() && comparator.compare(words.get(words.size() - 1), term) > 0){
+            sorted = false;
+        }
+        indexMap.put(term.getName(), words.size());
+        words.add(term);
+        idMap.put(term.getTermId(), term);
+        nameLength += term.getName().length();
+    }
+
+    /**
+     * Returns the estimated heap footprint of the dictionary. A term costs its object, its name string, its reference
+     * in the words array and its entries in the two hash maps, and each character of its name costs two bytes.
+     * @return Estimated heap footprint of the dictionary in bytes.
+     */
+    public long estimatedMemory(){
+        return (long) words.size() * TERM_BYTES + 2 * nameLength;
+    }
+
+    /**
+     * Sorts the words array, if new terms are appended out of order since the last sort, and updates the positions of
+     * the terms in the hash map. The constructors and the loaders call it when they finish; afterwards it only sorts
+     * again if terms are added with addTerm, and it is synchronized so that concurrent readers do not sort the same
+     * words array together.
+     */
+    private synchronized void sort(){
+        if (!sorted){
+            words.sort(comparator);
+            for (int i = 0; i < words.size(); i++){
+                indexMap.put(words.get(i).getName(), i);
+            }
+            sorted = true;
+        }
     }
 
     /**
-     * Adds a new term to the sorted words array. First the term is searched in the words array using binary search,
-     * then the word is added into the correct place.
+     * Adds a new term to the dictionary. First the term is searched in the hash map, then the term is appended to the
+     * words array. The words array is sorted later when the sorted order is needed.
      * @param name Lemma of the term
      * @param termId Id of the term
      */
     public void addTerm(String name, int termId){
-        int middle = Collections.binarySearch(words, new Word(name), comparator);
-        if (middle < 0){
-            Term newTerm = new Term(name, termId);
-            words.add(-middle - 1, newTerm);
-            idMap.put(termId, newTerm);
+        if (!indexMap.containsKey(name)){
+            appendTerm(new Term(name, termId));
         } else {
             System.out.println(name);
         }
     }
 
+    /**
+     * Returns the index of the term with the given name in the sorted words array. The term is found with the hash map.
+     * @param name Name of the term.
+     * @return Index of the term in the sorted words array, -1 if the term does not exist in the dictionary.
+     */
+    public int getWordIndex(String name){
+        Integer index;
+        sort();
+        index = indexMap.get(name);
+        if (index == null){
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the term with the given name. The term is found with the hash map, without sorting the words array.
+     * @param name Name of the term.
+     * @return Term with the given name, null if the term does not exist in the dictionary.
+     */
+    public Word getWord(String name){
+        Integer index = indexMap.get(name);
+        if (index == null){
+            return null;
+        }
+        return words.get(index);
+    }
+
+    /**
+     * Returns the term at the given index of the sorted words array.
+     * @param index Index of the term in the sorted words array.
+     * @return Term at the given index.
+     */
+    public Word getWord(int index){
+        sort();
+        return words.get(index);
+    }
+
+    /**
+     * Returns the id of the term with the given name. The term is found with the hash map, without sorting the words
+     * array, therefore this method is preferred over getWordIndex while the dictionary is being constructed.
+     * @param name Name of the term.
+     * @return Id of the term with the given name, -1 if the term does not exist in the dictionary.
+     */
+    public int getTermId(String name){
+        Integer index = indexMap.get(name);
+        if (index == null){
+            return -1;
+        }
+        return ((Term) words.get(index)).getTermId();
+    }
+
+    /**
+     * Returns the index of the first term in the sorted words array, which is larger than or equal to the given prefix.
+     * @param hash Prefix to search.
+     * @return Index of the first term starting with the given prefix, or the insertion point of the prefix.
+     */
+    public int getWordStartingWith(String hash){
+        sort();
+        return super.getWordStartingWith(hash);
+    }
+
+    /**
+     * Returns the names of the terms starting with the given prefix in sorted order. Since the terms are sorted, the
+     * terms starting with the prefix are stored consecutively after the first term larger than or equal to the prefix.
+     * @param prefix Prefix to search.
+     * @return Names of the terms starting with the given prefix.
+     */
+    public ArrayList<String> getWordsStartingWith(String prefix){
+        ArrayList<String> result = new ArrayList<>();
+        int i = getWordStartingWith(prefix);
+        while (i < size() && getWord(i).getName().startsWith(prefix)){
+            result.add(getWord(i).getName());
+            i++;
+        }
+        return result;
+    }
+
     /**
      * Saves the term dictionary into the dictionary file. Each line stores the term id and the term name separated via
      * space.
@@ -125,10 +311,11 @@ public class TermDictionary extends Dictionary{
      *                 file name
      */
     public void save(String fileName){
+        sort();
         try {
             PrintWriter printWriter = new PrintWriter(fileName + "-dictionary.txt", "UTF-8");
-            for (Word word : words) {
-                Term term = (Term) word;
+            for (int i = 0; i < size(); i++) {
+                Term term = (Term) getWord(i);
                 printWriter.write(term.getTermId() + " " + term.getName() + "\n");
             }
             printWriter.close();
@@ -137,6 +324,35 @@ public class TermDictionary extends Dictionary{
         }
     }
 
+    /**
+     * Saves the term dictionary into the dictionary file in the given format. The binary file stores the header, the
+     * number of terms, and for each term in sorted order, its id and its name in modified UTF-8.
+     * @param fileName Dictionary file name. Real dictionary file name is created by attaching -dictionary.txt or
+     *                 -dictionary.bin to this file name
+     * @param format Format of the dictionary file, text or binary.
+     */
+    public void save(String fileName, IndexFileFormat format){
+        if (format == IndexFileFormat.TEXT){
+            save(fileName);
+            return;
+        }
+        sort();
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName + "-dictionary.bin"), 1 << 16));
+            outputStream.writeInt(BinaryIndexWriter.DICTIONARY_MAGIC);
+            outputStream.writeInt(BinaryIndexWriter.VERSION);
+            outputStream.writeInt(size());
+            for (int i = 0; i < size(); i++) {
+                Term term = (Term) getWord(i);
+                outputStream.writeInt(term.getTermId());
+                outputStream.writeUTF(term.getName());
+            }
+            outputStream.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Returns the term with the given term id. Terms are sorted in the words array according to their lemma. In order
      * to get the terms asap w.r.t. their ids, we have a hash map to map the term ids to themselves.
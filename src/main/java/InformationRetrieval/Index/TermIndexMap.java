@@ -0,0 +1,141 @@
+package InformationRetrieval.Index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Map from term ids to the posting lists of an index. The term ids of the memory and medium collections are dense
+ * (0..V-1), therefore they are stored in an array indexed by the term id, which makes a lookup a single array access
+ * without boxing the term id. The large collection uses the hash codes of the terms as term ids, which are spread over
+ * the whole integer range; such ids are kept in a hash map. An id is stored in the array only if it is smaller than
+ * a limit proportional to the number of stored terms, so that the array never grows much larger than the number of
+ * terms.
+ * @param <V> Type of the posting lists.
+ */
+public class TermIndexMap<V> {
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    private Object[] dense;
+    private final HashMap<Integer, V> sparse;
+    private int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    public TermIndexMap(){
+        dense = new Object[16];
+        sparse = new HashMap<>();
+        size = 0;
+    }
+
+    /**
+     * Checks if the given term id is small enough to be stored in the array. The limit grows with the number of terms.
+     * @param termId Id of the term
+     * @return True, if the term id can be stored in the array, false otherwise.
+     */
+    private boolean isDense(int termId){
+        return termId >= 0 && (termId < dense.length || termId < 2 * size + MINIMUM_CAPACITY);
+    }
+
+    /**
+     * Enlarges the array so that it can store the given term id, and moves the terms in the hash map that fit into the
+     * enlarged array.
+     * @param termId Id of the term
+     */
+    private void grow(int termId){
+        int capacity = Math.max(2 * dense.length, termId + 1);
+        dense = Arrays.copyOf(dense, capacity);
+        if (!sparse.isEmpty()){
+            Integer[] keys = sparse.keySet().toArray(new Integer[0]);
+            for (Integer key : keys){
+                if (key >= 0 && key < capacity){
+                    dense[key] = sparse.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the posting list of the term with the given id.
+     * @param termId Id of the term
+     * @return Posting list of the term, null if the term does not exist in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int termId){
+        if (termId >= 0 && termId < dense.length){
+            return (V) dense[termId];
+        }
+        return sparse.get(termId);
+    }
+
+    /**
+     * Checks if the term with the given id exists in the map.
+     * @param termId Id of the term
+     * @return True, if the term exists in the map, false otherwise.
+     */
+    public boolean containsKey(int termId){
+        return get(termId) != null;
+    }
+
+    /**
+     * Puts the posting list of the term with the given id into the map, replacing the previous posting list of the term
+     * if it exists.
+     * @param termId Id of the term
+     * @param value Posting list of the term.
+     */
+    public void put(int termId, V value){
+        if (isDense(termId)){
+            if (termId >= dense.length){
+                grow(termId);
+            }
+            if (dense[termId] == null){
+                size++;
+            }
+            dense[termId] = value;
+        } else {
+            if (sparse.put(termId, value) == null){
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of terms in the map.
+     * @return Number of terms in the map.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Removes all terms from the map.
+     */
+    public void clear(){
+        dense = new Object[16];
+        sparse.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the ids of the terms in the map in increasing order.
+     * @return Ids of the terms in the map.
+     */
+    public int[] keys(){
+        int[] keys = new int[size];
+        int i = 0;
+        for (int termId = 0; termId < dense.length; termId++){
+            if (dense[termId] != null){
+                keys[i] = termId;
+                i++;
+            }
+        }
+        if (!sparse.isEmpty()){
+            for (Integer key : sparse.keySet()){
+                keys[i] = key;
+                i++;
+            }
+            Arrays.sort(keys);
+        }
+        return keys;
+    }
+}
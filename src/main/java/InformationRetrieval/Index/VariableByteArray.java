@@ -0,0 +1,103 @@
+package InformationRetrieval.Index;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte array storing integers with variable byte encoding. Each integer is encoded as an unsigned 32 bit
+ * value and split into 7 bit groups, which are stored from the most significant to the least significant group. The
+ * continuation bit (the high bit) is set only on the last byte of each integer, so small integers such as the gaps
+ * between successive document ids take a single byte, while negative integers take five bytes.
+ */
+public class VariableByteArray {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private byte[] bytes;
+    private int length;
+
+    /**
+     * Constructor of the VariableByteArray class. Initializes an empty byte array.
+     */
+    public VariableByteArray(){
+        bytes = new byte[INITIAL_CAPACITY];
+        length = 0;
+    }
+
+    /**
+     * Returns the number of bytes needed to encode the given integer. The integer is encoded as an unsigned value, so
+     * a negative integer, such as the gap between unsorted ids, takes five bytes and is decoded back exactly.
+     * @param value Integer to be encoded.
+     * @return Number of bytes needed to encode the integer.
+     */
+    public static int encodedLength(int value){
+        int count = 1;
+        while ((value >>> 7) != 0){
+            value >>>= 7;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Encodes the given integer as an unsigned 32 bit value and appends its bytes to the end of the array. Negative
+     * integers take five bytes.
+     * @param value Integer to be encoded.
+     */
+    public void add(int value){
+        int count = encodedLength(value);
+        if (length + count > bytes.length){
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + count));
+        }
+        for (int i = count - 1; i >= 0; i--){
+            bytes[length + i] = (byte) (value & 127);
+            value >>>= 7;
+        }
+        bytes[length + count - 1] |= (byte) 128;
+        length += count;
+    }
+
+    /**
+     * Appends the given bytes to the end of the array without encoding them.
+     * @param array Byte array containing the bytes.
+     * @param offset Offset of the first byte in the array.
+     * @param count Number of bytes to append.
+     */
+    public void addBytes(byte[] array, int offset, int count){
+        if (length + count > bytes.length){
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + count));
+        }
+        System.arraycopy(array, offset, bytes, length, count);
+        length += count;
+    }
+
+    /**
+     * Removes all integers from the array, keeping the underlying array for reuse.
+     */
+    public void clear(){
+        length = 0;
+    }
+
+    /**
+     * Shrinks the underlying array to the number of bytes used.
+     */
+    public void trimToSize(){
+        if (bytes.length != length){
+            bytes = Arrays.copyOf(bytes, length);
+        }
+    }
+
+    /**
+     * Accessor for the underlying byte array. Only the first length() bytes are valid.
+     * @return Underlying byte array.
+     */
+    public byte[] getBytes(){
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes used in the array.
+     * @return Number of bytes used in the array.
+     */
+    public int length(){
+        return length;
+    }
+}
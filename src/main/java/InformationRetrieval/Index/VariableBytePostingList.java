@@ -0,0 +1,67 @@
+package InformationRetrieval.Index;
+
+/**
+ * Compressed form of a posting list. Instead of the document ids themselves, the gaps between successive document ids
+ * are stored with variable byte encoding. Since postings are sorted, gaps are small and most of them take a single
+ * byte. The postings are decoded sequentially with a {@link VariableBytePostingListCursor}.
+ */
+public class VariableBytePostingList extends CompressedPostingList {
+    private final VariableByteArray data;
+    private int size;
+    private int lastDocId;
+
+    /**
+     * Constructor of the VariableBytePostingList class. Initializes an empty list.
+     */
+    public VariableBytePostingList(){
+        data = new VariableByteArray();
+        size = 0;
+        lastDocId = 0;
+    }
+
+    /**
+     * Compresses the given posting list. The postings in the list should be sorted in increasing order.
+     * @param postingList Posting list to be compressed.
+     */
+    public VariableBytePostingList(PostingList postingList){
+        this();
+        for (int i = 0; i < postingList.size(); i++){
+            add(postingList.get(i));
+        }
+        data.trimToSize();
+    }
+
+    /**
+     * Adds a new posting (document id) to the end of the list. Document ids should be added in increasing order.
+     * @param docId New document id to be added to the posting list.
+     */
+    public void add(int docId){
+        data.add(docId - lastDocId);
+        lastDocId = docId;
+        size++;
+    }
+
+    /**
+     * Returns the number of postings in the posting list.
+     * @return Number of postings in the posting list.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used to store the postings.
+     * @return Number of bytes used to store the postings.
+     */
+    public int byteSize(){
+        return data.length();
+    }
+
+    /**
+     * Returns a cursor positioned before the first posting of the list.
+     * @return A new cursor over the postings of this list.
+     */
+    public PostingCursor cursor(){
+        return new VariableBytePostingListCursor(data.getBytes(), size);
+    }
+}
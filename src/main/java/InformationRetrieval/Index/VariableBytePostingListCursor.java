@@ -0,0 +1,42 @@
+package InformationRetrieval.Index;
+
+/**
+ * Streaming decoder of a {@link VariableBytePostingList}. Each call to next decodes one gap and adds it to the previous
+ * document id.
+ */
+public class VariableBytePostingListCursor extends PostingCursor {
+    private final VariableByteReader reader;
+    private final int size;
+    private int index;
+    private int docId;
+
+    /**
+     * Constructor of the VariableBytePostingListCursor class.
+     * @param bytes Variable byte encoded gaps of the posting list.
+     * @param size Number of postings in the posting list.
+     */
+    public VariableBytePostingListCursor(byte[] bytes, int size){
+        this.reader = new VariableByteReader(bytes, 0);
+        this.size = size;
+        this.index = 0;
+        this.docId = 0;
+    }
+
+    /**
+     * Checks if there are more postings to decode.
+     * @return True, if there are more postings; false otherwise.
+     */
+    public boolean hasNext(){
+        return index < size;
+    }
+
+    /**
+     * Decodes the next posting.
+     * @return Document id of the next posting.
+     */
+    public int next(){
+        docId += reader.read();
+        index++;
+        return docId;
+    }
+}
@@ -0,0 +1,54 @@
+package InformationRetrieval.Index;
+
+/**
+ * Sequential reader of the integers stored in a {@link VariableByteArray}.
+ */
+public class VariableByteReader {
+    private final byte[] bytes;
+    private int position;
+
+    /**
+     * Constructor of the VariableByteReader class. Starts reading from the given offset of the byte array.
+     * @param bytes Byte array containing variable byte encoded integers.
+     * @param offset Offset of the first integer to be read.
+     */
+    public VariableByteReader(byte[] bytes, int offset){
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    /**
+     * Decodes the next integer and advances the reader.
+     * @return Decoded integer.
+     */
+    public int read(){
+        int value = 0;
+        byte current = bytes[position++];
+        while (current >= 0){
+            value = (value << 7) | current;
+            current = bytes[position++];
+        }
+        return (value << 7) | (current & 127);
+    }
+
+    /**
+     * Skips the given number of integers without decoding them. Since the last byte of each integer has its high bit
+     * set, skipping only counts those bytes.
+     * @param count Number of integers to skip.
+     */
+    public void skip(int count){
+        while (count > 0){
+            if (bytes[position++] < 0){
+                count--;
+            }
+        }
+    }
+
+    /**
+     * Accessor for the current offset of the reader.
+     * @return Offset of the next integer to be read.
+     */
+    public int getPosition(){
+        return position;
+    }
+}
@@ -0,0 +1,55 @@
+package InformationRetrieval.Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.TopKCollector;
+
+import java.util.ArrayList;
+
+/**
+ * Document at a time ranked search with the WAND (weak and) dynamic pruning algorithm. The pivot is the first cursor
+ * at which the sum of the upper bounds of the terms exceeds the score of the K'th best document found so far; no
+ * document before the pivot document can enter the top K, therefore the preceding cursors are advanced directly to the
+ * pivot document, skipping the documents in between. A document is fully scored only when all cursors before the
+ * pivot are on it.
+ */
+public class WandSearch extends DocumentAtATimeSearch {
+
+    /**
+     * Constructs the search over the cursors of the query terms.
+     * @param scorers Cursors of the query terms, in the order of the terms in the query.
+     * @param documents Document collection
+     */
+    public WandSearch(ArrayList<PostingScorer> scorers, ArrayList<Document> documents){
+        super(scorers, documents);
+    }
+
+    /**
+     * Returns the K documents with the largest scores.
+     * @param K Number of documents to return.
+     * @return The best K documents, sorted in decreasing order of their scores.
+     */
+    public QueryResult search(int K){
+        TopKCollector collector = new TopKCollector(K);
+        if (K <= 0){
+            return collector.toQueryResult();
+        }
+        while (true){
+            sortByDocId();
+            int pivot = findPivot(collector.threshold());
+            if (pivot == -1){
+                break;
+            }
+            int pivotDocId = sorted[pivot].docId();
+            if (sorted[0].docId() == pivotDocId){
+                collector.add(pivotDocId, score(pivotDocId));
+                nextAll(pivotDocId);
+            } else {
+                for (int i = 0; i < pivot; i++){
+                    sorted[i].advance(pivotDocId);
+                }
+            }
+        }
+        return collector.toQueryResult();
+    }
+}
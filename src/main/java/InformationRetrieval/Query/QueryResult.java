@@ -1,10 +1,10 @@
 package InformationRetrieval.Query;
 
-import DataStructure.Heap.MinHeap;
-
 import java.util.ArrayList;
 
 public class QueryResult {
+    private static final int GALLOPING_RATIO = 16;
+
     private final ArrayList<QueryResultItem> items;
 
     /**
@@ -48,12 +48,20 @@ public class QueryResult {
     }
 
     /**
-     * Given two query results, this method identifies the intersection of those two results by doing parallel iteration
-     * in O(N).
+     * Given two query results sorted with respect to their document ids, this method identifies the intersection of
+     * those two results. If the sizes of the results are comparable, it does parallel iteration in O(N). If one of the
+     * results is much larger than the other, the smaller result is iterated and its items are searched in the larger
+     * result by galloping in O(n log(N / n)).
      * @param queryResult Second query result to be intersected.
      * @return Intersection of this query result with the second query result
      */
     public QueryResult intersectionFastSearch(QueryResult queryResult){
+        if (size() > GALLOPING_RATIO * queryResult.size()){
+            return queryResult.intersectionGallopingSearch(this);
+        }
+        if (queryResult.size() > GALLOPING_RATIO * size()){
+            return intersectionGallopingSearch(queryResult);
+        }
         QueryResult result = new QueryResult();
         int i = 0, j = 0;
         while (i < size() && j < queryResult.size()){
@@ -74,33 +82,75 @@ public class QueryResult {
         return result;
     }
 
+    /**
+     * Given two query results sorted with respect to their document ids, this method identifies the intersection of
+     * those two results by searching each item of this result in the second result with exponential search. Each
+     * search starts from the position where the previous search ended.
+     * @param queryResult Second query result to be intersected.
+     * @return Intersection of this query result with the second query result
+     */
+    public QueryResult intersectionGallopingSearch(QueryResult queryResult){
+        QueryResult result = new QueryResult();
+        int j = 0;
+        for (int i = 0; i < size() && j < queryResult.size(); i++){
+            int docId = items.get(i).getDocId();
+            j = queryResult.gallop(j, docId);
+            if (j < queryResult.size() && queryResult.items.get(j).getDocId() == docId){
+                result.add(docId);
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Exponential search in the items sorted with respect to their document ids. Starting from position from, the
+     * search interval is doubled until an item with document id larger than or equal to the target is found, then
+     * binary search is done inside the last interval.
+     * @param from Position to start the search.
+     * @param docId Document id to be searched.
+     * @return Position of the first item with document id larger than or equal to the target, size() if there is no
+     * such item.
+     */
+    private int gallop(int from, int docId){
+        int bound = 1, low, high;
+        if (from >= items.size() || items.get(from).getDocId() >= docId){
+            return from;
+        }
+        while (from + bound < items.size() && items.get(from + bound).getDocId() < docId){
+            bound *= 2;
+        }
+        low = from + bound / 2 + 1;
+        high = Math.min(from + bound, items.size());
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (items.get(middle).getDocId() < docId){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     /**
      * Given two query results, this method identifies the intersection of those two results by doing binary search on
-     * the second list in O(N log N).
+     * the second list in O(N log N). The second list should be sorted with respect to document ids. While the items of
+     * this result come in increasing order of document ids, each search gallops from the position of the previous
+     * search instead of starting from the beginning of the second list.
      * @param queryResult Second query result to be intersected.
      * @return Intersection of this query result with the second query result
      */
     public QueryResult intersectionBinarySearch(QueryResult queryResult){
         QueryResult result = new QueryResult();
+        int from = 0, previousDocId = Integer.MIN_VALUE;
         for (QueryResultItem searchedItem : items){
-            int low = 0;
-            int high = queryResult.size() - 1;
-            int middle = (low + high) / 2;
-            boolean found = false;
-            while (low <= high){
-                if (searchedItem.getDocId() > queryResult.items.get(middle).getDocId()){
-                    low = middle + 1;
-                } else {
-                    if (searchedItem.getDocId() < queryResult.items.get(middle).getDocId()){
-                        high = middle - 1;
-                    } else {
-                        found = true;
-                        break;
-                    }
-                }
-                middle = (low + high) / 2;
+            if (searchedItem.getDocId() < previousDocId){
+                from = 0;
             }
-            if (found){
+            previousDocId = searchedItem.getDocId();
+            from = queryResult.gallop(from, searchedItem.getDocId());
+            if (from < queryResult.size() && queryResult.items.get(from).getDocId() == searchedItem.getDocId()){
                 result.add(searchedItem.getDocId(), searchedItem.getScore());
             }
         }
@@ -126,26 +176,17 @@ public class QueryResult {
     }
 
     /**
-     * The method returns K best results from the query result using min heap in O(K log N + N log K) time.
+     * The method keeps the K best results of the query result. The items are fed to a top K collector, which keeps only
+     * K primitive (document id, score) pairs and replaces its worst pair when a better item comes, in O(N log K) time.
+     * Items with the same score are ordered by their document ids.
      * @param K Size of the best subset.
      */
     public void getBest(int K){
-        QueryResultItemComparator comparator = new QueryResultItemComparator();
-        MinHeap<QueryResultItem> minHeap = new MinHeap<>(K, comparator);
-        for (int i = 0; i < K && i < items.size(); i++){
-            minHeap.insert(items.get(i));
-        }
-        for (int i = K + 1; i < items.size(); i++){
-            QueryResultItem top = minHeap.delete();
-            if (comparator.compare(top, items.get(i)) > 0){
-                minHeap.insert(top);
-            } else {
-                minHeap.insert(items.get(i));
-            }
+        TopKCollector collector = new TopKCollector(K);
+        for (QueryResultItem item : items){
+            collector.add(item.getDocId(), item.getScore());
         }
         items.clear();
-        for (int i = 0; i < K && !minHeap.isEmpty(); i++){
-            items.add(0, minHeap.delete());
-        }
+        items.addAll(collector.toQueryResult().items);
     }
 }
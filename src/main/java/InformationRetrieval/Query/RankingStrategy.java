@@ -0,0 +1,5 @@
+package InformationRetrieval.Query;
+
+public enum RankingStrategy {
+    EXHAUSTIVE, WAND, BLOCK_MAX_WAND, MAX_SCORE, SCORE_AT_A_TIME
+}
@@ -0,0 +1,102 @@
+package InformationRetrieval.Query;
+
+import java.util.Arrays;
+
+/**
+ * Reusable score accumulator of term at a time ranked search. The partial scores of the documents are added into a
+ * double array indexed by the document id, and the ids of the documents receiving their first score are recorded, so
+ * that only those documents are visited when the results are collected and when the accumulator is cleared for the
+ * next query. Neither adding a score nor clearing the accumulator creates an object.
+ */
+public class ScoreAccumulator {
+    private double[] scores;
+    private boolean[] touched;
+    private int[] touchedDocIds;
+    private int touchedCount;
+
+    /**
+     * Constructs an accumulator for the given number of documents.
+     * @param documentCount Number of documents in the collection.
+     */
+    public ScoreAccumulator(int documentCount){
+        scores = new double[documentCount];
+        touched = new boolean[documentCount];
+        touchedDocIds = new int[16];
+        touchedCount = 0;
+    }
+
+    /**
+     * Clears the scores of the touched documents and enlarges the accumulator if the collection has grown.
+     * @param documentCount Number of documents in the collection.
+     */
+    public void reset(int documentCount){
+        for (int i = 0; i < touchedCount; i++){
+            scores[touchedDocIds[i]] = 0.0;
+            touched[touchedDocIds[i]] = false;
+        }
+        touchedCount = 0;
+        if (documentCount > scores.length){
+            scores = new double[documentCount];
+            touched = new boolean[documentCount];
+        }
+    }
+
+    /**
+     * Adds a partial score to the score of the given document.
+     * @param docId Id of the document.
+     * @param score Partial score to add.
+     */
+    public void add(int docId, double score){
+        if (!touched[docId]){
+            touched[docId] = true;
+            if (touchedCount == touchedDocIds.length){
+                touchedDocIds = Arrays.copyOf(touchedDocIds, 2 * touchedCount);
+            }
+            touchedDocIds[touchedCount] = docId;
+            touchedCount++;
+        }
+        scores[docId] += score;
+    }
+
+    /**
+     * Checks if the given document has a score.
+     * @param docId Id of the document.
+     * @return True, if a score is added to the document since the last reset, false otherwise.
+     */
+    public boolean contains(int docId){
+        return touched[docId];
+    }
+
+    /**
+     * Returns the accumulated score of the given document.
+     * @param docId Id of the document.
+     * @return Accumulated score of the document.
+     */
+    public double getScore(int docId){
+        return scores[docId];
+    }
+
+    /**
+     * Returns the number of documents with a score.
+     * @return Number of documents with a score.
+     */
+    public int touchedCount(){
+        return touchedCount;
+    }
+
+    /**
+     * Returns the id of the document at the given position in the list of documents with a score.
+     * @param index Position in the list of documents with a score.
+     * @return Id of the document.
+     */
+    public int touchedDocId(int index){
+        return touchedDocIds[index];
+    }
+
+    /**
+     * Sorts the list of documents with a score in increasing order of document ids.
+     */
+    public void sortTouched(){
+        Arrays.sort(touchedDocIds, 0, touchedCount);
+    }
+}
@@ -11,6 +11,8 @@ public class SearchParameter {
     private DocumentWeighting documentWeighting = DocumentWeighting.NO_IDF;
     private TermWeighting termWeighting = TermWeighting.NATURAL;
     private int documentsRetrieved = 1;
+    private RankingStrategy rankingStrategy = RankingStrategy.EXHAUSTIVE;
+    private int postingBudget = 0;
 
     private boolean searchAttributes = false;
 
@@ -52,6 +54,24 @@ public class SearchParameter {
         this.documentsRetrieved = documentsRetrieved;
     }
 
+    /**
+     * Mutator for the ranking strategy used in ranked search. The strategy determines how the top documents are found,
+     * the scores of the returned documents do not depend on it.
+     * @param rankingStrategy New ranking strategy.
+     */
+    public void setRankingStrategy(RankingStrategy rankingStrategy) {
+        this.rankingStrategy = rankingStrategy;
+    }
+
+    /**
+     * Mutator for the posting budget of score at a time ranked search. The search stops after processing that many
+     * postings; a budget of 0 processes all postings.
+     * @param postingBudget New posting budget.
+     */
+    public void setPostingBudget(int postingBudget) {
+        this.postingBudget = postingBudget;
+    }
+
     /**
      * Mutator for the focus type.
      * @param focusType New focus type.
@@ -100,6 +120,22 @@ public class SearchParameter {
         return documentsRetrieved;
     }
 
+    /**
+     * Accessor for the ranking strategy used in ranked search.
+     * @return Ranking strategy.
+     */
+    public RankingStrategy getRankingStrategy() {
+        return rankingStrategy;
+    }
+
+    /**
+     * Accessor for the posting budget of score at a time ranked search.
+     * @return Posting budget, 0 if all postings are processed.
+     */
+    public int getPostingBudget() {
+        return postingBudget;
+    }
+
     /**
      * Accessor for the focus type.
      * @return Focus type.
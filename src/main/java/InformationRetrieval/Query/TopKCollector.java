@@ -0,0 +1,153 @@
+package InformationRetrieval.Query;
+
+/**
+ * Collects the K documents with the largest scores in a binary min heap of primitive document ids and scores, so that
+ * collecting a document does not create an object. The root of the heap is the worst collected document; a new
+ * document replaces it only if it is better. A document is better than another if it has a larger score, or the same
+ * score and a smaller document id.
+ */
+public class TopKCollector {
+    private final int K;
+    private final int[] docIds;
+    private final double[] scores;
+    private int size;
+
+    /**
+     * Constructs an empty collector.
+     * @param K Maximum number of documents to collect.
+     */
+    public TopKCollector(int K){
+        this.K = Math.max(K, 0);
+        docIds = new int[this.K];
+        scores = new double[this.K];
+        size = 0;
+    }
+
+    /**
+     * Checks if the document at the first heap position is worse than the document at the second heap position.
+     * @param i First heap position.
+     * @param j Second heap position.
+     * @return True, if the first document is worse than the second document, false otherwise.
+     */
+    private boolean isWorse(int i, int j){
+        return scores[i] < scores[j] || (scores[i] == scores[j] && docIds[i] > docIds[j]);
+    }
+
+    /**
+     * Swaps the documents at the given heap positions.
+     * @param i First heap position.
+     * @param j Second heap position.
+     */
+    private void swap(int i, int j){
+        int docId = docIds[i];
+        double score = scores[i];
+        docIds[i] = docIds[j];
+        scores[i] = scores[j];
+        docIds[j] = docId;
+        scores[j] = score;
+    }
+
+    /**
+     * Moves the document at the given heap position down until both of its children are better than it.
+     * @param position Heap position.
+     */
+    private void siftDown(int position){
+        while (2 * position + 1 < size){
+            int child = 2 * position + 1;
+            if (child + 1 < size && isWorse(child + 1, child)){
+                child++;
+            }
+            if (!isWorse(child, position)){
+                break;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    /**
+     * Offers a document to the collector. If the collector is not full, the document is added; otherwise it replaces
+     * the worst collected document if it is better than that document.
+     * @param docId Id of the document.
+     * @param score Score of the document.
+     * @return True, if the document is collected, false otherwise.
+     */
+    public boolean add(int docId, double score){
+        if (size < K){
+            int position = size;
+            docIds[position] = docId;
+            scores[position] = score;
+            size++;
+            while (position > 0 && isWorse(position, (position - 1) / 2)){
+                swap(position, (position - 1) / 2);
+                position = (position - 1) / 2;
+            }
+            return true;
+        }
+        if (K == 0 || score < scores[0] || (score == scores[0] && docId > docIds[0])){
+            return false;
+        }
+        docIds[0] = docId;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Checks if K documents are collected.
+     * @return True, if the collector is full, false otherwise.
+     */
+    public boolean isFull(){
+        return size == K;
+    }
+
+    /**
+     * Returns the score a document should exceed to enter the collector. Until the collector is full, every document
+     * enters the collector, therefore the threshold is negative infinity.
+     * @return Score of the worst collected document if the collector is full, negative infinity otherwise.
+     */
+    public double threshold(){
+        if (size < K || K == 0){
+            return Double.NEGATIVE_INFINITY;
+        }
+        return scores[0];
+    }
+
+    /**
+     * Returns the number of collected documents.
+     * @return Number of collected documents.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Removes all collected documents.
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    /**
+     * Empties the collector into a query result, in which the documents are sorted from the best to the worst.
+     * @return Query result containing the collected documents.
+     */
+    public QueryResult toQueryResult(){
+        int count = size;
+        int[] sortedDocIds = new int[count];
+        double[] sortedScores = new double[count];
+        for (int i = count - 1; i >= 0; i--){
+            sortedDocIds[i] = docIds[0];
+            sortedScores[i] = scores[0];
+            size--;
+            docIds[0] = docIds[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        QueryResult result = new QueryResult();
+        for (int i = 0; i < count; i++){
+            result.add(sortedDocIds[i], sortedScores[i]);
+        }
+        return result;
+    }
+}
@@ -62,40 +62,56 @@ public class VectorSpaceModel {
      * @return tf-idf value of a single word (column) of the document vector.
      */
     public static double weighting(double termFrequency, double documentFrequency, int documentSize, TermWeighting termWeighting, DocumentWeighting documentWeighting){
-        double multiplier1 = 1, multiplier2 = 1;
+        return termFrequencyWeight(termFrequency, termWeighting) * documentFrequencyWeight(documentFrequency, documentSize, documentWeighting);
+    }
+
+    /**
+     * Calculates the term frequency part of the tf-idf value of a word.
+     * @param termFrequency Term frequency of this word in the document
+     * @param termWeighting Term weighting scheme applied in term frequency calculation.
+     * @return Weighted term frequency of the word.
+     */
+    public static double termFrequencyWeight(double termFrequency, TermWeighting termWeighting){
         switch (termWeighting){
             case   NATURAL:
-                multiplier1 = termFrequency;
-                break;
+                return termFrequency;
             case LOGARITHM:
                 if (termFrequency > 0)
-                    multiplier1 = 1 + Math.log(termFrequency);
+                    return 1 + Math.log(termFrequency);
                 else
-                    multiplier1 = 0;
-                break;
+                    return 0;
             case     BOOLE:
                 if (termFrequency > 0){
-                    multiplier1 = 1;
+                    return 1;
                 } else {
-                    multiplier1 = 0;
+                    return 0;
                 }
         }
+        return 1;
+    }
+
+    /**
+     * Calculates the document frequency part of the tf-idf value of a word. Since it depends only on the word, it can
+     * be calculated once per query term instead of once per posting.
+     * @param documentFrequency Document frequency of this word.
+     * @param documentSize Number of documents in the collection
+     * @param documentWeighting Document weighting scheme applied in document frequency calculation.
+     * @return Weighted inverse document frequency of the word.
+     */
+    public static double documentFrequencyWeight(double documentFrequency, int documentSize, DocumentWeighting documentWeighting){
         switch (documentWeighting){
             case   NO_IDF:
-                multiplier2 = 1;
-                break;
+                return 1;
             case 	   IDF:
-                multiplier2 = Math.log(documentSize / (documentFrequency + 0.0));
-                break;
+                return Math.log(documentSize / (documentFrequency + 0.0));
             case PROBABILISTIC_IDF:
                 if (documentSize > 2 * documentFrequency){
-                    multiplier2 = Math.log((documentSize - documentFrequency) / (documentFrequency + 0.0));
+                    return Math.log((documentSize - documentFrequency) / (documentFrequency + 0.0));
                 } else {
-                    multiplier2 = 0.0;
+                    return 0.0;
                 }
-                break;
         }
-        return multiplier1 * multiplier2;
+        return 1;
     }
 
 }
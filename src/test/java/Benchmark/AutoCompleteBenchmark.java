@@ -0,0 +1,120 @@
+package Benchmark;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.AutoCompleteIndex;
+import InformationRetrieval.Index.InvertedIndex;
+import InformationRetrieval.Index.TermDictionary;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Compares the latency of auto completing one and two character prefixes by collecting all terms with the prefix and
+ * sorting them with the swap loop used previously, with the top k search of the auto complete index, on testCollection3
+ * and on a synthetic dictionary of 200000 terms.
+ */
+public class AutoCompleteBenchmark {
+
+    private static final int SYNTHETIC_TERM_COUNT = 200000;
+    private static final int K = 10;
+
+    private static ArrayList<String> swapSort(String prefix, TermDictionary dictionary, int[] frequencies){
+        ArrayList<String> wordList = dictionary.getWordsStartingWith(prefix);
+        ArrayList<Integer> counts = new ArrayList<>();
+        for (String word : wordList){
+            counts.add(frequencies[dictionary.getWordIndex(word)]);
+        }
+        for (int i = 0; i < wordList.size() - 1; i++){
+            for (int j = i + 1; j < wordList.size(); j++){
+                if (counts.get(i) < counts.get(j)){
+                    Collections.swap(counts, i, j);
+                    Collections.swap(wordList, i, j);
+                }
+            }
+        }
+        return new ArrayList<>(wordList.subList(0, Math.min(K, wordList.size())));
+    }
+
+    private static void run(String name, TermDictionary dictionary, InvertedIndex invertedIndex, int[] frequencies){
+        ArrayList<String> prefixes = new ArrayList<>();
+        HashSet<String> distinct = new HashSet<>();
+        for (int i = 0; i < dictionary.size(); i++){
+            String word = dictionary.getWord(i).getName();
+            for (int length = 1; length <= 2 && length <= word.length(); length++){
+                if (distinct.add(word.substring(0, length))){
+                    prefixes.add(word.substring(0, length));
+                }
+            }
+        }
+        long start = System.nanoTime();
+        AutoCompleteIndex autoCompleteIndex = new AutoCompleteIndex(dictionary, invertedIndex);
+        long buildTime = System.nanoTime() - start;
+        for (int repetition = 0; repetition < 3; repetition++){
+            long count1 = 0, count2 = 0;
+            start = System.nanoTime();
+            for (String prefix : prefixes){
+                count1 += swapSort(prefix, dictionary, frequencies).size();
+            }
+            long swapTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (String prefix : prefixes){
+                count2 += autoCompleteIndex.topK(prefix, K).size();
+            }
+            long topKTime = System.nanoTime() - start;
+            System.out.printf("%s: %d terms, %d prefixes, build %.1f ms, us per prefix: swap sort %.1f, top %d %.1f (%d, %d)%n",
+                    name, dictionary.size(), prefixes.size(), buildTime / 1e6, swapTime / 1e3 / prefixes.size(), K,
+                    topKTime / 1e3 / prefixes.size(), count1, count2);
+        }
+    }
+
+    private static void testCollection3() throws IOException {
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), "testCollection3");
+        InvertedIndex invertedIndex = new InvertedIndex("testCollection3");
+        int[] frequencies = new int[dictionary.size()];
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream("testCollection3-postings.txt"), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()){
+            String[] header = line.split(" ");
+            frequencies[Integer.parseInt(header[0])] = Integer.parseInt(header[1]);
+            reader.readLine();
+            line = reader.readLine();
+        }
+        reader.close();
+        run("testCollection3", dictionary, invertedIndex, frequencies);
+    }
+
+    private static void synthetic(Random random){
+        String alphabet = "abcçdefgğhıijklmnoöprsştuüvyz";
+        HashSet<String> words = new HashSet<>();
+        while (words.size() < SYNTHETIC_TERM_COUNT){
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int i = 0; i < length; i++){
+                word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            words.add(word.toString());
+        }
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), words);
+        InvertedIndex invertedIndex = new InvertedIndex();
+        int[] frequencies = new int[dictionary.size()];
+        for (int termId = 0; termId < dictionary.size(); termId++){
+            frequencies[termId] = 1 + 1000 / (1 + random.nextInt(1000));
+            for (int docId = 0; docId < frequencies[termId]; docId++){
+                invertedIndex.add(termId, docId);
+            }
+        }
+        run("synthetic", dictionary, invertedIndex, frequencies);
+    }
+
+    public static void main(String[] args) throws IOException {
+        testCollection3();
+        synthetic(new Random(1));
+    }
+}
@@ -0,0 +1,139 @@
+package Benchmark;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.IncidenceMatrix;
+import InformationRetrieval.Index.TermDictionary;
+import InformationRetrieval.Query.Query;
+import InformationRetrieval.Query.QueryResult;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Compares the boolean search latency of the incidence matrix with the boolean[dictionarySize][documentSize] layout
+ * used previously, on testCollection3 and on a synthetic collection of 500000 documents.
+ */
+public class IncidenceMatrixBenchmark {
+
+    private static final int SYNTHETIC_DOCUMENT_COUNT = 500000;
+    private static final int SYNTHETIC_TERM_COUNT = 200;
+    private static final int QUERY_COUNT = 1000;
+
+    private static QueryResult booleanSearch(boolean[][] matrix, Query query, TermDictionary dictionary, int documentSize){
+        int i, j, termIndex;
+        boolean[] resultRow = new boolean[documentSize];
+        QueryResult result = new QueryResult();
+        for (i = 0; i < documentSize; i++){
+            resultRow[i] = true;
+        }
+        for (i = 0; i < query.size(); i++){
+            termIndex = dictionary.getWordIndex(query.getTerm(i).getName());
+            if (termIndex != -1){
+                for (j = 0; j < documentSize; j++){
+                    resultRow[j] = resultRow[j] && matrix[termIndex][j];
+                }
+            } else {
+                return result;
+            }
+        }
+        for (i = 0; i < documentSize; i++){
+            if (resultRow[i]){
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private static void run(String name, boolean[][] matrix, IncidenceMatrix incidenceMatrix, TermDictionary dictionary,
+                            int documentSize, Random random){
+        ArrayList<Query> queries = new ArrayList<>();
+        for (int i = 0; i < QUERY_COUNT; i++){
+            int termCount = 1 + random.nextInt(3);
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < termCount; j++){
+                text.append(dictionary.getTerm(random.nextInt(Math.min(matrix.length, 50))).getName()).append(" ");
+            }
+            queries.add(new Query(text.toString().trim()));
+        }
+        for (int repetition = 0; repetition < 3; repetition++){
+            long count1 = 0, count2 = 0;
+            long start = System.nanoTime();
+            for (Query query : queries){
+                count1 += booleanSearch(matrix, query, dictionary, documentSize).size();
+            }
+            long booleanTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (Query query : queries){
+                count2 += incidenceMatrix.search(query, dictionary).size();
+            }
+            long bitmapTime = System.nanoTime() - start;
+            System.out.printf("%s: %d documents, %d terms, us per query: boolean[][] %.1f, bitmap %.1f (%d, %d)%n",
+                    name, documentSize, matrix.length, booleanTime / 1e3 / QUERY_COUNT, bitmapTime / 1e3 / QUERY_COUNT,
+                    count1, count2);
+        }
+    }
+
+    private static void testCollection3(Random random) throws IOException {
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), "testCollection3");
+        ArrayList<int[]> postings = new ArrayList<>();
+        int documentSize = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream("testCollection3-postings.txt"), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()){
+            String[] header = line.split(" ");
+            String[] ids = reader.readLine().trim().split(" ");
+            int[] row = new int[ids.length + 1];
+            row[0] = Integer.parseInt(header[0]);
+            for (int i = 0; i < ids.length; i++){
+                row[i + 1] = Integer.parseInt(ids[i]);
+                documentSize = Math.max(documentSize, row[i + 1] + 1);
+            }
+            postings.add(row);
+            line = reader.readLine();
+        }
+        reader.close();
+        boolean[][] matrix = new boolean[dictionary.size()][documentSize];
+        IncidenceMatrix incidenceMatrix = new IncidenceMatrix(dictionary.size(), documentSize);
+        for (int[] row : postings){
+            for (int i = 1; i < row.length; i++){
+                matrix[row[0]][row[i]] = true;
+                incidenceMatrix.set(row[0], row[i]);
+            }
+        }
+        incidenceMatrix.optimize();
+        run("testCollection3", matrix, incidenceMatrix, dictionary, documentSize, random);
+    }
+
+    private static void synthetic(Random random){
+        HashSet<String> words = new HashSet<>();
+        for (int i = 0; i < SYNTHETIC_TERM_COUNT; i++){
+            words.add("t" + i);
+        }
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), words);
+        boolean[][] matrix = new boolean[SYNTHETIC_TERM_COUNT][SYNTHETIC_DOCUMENT_COUNT];
+        IncidenceMatrix incidenceMatrix = new IncidenceMatrix(SYNTHETIC_TERM_COUNT, SYNTHETIC_DOCUMENT_COUNT);
+        for (int term = 0; term < SYNTHETIC_TERM_COUNT; term++){
+            double probability = 0.5 / (term + 1);
+            for (int docId = 0; docId < SYNTHETIC_DOCUMENT_COUNT; docId++){
+                if (random.nextDouble() < probability){
+                    matrix[term][docId] = true;
+                    incidenceMatrix.set(term, docId);
+                }
+            }
+        }
+        incidenceMatrix.optimize();
+        run("synthetic", matrix, incidenceMatrix, dictionary, SYNTHETIC_DOCUMENT_COUNT, random);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+        testCollection3(random);
+        synthetic(random);
+    }
+}
@@ -0,0 +1,102 @@
+package Benchmark;
+
+import InformationRetrieval.Index.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Compares the size and the intersection speed of the posting list representations: the ArrayList of Posting objects
+ * used previously, the primitive PostingList, and the variable byte and PForDelta compressed posting lists.
+ */
+public class PostingCodecBenchmark {
+
+    private static final int DOCUMENT_COUNT = 5000000;
+    private static final int REPETITIONS = 20;
+
+    private static PostingList randomPostingList(Random random, int size){
+        boolean[] selected = new boolean[DOCUMENT_COUNT];
+        for (int i = 0; i < size; i++){
+            selected[random.nextInt(DOCUMENT_COUNT)] = true;
+        }
+        PostingList postingList = new PostingList();
+        for (int i = 0; i < DOCUMENT_COUNT; i++){
+            if (selected[i]){
+                postingList.add(i);
+            }
+        }
+        return postingList;
+    }
+
+    private static ArrayList<Posting> toArrayList(PostingList postingList){
+        ArrayList<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < postingList.size(); i++){
+            postings.add(new Posting(postingList.get(i)));
+        }
+        return postings;
+    }
+
+    private static int arrayListIntersection(ArrayList<Posting> list1, ArrayList<Posting> list2){
+        int i = 0, j = 0, count = 0;
+        while (i < list1.size() && j < list2.size()){
+            if (list1.get(i).getId() == list2.get(j).getId()){
+                count++;
+                i++;
+                j++;
+            } else {
+                if (list1.get(i).getId() < list2.get(j).getId()){
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void run(String name, PostingList list1, PostingList list2){
+        ArrayList<Posting> arrayList1 = toArrayList(list1), arrayList2 = toArrayList(list2);
+        CompressedPostingList vb1 = new VariableBytePostingList(list1), vb2 = new VariableBytePostingList(list2);
+        CompressedPostingList block1 = new BlockPostingList(list1), block2 = new BlockPostingList(list2);
+        int postings = list1.size() + list2.size();
+        int count = 0;
+        System.out.println(name + ": " + list1.size() + " x " + list2.size() + " postings");
+        System.out.printf("  bytes per posting: ArrayList<Posting> ~%d, PostingList %d, VariableByte %.2f, PForDelta %.2f%n",
+                20, 4, (vb1.byteSize() + vb2.byteSize()) / (double) postings, (block1.byteSize() + block2.byteSize()) / (double) postings);
+        long start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++){
+            count += arrayListIntersection(arrayList1, arrayList2);
+        }
+        long arrayListTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++){
+            count += list1.intersection(list2).size();
+        }
+        long postingListTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++){
+            count += vb1.intersection(vb2).size();
+        }
+        long variableByteTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++){
+            count += block1.intersection(block2).size();
+        }
+        long blockTime = System.nanoTime() - start;
+        System.out.printf("  intersection ms: ArrayList<Posting> %.2f, PostingList %.2f, VariableByte %.2f, PForDelta %.2f (%d)%n",
+                arrayListTime / 1e6 / REPETITIONS, postingListTime / 1e6 / REPETITIONS,
+                variableByteTime / 1e6 / REPETITIONS, blockTime / 1e6 / REPETITIONS, count);
+    }
+
+    public static void main(String[] args){
+        Random random = new Random(1);
+        PostingList common = randomPostingList(random, DOCUMENT_COUNT / 2);
+        PostingList medium = randomPostingList(random, DOCUMENT_COUNT / 20);
+        PostingList rare = randomPostingList(random, 1000);
+        for (int i = 0; i < 3; i++){
+            run("balanced", common, randomPostingList(random, DOCUMENT_COUNT / 2));
+            run("medium", medium, common);
+            run("rare", rare, common);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package Benchmark;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Document.DocumentType;
+import InformationRetrieval.Document.DocumentWeighting;
+import InformationRetrieval.Index.PositionalIndex;
+import InformationRetrieval.Index.TermDictionary;
+import InformationRetrieval.Query.Query;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.RankingStrategy;
+import InformationRetrieval.Query.SearchParameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Compares the latency of top 10 ranked search with all ranking strategies for short and long queries, on a synthetic
+ * collection whose term frequencies follow Zipf's law. Score at a time search runs without a posting budget and ranks
+ * with quantized scores, so its top documents may differ from the others.
+ */
+public class RankingStrategyBenchmark {
+
+    private static final int TERM_COUNT = 20000;
+    private static final int DOCUMENT_COUNT = 30000;
+    private static final int QUERY_COUNT = 200;
+    private static final int K = 10;
+
+    private static int zipf(double[] cumulative, Random random){
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    public static void main(String[] args){
+        Random random = new Random(1);
+        HashSet<String> words = new HashSet<>();
+        for (int i = 0; i < TERM_COUNT; i++){
+            words.add("kelime" + i);
+        }
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), words);
+        double[] cumulative = new double[TERM_COUNT];
+        double sum = 0.0;
+        for (int i = 0; i < TERM_COUNT; i++){
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        PositionalIndex positionalIndex = new PositionalIndex();
+        ArrayList<Document> documents = new ArrayList<>();
+        for (int docId = 0; docId < DOCUMENT_COUNT; docId++){
+            documents.add(new Document(DocumentType.NORMAL, "", "", docId));
+            int length = 20 + random.nextInt(180);
+            int[] terms = new int[length];
+            for (int i = 0; i < length; i++){
+                terms[i] = zipf(cumulative, random);
+            }
+            for (int i = 0; i < length; i++){
+                positionalIndex.addPosition(terms[i], docId, i);
+            }
+        }
+        positionalIndex.setDocumentSizes(documents);
+        int[] queryLengths = {2, 4, 8, 16};
+        for (int queryLength : queryLengths){
+            Query[] queries = new Query[QUERY_COUNT];
+            for (int i = 0; i < QUERY_COUNT; i++){
+                StringBuilder query = new StringBuilder();
+                for (int j = 0; j < queryLength; j++){
+                    if (j > 0){
+                        query.append(" ");
+                    }
+                    query.append(dictionary.getWord(zipf(cumulative, random)).getName());
+                }
+                queries[i] = new Query(query.toString());
+            }
+            for (int repetition = 0; repetition < 3; repetition++){
+                StringBuilder line = new StringBuilder();
+                line.append(String.format("%2d terms, us per query:", queryLength));
+                for (RankingStrategy rankingStrategy : RankingStrategy.values()){
+                    SearchParameter searchParameter = new SearchParameter();
+                    searchParameter.setDocumentWeighting(DocumentWeighting.IDF);
+                    searchParameter.setRankingStrategy(rankingStrategy);
+                    long count = 0;
+                    long start = System.nanoTime();
+                    for (Query query : queries){
+                        QueryResult result = positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, K);
+                        count += result.getItems().get(0).getDocId();
+                    }
+                    long time = System.nanoTime() - start;
+                    line.append(String.format(" %s %.1f (%d)", rankingStrategy, time / 1e3 / QUERY_COUNT, count));
+                }
+                System.out.println(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package Document;
+
+import InformationRetrieval.Document.LargeCollection;
+import InformationRetrieval.Document.MemoryCollection;
+import InformationRetrieval.Document.Parameter;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LargeCollectionTest {
+
+    private static final int DOCUMENT_COUNT = 40;
+
+    private File createCollection(File directory) throws IOException {
+        File collection = new File(directory, "collection");
+        collection.mkdir();
+        File[] files = new File("testCollection3").listFiles();
+        Arrays.sort(files);
+        for (int i = 0; i < DOCUMENT_COUNT; i++){
+            Files.copy(files[i].toPath(), new File(collection, files[i].getName()).toPath());
+        }
+        return collection;
+    }
+
+    private List<String> readLines(String fileName) throws IOException {
+        return Files.readAllLines(new File(fileName).toPath(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a text dictionary and a text index and maps each word to the lines of its posting list, so that indexes
+     * with different term ids can be compared.
+     */
+    private HashMap<String, String> readIndex(String name, String indexExtension) throws IOException {
+        HashMap<Integer, String> words = new HashMap<>();
+        for (String line : readLines(name + "-dictionary.txt")){
+            int space = line.indexOf(' ');
+            words.put(Integer.parseInt(line.substring(0, space)), line.substring(space + 1));
+        }
+        HashMap<String, String> index = new HashMap<>();
+        List<String> lines = readLines(name + indexExtension);
+        int i = 0;
+        while (i < lines.size()){
+            String header = lines.get(i);
+            int termId = Integer.parseInt(header.substring(0, header.indexOf(' ')));
+            StringBuilder postings = new StringBuilder(header.substring(header.indexOf(' ') + 1));
+            i++;
+            do {
+                postings.append('\n').append(lines.get(i));
+                i++;
+            } while (i < lines.size() && lines.get(i).startsWith("\t"));
+            index.put(words.get(termId), postings.toString());
+        }
+        return index;
+    }
+
+    private void assertSameIndexes(String expectedName, HashMap<String, String>[] expected) throws IOException {
+        assertTrue(expected[0].size() > 100);
+        assertEquals(expected[0], readIndex(expectedName, "-postings.txt"));
+        assertEquals(expected[1], readIndex(expectedName, "-positionalPostings.txt"));
+        assertEquals(expected[2], readIndex(expectedName + "-phrase", "-postings.txt"));
+        assertEquals(expected[3], readIndex(expectedName + "-phrase", "-positionalPostings.txt"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashMap<String, String>[] memoryIndexes(String name) throws IOException {
+        Parameter parameter = new Parameter();
+        parameter.setNGramIndex(false);
+        new MemoryCollection(name, parameter).save();
+        return new HashMap[]{readIndex(name, "-postings.txt"), readIndex(name, "-positionalPostings.txt"),
+                readIndex(name + "-phrase", "-postings.txt"), readIndex(name + "-phrase", "-positionalPostings.txt")};
+    }
+
+    private void delete(File directory){
+        File[] files = directory.listFiles();
+        if (files != null){
+            for (File file : files){
+                delete(file);
+            }
+        }
+        directory.delete();
+    }
+
+    private void deleteBlockFiles(){
+        File[] files = new File(".").listFiles();
+        for (File file : files){
+            if (file.getName().startsWith("tmp-")){
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testDocumentLimit() throws IOException {
+        File directory = Files.createTempDirectory("largeCollection").toFile();
+        try {
+            String name = createCollection(directory).getPath();
+            HashMap<String, String>[] expected = memoryIndexes(name);
+            Parameter parameter = new Parameter();
+            parameter.setNGramIndex(false);
+            parameter.setDocumentLimit(8);
+            LargeCollection largeCollection = new LargeCollection(name, parameter);
+            assertEquals(DOCUMENT_COUNT / 8, largeCollection.getBlockCount());
+            assertEquals(0, largeCollection.getBudgetFlushCount());
+            assertSameIndexes(name, expected);
+        } finally {
+            delete(directory);
+            deleteBlockFiles();
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() throws IOException {
+        File directory = Files.createTempDirectory("largeCollection").toFile();
+        try {
+            String name = createCollection(directory).getPath();
+            HashMap<String, String>[] expected = memoryIndexes(name);
+            Parameter parameter = new Parameter();
+            parameter.setNGramIndex(false);
+            parameter.setMemoryBudget(20000);
+            parameter.setOpenFileLimit(2);
+            LargeCollection largeCollection = new LargeCollection(name, parameter);
+            assertTrue(largeCollection.getBudgetFlushCount() > 0);
+            assertTrue(largeCollection.getBlockCount() > 2);
+            for (File file : new File(".").listFiles()){
+                assertFalse(file.getName().startsWith("tmp-merge"));
+            }
+            assertSameIndexes(name, expected);
+        } finally {
+            delete(directory);
+            deleteBlockFiles();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import InformationRetrieval.Document.MemoryCollection;
 import InformationRetrieval.Document.DocumentType;
 import InformationRetrieval.Document.IndexType;
 import InformationRetrieval.Document.Parameter;
+import InformationRetrieval.Index.CompressionType;
+import InformationRetrieval.Index.DictionaryType;
 import InformationRetrieval.Query.*;
 import org.junit.Test;
 
@@ -91,6 +93,37 @@ public class MemoryCollectionTest {
         assertEquals(0, result.getItems().size());
     }
 
+    @Test
+    public void testCompressedIndexQuery() {
+        Parameter parameter = new Parameter();
+        parameter.setCompressionType(CompressionType.VARIABLE_BYTE);
+        MemoryCollection memoryCollection = new MemoryCollection("testCollection2", parameter);
+        Query query = new Query("Brutus Caesar");
+        SearchParameter searchParameter = new SearchParameter();
+        searchParameter.setRetrievalType(RetrievalType.BOOLEAN);
+        QueryResult result = memoryCollection.searchCollection(query, searchParameter);
+        assertEquals(2, result.getItems().size());
+        query = new Query("enact");
+        result = memoryCollection.searchCollection(query, searchParameter);
+        assertEquals(1, result.getItems().size());
+        searchParameter.setRetrievalType(RetrievalType.POSITIONAL);
+        query = new Query("Julius Caesar");
+        result = memoryCollection.searchCollection(query, searchParameter);
+        assertEquals(2, result.getItems().size());
+        query = new Query("I was killed");
+        result = memoryCollection.searchCollection(query, searchParameter);
+        assertEquals(1, result.getItems().size());
+        query = new Query("The noble Brutus");
+        result = memoryCollection.searchCollection(query, searchParameter);
+        assertEquals(1, result.getItems().size());
+        searchParameter.setRetrievalType(RetrievalType.RANKED);
+        searchParameter.setDocumentsRetrieved(2);
+        query = new Query("Caesar");
+        result = memoryCollection.searchCollection(query, searchParameter);
+        assertEquals(2, result.getItems().size());
+        assertEquals(1, result.getItems().get(0).getDocId());
+    }
+
     @Test
     public void testPositionalIndexRankedQuery() {
         Parameter parameter = new Parameter();
@@ -206,4 +239,75 @@ public class MemoryCollectionTest {
         assertEquals(12, autoCompleteList.size());
     }
 
+    @Test
+    public void testCompactDictionaries() {
+        Parameter parameter = new Parameter();
+        parameter.setNGramIndex(true);
+        parameter.setLoadIndexesFromFile(true);
+        MemoryCollection memoryCollection = new MemoryCollection("testCollection3", parameter);
+        SearchParameter searchParameter = new SearchParameter();
+        searchParameter.setRetrievalType(RetrievalType.BOOLEAN);
+        for (DictionaryType dictionaryType : new DictionaryType[]{DictionaryType.FRONT_CODED, DictionaryType.FINITE_STATE}){
+            parameter.setDictionaryType(dictionaryType);
+            MemoryCollection compactCollection = new MemoryCollection("testCollection3", parameter);
+            for (String prefix : new String[]{"Yeni", "Ka", "Bebe"}){
+                assertEquals(memoryCollection.autoCompleteWord(prefix), compactCollection.autoCompleteWord(prefix));
+            }
+            for (String query : new String[]{"Bebek", "Çocuk Bebek", "Kadın Ayakkabı"}){
+                assertEquals(memoryCollection.searchCollection(new Query(query), searchParameter).size(),
+                        compactCollection.searchCollection(new Query(query), searchParameter).size());
+            }
+        }
+    }
+
+    @Test
+    public void testCompactDictionariesInMemory() {
+        Parameter parameter = new Parameter();
+        parameter.setNGramIndex(true);
+        MemoryCollection memoryCollection = new MemoryCollection("testCollection2", parameter);
+        SearchParameter searchParameter = new SearchParameter();
+        searchParameter.setDocumentsRetrieved(2);
+        for (DictionaryType dictionaryType : new DictionaryType[]{DictionaryType.FRONT_CODED, DictionaryType.FINITE_STATE}){
+            parameter = new Parameter();
+            parameter.setNGramIndex(true);
+            parameter.setCompressionType(CompressionType.VARIABLE_BYTE);
+            parameter.setDictionaryType(dictionaryType);
+            MemoryCollection compactCollection = new MemoryCollection("testCollection2", parameter);
+            assertEquals(memoryCollection.vocabularySize(), compactCollection.vocabularySize());
+            for (RetrievalType retrievalType : new RetrievalType[]{RetrievalType.BOOLEAN, RetrievalType.POSITIONAL, RetrievalType.RANKED}){
+                searchParameter.setRetrievalType(retrievalType);
+                for (String query : new String[]{"Brutus", "Brutus Caesar", "noble enact", "a"}){
+                    QueryResult expected = memoryCollection.searchCollection(new Query(query), searchParameter);
+                    QueryResult result = compactCollection.searchCollection(new Query(query), searchParameter);
+                    assertEquals(expected.size(), result.size());
+                    for (int i = 0; i < expected.size(); i++){
+                        assertEquals(expected.getItems().get(i).getDocId(), result.getItems().get(i).getDocId());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelConstruction() {
+        Parameter parameter = new Parameter();
+        parameter.setThreadCount(1);
+        MemoryCollection sequentialCollection = new MemoryCollection("testCollection2", parameter);
+        parameter = new Parameter();
+        parameter.setThreadCount(4);
+        MemoryCollection parallelCollection = new MemoryCollection("testCollection2", parameter);
+        assertEquals(sequentialCollection.vocabularySize(), parallelCollection.vocabularySize());
+        SearchParameter searchParameter = new SearchParameter();
+        searchParameter.setDocumentsRetrieved(2);
+        for (String query : new String[]{"Brutus", "Caesar", "Brutus Caesar", "noble enact"}){
+            QueryResult sequentialResult = sequentialCollection.searchCollection(new Query(query), searchParameter);
+            QueryResult parallelResult = parallelCollection.searchCollection(new Query(query), searchParameter);
+            assertEquals(sequentialResult.size(), parallelResult.size());
+            for (int i = 0; i < sequentialResult.size(); i++){
+                assertEquals(sequentialResult.getItems().get(i).getDocId(), parallelResult.getItems().get(i).getDocId());
+                assertEquals(sequentialResult.getItems().get(i).getScore(), parallelResult.getItems().get(i).getScore(), 0.0);
+            }
+        }
+    }
+
 }
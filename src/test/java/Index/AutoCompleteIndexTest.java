@@ -0,0 +1,34 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.AutoCompleteIndex;
+import InformationRetrieval.Index.InvertedIndex;
+import InformationRetrieval.Index.TermDictionary;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutoCompleteIndexTest {
+
+    @Test
+    public void testTopK() {
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), "testCollection3");
+        InvertedIndex invertedIndex = new InvertedIndex("testCollection3");
+        AutoCompleteIndex autoCompleteIndex = new AutoCompleteIndex(dictionary, invertedIndex);
+        for (String prefix : new String[]{"a", "b", "k", "Ka", "Bebe", "Yeni", "ç", "", "qqq"}){
+            ArrayList<String> words = new ArrayList<>();
+            for (int i = 0; i < dictionary.size(); i++){
+                if (dictionary.getWord(i).getName().startsWith(prefix)){
+                    words.add(dictionary.getWord(i).getName());
+                }
+            }
+            invertedIndex.autoCompleteWord(words, dictionary);
+            for (int k : new int[]{1, 5, 10, 1000000}){
+                ArrayList<String> expected = new ArrayList<>(words.subList(0, Math.min(k, words.size())));
+                assertEquals(expected, autoCompleteIndex.topK(prefix, k));
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.*;
+import InformationRetrieval.Query.Query;
+import InformationRetrieval.Query.QueryResult;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BinaryIndexTest {
+
+    private String read(String fileName) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(fileName)), "UTF-8");
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File directory = Files.createTempDirectory("binaryIndex").toFile();
+        String binary = new File(directory, "binary").getPath();
+        String text = new File(directory, "text").getPath();
+        for (String name : new String[]{"testCollection2", "testCollection3", "testCollection3-phrase"}){
+            new TermDictionary(new TurkishWordComparator(), name).save(binary, IndexFileFormat.BINARY);
+            new InvertedIndex(name).save(binary, IndexFileFormat.BINARY);
+            new PositionalIndex(name).save(binary, IndexFileFormat.BINARY);
+            new TermDictionary(new TurkishWordComparator(), binary, IndexFileFormat.BINARY).save(text);
+            new InvertedIndex(binary, IndexFileFormat.BINARY).save(text);
+            new PositionalIndex(binary, IndexFileFormat.BINARY).save(text);
+            assertEquals(read(name + "-dictionary.txt"), read(text + "-dictionary.txt"));
+            assertEquals(read(name + "-postings.txt"), read(text + "-postings.txt"));
+            assertEquals(read(name + "-positionalPostings.txt"), read(text + "-positionalPostings.txt"));
+        }
+        File[] files = directory.listFiles();
+        if (files != null){
+            for (File file : files){
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testUnsortedPostings() throws IOException {
+        File directory = Files.createTempDirectory("unsortedIndex").toFile();
+        String binary = new File(directory, "binary").getPath();
+        InvertedIndex invertedIndex = new InvertedIndex();
+        int[] ids = new int[]{1006854242, 250343778, 1752372227, 663052330, 34, 894324519};
+        for (int id : ids){
+            invertedIndex.add(7, id);
+        }
+        String text = new File(directory, "text").getPath();
+        String roundTrip = new File(directory, "roundTrip").getPath();
+        invertedIndex.save(text);
+        invertedIndex.save(binary, IndexFileFormat.BINARY);
+        new InvertedIndex(binary, IndexFileFormat.BINARY).save(roundTrip);
+        assertEquals(read(text + "-postings.txt"), read(roundTrip + "-postings.txt"));
+        new File(text + "-postings.txt").delete();
+        new File(roundTrip + "-postings.txt").delete();
+        new File(binary + "-postings.bin").delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testHeaderMismatch() throws IOException {
+        File directory = Files.createTempDirectory("headerMismatch").toFile();
+        String binary = new File(directory, "binary").getPath();
+        new InvertedIndex("testCollection2").save(binary, IndexFileFormat.BINARY);
+        Files.copy(Paths.get(binary + "-postings.bin"), Paths.get(binary + "-positionalPostings.bin"));
+        Files.copy(Paths.get(binary + "-postings.bin"), Paths.get(binary + "-dictionary.bin"));
+        try {
+            new PositionalIndex(binary, IndexFileFormat.BINARY);
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+        try {
+            new TermDictionary(new TurkishWordComparator(), binary, IndexFileFormat.BINARY);
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+        new InvertedIndex(new File(directory, "missing").getPath(), IndexFileFormat.BINARY);
+        File[] files = directory.listFiles();
+        if (files != null){
+            for (File file : files){
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testMappedIndex() throws IOException {
+        File directory = Files.createTempDirectory("mappedIndex").toFile();
+        String binary = new File(directory, "binary").getPath();
+        String text = new File(directory, "text").getPath();
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator(), "testCollection3");
+        InvertedIndex invertedIndex = new InvertedIndex("testCollection3");
+        invertedIndex.save(binary, IndexFileFormat.BINARY);
+        MappedInvertedIndex mappedIndex = new MappedInvertedIndex(binary);
+        mappedIndex.save(text);
+        assertEquals(read("testCollection3-postings.txt"), read(text + "-postings.txt"));
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++){
+            StringBuilder query = new StringBuilder();
+            int termCount = 1 + random.nextInt(3);
+            for (int j = 0; j < termCount; j++){
+                query.append(dictionary.getWord(random.nextInt(100)).getName()).append(" ");
+            }
+            QueryResult expected = invertedIndex.search(new Query(query.toString().trim()), dictionary);
+            QueryResult result = mappedIndex.search(new Query(query.toString().trim()), dictionary);
+            assertEquals(expected.size(), result.size());
+            for (int j = 0; j < expected.size(); j++){
+                assertEquals(expected.getItems().get(j).getDocId(), result.getItems().get(j).getDocId());
+            }
+        }
+        byte[] mapped = Files.readAllBytes(Paths.get(binary + "-postings.bin"));
+        mappedIndex.save(binary, IndexFileFormat.BINARY);
+        assertArrayEquals(mapped, Files.readAllBytes(Paths.get(binary + "-postings.bin")));
+        try {
+            mappedIndex.add(0, 0);
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        File[] files = directory.listFiles();
+        if (files != null){
+            for (File file : files){
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
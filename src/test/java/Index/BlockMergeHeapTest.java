@@ -0,0 +1,50 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import Dictionary.Word;
+import InformationRetrieval.Index.BlockMergeHeap;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockMergeHeapTest {
+
+    @Test
+    public void testTermIds() {
+        Random random = new Random(1);
+        int[] termIds = new int[50];
+        BlockMergeHeap heap = new BlockMergeHeap(termIds);
+        for (int i = 0; i < termIds.length; i++){
+            termIds[i] = random.nextInt(10);
+            heap.push(i);
+        }
+        int previousTermId = -1, previousBlock = -1;
+        for (int i = 0; i < termIds.length; i++){
+            int block = heap.pop();
+            assertTrue(termIds[block] > previousTermId || (termIds[block] == previousTermId && block > previousBlock));
+            previousTermId = termIds[block];
+            previousBlock = block;
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testWords() {
+        Word[] words = new Word[]{new Word("elma"), new Word("armut"), new Word("armut"), new Word("çilek"), new Word("ayva")};
+        BlockMergeHeap heap = new BlockMergeHeap(words, new TurkishWordComparator());
+        for (int i = words.length - 1; i >= 0; i--){
+            heap.push(i);
+        }
+        assertEquals(1, heap.pop());
+        assertEquals(2, heap.pop());
+        assertEquals(4, heap.peek());
+        assertEquals(4, heap.pop());
+        assertEquals(3, heap.pop());
+        assertEquals(0, heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+}
@@ -0,0 +1,134 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.*;
+import InformationRetrieval.Query.Query;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BlockPostingListTest {
+
+    private PostingList randomPostingList(Random random, int size, int maxGap){
+        PostingList postingList = new PostingList();
+        int docId = random.nextInt(maxGap);
+        for (int i = 0; i < size; i++){
+            postingList.add(docId);
+            docId += 1 + random.nextInt(maxGap);
+        }
+        return postingList;
+    }
+
+    private void assertRoundTrip(PostingList postingList){
+        assertEquals(postingList.toString(), new BlockPostingList(postingList).toPostingList().toString());
+        assertEquals(postingList.toString(), new VariableBytePostingList(postingList).toPostingList().toString());
+    }
+
+    @Test
+    public void testEmptyAndSingle() {
+        PostingList postingList = new PostingList();
+        BlockPostingList blockPostingList = new BlockPostingList(postingList);
+        assertEquals(0, blockPostingList.size());
+        assertEquals(false, blockPostingList.cursor().hasNext());
+        assertEquals(-1, blockPostingList.cursor().advance(5));
+        postingList.add(0);
+        assertRoundTrip(postingList);
+        postingList = new PostingList();
+        postingList.add(Integer.MAX_VALUE);
+        assertRoundTrip(postingList);
+    }
+
+    @Test
+    public void testBlockBoundaries() {
+        Random random = new Random(1);
+        int[] sizes = {1, 2, 127, 128, 129, 255, 256, 257, 1000};
+        for (int size : sizes){
+            assertRoundTrip(randomPostingList(random, size, 10));
+            assertRoundTrip(randomPostingList(random, size, 1));
+        }
+    }
+
+    @Test
+    public void testExceptions() {
+        Random random = new Random(2);
+        for (int t = 0; t < 50; t++){
+            PostingList postingList = new PostingList();
+            int docId = 0;
+            for (int i = 0; i < 500; i++){
+                postingList.add(docId);
+                if (random.nextInt(20) == 0){
+                    docId += 1 + random.nextInt(1 << 20);
+                } else {
+                    docId += 1 + random.nextInt(4);
+                }
+            }
+            assertRoundTrip(postingList);
+        }
+        PostingList postingList = new PostingList();
+        postingList.add(1);
+        postingList.add(2);
+        postingList.add(Integer.MAX_VALUE - 1);
+        postingList.add(Integer.MAX_VALUE);
+        assertRoundTrip(postingList);
+    }
+
+    @Test
+    public void testAdvance() {
+        Random random = new Random(3);
+        PostingList postingList = randomPostingList(random, 2000, 50);
+        BlockPostingList blockPostingList = new BlockPostingList(postingList);
+        for (int t = 0; t < 100; t++){
+            PostingCursor cursor = blockPostingList.cursor();
+            int index = 0, target = 0;
+            while (true){
+                target += 1 + random.nextInt(3000);
+                while (index < postingList.size() && postingList.get(index) < target){
+                    index++;
+                }
+                int docId = cursor.advance(target);
+                if (index == postingList.size()){
+                    assertEquals(-1, docId);
+                    assertEquals(false, cursor.hasNext());
+                    break;
+                }
+                assertEquals(postingList.get(index), docId);
+                index++;
+                assertEquals(index < postingList.size(), cursor.hasNext());
+                if (cursor.hasNext() && random.nextBoolean()){
+                    assertEquals(postingList.get(index), cursor.next());
+                    target = postingList.get(index);
+                    index++;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIntersection() {
+        Random random = new Random(4);
+        for (int t = 0; t < 50; t++){
+            PostingList list1 = randomPostingList(random, 1 + random.nextInt(2000), 1 + random.nextInt(20));
+            PostingList list2 = randomPostingList(random, 1 + random.nextInt(50), 1 + random.nextInt(2000));
+            String expected = list1.intersection(list2).toString();
+            assertEquals(expected, new BlockPostingList(list1).intersection(new BlockPostingList(list2)).toPostingList().toString());
+            assertEquals(expected, new BlockPostingList(list2).intersection(new BlockPostingList(list1)).toPostingList().toString());
+            assertEquals(expected, new VariableBytePostingList(list1).intersection(new BlockPostingList(list2)).toPostingList().toString());
+        }
+    }
+
+    @Test
+    public void testMissingCompressedPostingList() {
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator());
+        dictionary.addTerm("elma", 0);
+        dictionary.addTerm("armut", 1);
+        for (CompressionType compressionType : new CompressionType[]{CompressionType.VARIABLE_BYTE, CompressionType.PFOR_DELTA}){
+            InvertedIndex invertedIndex = new InvertedIndex();
+            invertedIndex.compress(compressionType);
+            assertEquals(0, invertedIndex.search(new Query("elma"), dictionary).size());
+            assertEquals(0, invertedIndex.search(new Query("elma armut"), dictionary).size());
+        }
+    }
+
+}
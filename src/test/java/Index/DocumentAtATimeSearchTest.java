@@ -0,0 +1,187 @@
+package Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Document.DocumentWeighting;
+import InformationRetrieval.Index.PositionalIndex;
+import InformationRetrieval.Index.TermDictionary;
+import InformationRetrieval.Index.TermWeighting;
+import InformationRetrieval.Query.Query;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.RankingStrategy;
+import InformationRetrieval.Query.SearchParameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class DocumentAtATimeSearchTest {
+
+    private static final int TERM_COUNT = 40;
+
+    private static final int DOCUMENT_COUNT = 600;
+
+    private TermDictionary dictionary;
+
+    private PositionalIndex positionalIndex;
+
+    private ArrayList<Document> documents;
+
+    private void createCollection(Random random){
+        RandomCollection collection = new RandomCollection(random, TERM_COUNT, DOCUMENT_COUNT, 6);
+        dictionary = collection.getDictionary();
+        positionalIndex = collection.getPositionalIndex();
+        documents = collection.getDocuments();
+    }
+
+    private Query randomQuery(Random random){
+        StringBuilder query = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++){
+            if (i > 0){
+                query.append(" ");
+            }
+            if (random.nextInt(10) == 0){
+                query.append("yok");
+            } else {
+                query.append(dictionary.getWord(random.nextInt(dictionary.size())).getName());
+            }
+        }
+        return new Query(query.toString());
+    }
+
+    private void assertSameResults(QueryResult expected, QueryResult result){
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < result.size(); i++){
+            assertEquals(expected.getItems().get(i).getDocId(), result.getItems().get(i).getDocId());
+            assertEquals(expected.getItems().get(i).getScore(), result.getItems().get(i).getScore(), 0.0);
+        }
+    }
+
+    private void compareStrategies(Random random, RankingStrategy rankingStrategy){
+        int[] Ks = {1, 3, 10, 50};
+        for (int test = 0; test < 300; test++){
+            Query query = randomQuery(random);
+            SearchParameter searchParameter = new SearchParameter();
+            searchParameter.setTermWeighting(TermWeighting.values()[random.nextInt(TermWeighting.values().length)]);
+            searchParameter.setDocumentWeighting(DocumentWeighting.values()[random.nextInt(DocumentWeighting.values().length)]);
+            int K = Ks[random.nextInt(Ks.length)];
+            QueryResult expected = positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, K);
+            searchParameter.setRankingStrategy(rankingStrategy);
+            assertSameResults(expected, positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, K));
+        }
+    }
+
+    @Test
+    public void testWandEqualsExhaustive() {
+        Random random = new Random(1);
+        createCollection(random);
+        compareStrategies(random, RankingStrategy.WAND);
+        positionalIndex.compress();
+        compareStrategies(random, RankingStrategy.WAND);
+    }
+
+    @Test
+    public void testBlockMaxWandEqualsExhaustive() {
+        Random random = new Random(2);
+        createCollection(random);
+        compareStrategies(random, RankingStrategy.BLOCK_MAX_WAND);
+        positionalIndex.compress();
+        compareStrategies(random, RankingStrategy.BLOCK_MAX_WAND);
+    }
+
+    @Test
+    public void testMaxScoreEqualsExhaustive() {
+        Random random = new Random(3);
+        createCollection(random);
+        compareStrategies(random, RankingStrategy.MAX_SCORE);
+        positionalIndex.compress();
+        compareStrategies(random, RankingStrategy.MAX_SCORE);
+    }
+
+    @Test
+    public void testCompressedRankedSearch() {
+        Random random = new Random(5);
+        createCollection(random);
+        ArrayList<Query> queries = new ArrayList<>();
+        ArrayList<QueryResult> candidates = new ArrayList<>();
+        ArrayList<QueryResult> expected = new ArrayList<>();
+        SearchParameter searchParameter = new SearchParameter();
+        for (int test = 0; test < 200; test++){
+            Query query = randomQuery(random);
+            QueryResult candidate = new QueryResult();
+            for (int docId = random.nextInt(5); docId < DOCUMENT_COUNT; docId += 1 + random.nextInt(5)){
+                candidate.add(docId);
+            }
+            queries.add(query);
+            candidates.add(candidate);
+            expected.add(positionalIndex.rankedSearch(query, dictionary, documents, searchParameter));
+            expected.add(positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, 10));
+            expected.add(positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, 10, candidate));
+        }
+        positionalIndex.compress();
+        for (int test = 0; test < queries.size(); test++){
+            Query query = queries.get(test);
+            assertSameResults(expected.get(3 * test), positionalIndex.rankedSearch(query, dictionary, documents, searchParameter));
+            assertSameResults(expected.get(3 * test + 1), positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, 10));
+            assertSameResults(expected.get(3 * test + 2), positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, 10, candidates.get(test)));
+        }
+    }
+
+    private static class SearchTask implements Callable<QueryResult> {
+
+        private final RandomCollection collection;
+
+        private final Query query;
+
+        private final SearchParameter searchParameter;
+
+        SearchTask(RandomCollection collection, Query query, SearchParameter searchParameter){
+            this.collection = collection;
+            this.query = query;
+            this.searchParameter = searchParameter;
+        }
+
+        public QueryResult call(){
+            return collection.getPositionalIndex().rankedSearch(query, collection.getDictionary(), collection.getDocuments(), searchParameter, 10);
+        }
+    }
+
+    @Test
+    public void testConcurrentSearch() throws InterruptedException, ExecutionException {
+        Random random = new Random(4);
+        RandomCollection collection = new RandomCollection(random, TERM_COUNT, 20 * DOCUMENT_COUNT, 6);
+        RandomCollection sequential = new RandomCollection(new Random(4), TERM_COUNT, 20 * DOCUMENT_COUNT, 6);
+        dictionary = sequential.getDictionary();
+        ArrayList<QueryResult> expected = new ArrayList<>();
+        ArrayList<Future<QueryResult>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int test = 0; test < 1000; test++){
+                Query query = randomQuery(random);
+                SearchParameter searchParameter = new SearchParameter();
+                searchParameter.setTermWeighting(TermWeighting.values()[random.nextInt(TermWeighting.values().length)]);
+                searchParameter.setDocumentWeighting(DocumentWeighting.values()[random.nextInt(DocumentWeighting.values().length)]);
+                searchParameter.setRankingStrategy(RankingStrategy.values()[random.nextInt(RankingStrategy.values().length)]);
+                expected.add(sequential.getPositionalIndex().rankedSearch(query, dictionary, sequential.getDocuments(), searchParameter, 10));
+                results.add(executor.submit(new SearchTask(collection, query, searchParameter)));
+            }
+            for (int test = 0; test < expected.size(); test++){
+                QueryResult result = results.get(test).get();
+                assertEquals(expected.get(test).size(), result.size());
+                for (int i = 0; i < result.size(); i++){
+                    assertEquals(expected.get(test).getItems().get(i).getDocId(), result.getItems().get(i).getDocId());
+                    assertEquals(expected.get(test).getItems().get(i).getScore(), result.getItems().get(i).getScore(), 0.0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
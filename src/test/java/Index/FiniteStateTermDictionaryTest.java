@@ -0,0 +1,60 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.FiniteStateTermDictionary;
+import InformationRetrieval.Index.TermDictionary;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class FiniteStateTermDictionaryTest {
+
+    private void compare(TermDictionary expected, TermDictionary dictionary){
+        assertEquals(expected.size(), dictionary.size());
+        for (int i = 0; i < expected.size(); i++){
+            String name = expected.getWord(i).getName();
+            assertEquals(name, dictionary.getWord(i).getName());
+            assertEquals(i, dictionary.getWordIndex(name));
+            assertEquals(expected.getTermId(name), dictionary.getTermId(name));
+            assertEquals(name, dictionary.getTerm(expected.getTermId(name)).getName());
+        }
+        assertEquals(-1, dictionary.getWordIndex("qqqqqq"));
+        assertEquals(-1, dictionary.getWordIndex(""));
+        for (String prefix : new String[]{"a", "b", "ka", "ma", "s", "ü", "zzz", ""}){
+            assertEquals(expected.getWordStartingWith(prefix), dictionary.getWordStartingWith(prefix));
+            ArrayList<String> words = new ArrayList<>();
+            for (int i = 0; i < expected.size(); i++){
+                if (expected.getWord(i).getName().startsWith(prefix)){
+                    words.add(expected.getWord(i).getName());
+                }
+            }
+            assertEquals(words, dictionary.getWordsStartingWith(prefix));
+        }
+    }
+
+    @Test
+    public void testAutomaton() {
+        TurkishWordComparator comparator = new TurkishWordComparator();
+        for (String name : new String[]{"testCollection2", "testCollection3", "testCollection3-phrase"}){
+            TermDictionary dictionary = new TermDictionary(comparator, name);
+            FiniteStateTermDictionary finiteState = new FiniteStateTermDictionary(comparator, dictionary);
+            compare(dictionary, finiteState);
+            assertTrue(finiteState.estimatedMemory() > 0);
+            assertTrue(finiteState.estimatedMemory() < dictionary.estimatedMemory());
+        }
+    }
+
+    @Test
+    public void testHashTermIds() {
+        TurkishWordComparator comparator = new TurkishWordComparator();
+        TermDictionary dictionary = new TermDictionary(comparator);
+        String[] names = {"kitap", "kitaplık", "kitapçı", "kalem", "defter", "silgi", "kağıt", "çanta", "kitaplar"};
+        for (String name : names){
+            dictionary.addTerm(name, Math.abs(name.hashCode()));
+        }
+        compare(dictionary, new FiniteStateTermDictionary(comparator, dictionary));
+        assertEquals(0, new FiniteStateTermDictionary(comparator, new TermDictionary(comparator)).getWordsStartingWith("").size());
+    }
+}
@@ -0,0 +1,63 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.FrontCodedTermDictionary;
+import InformationRetrieval.Index.TermDictionary;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class FrontCodedTermDictionaryTest {
+
+    private void compare(TermDictionary expected, TermDictionary dictionary){
+        assertEquals(expected.size(), dictionary.size());
+        for (int i = 0; i < expected.size(); i++){
+            String name = expected.getWord(i).getName();
+            assertEquals(name, dictionary.getWord(i).getName());
+            assertEquals(i, dictionary.getWordIndex(name));
+            assertEquals(expected.getTermId(name), dictionary.getTermId(name));
+            assertEquals(name, dictionary.getTerm(expected.getTermId(name)).getName());
+        }
+        assertEquals(-1, dictionary.getWordIndex("qqqqqq"));
+        assertEquals(-1, dictionary.getWordIndex(""));
+        for (String prefix : new String[]{"a", "b", "ka", "ma", "s", "ü", "zzz", ""}){
+            assertEquals(expected.getWordStartingWith(prefix), dictionary.getWordStartingWith(prefix));
+            assertEquals(expected.getWordsStartingWith(prefix), dictionary.getWordsStartingWith(prefix));
+        }
+    }
+
+    @Test
+    public void testFrontCoding() throws IOException {
+        TurkishWordComparator comparator = new TurkishWordComparator();
+        for (String name : new String[]{"testCollection2", "testCollection3", "testCollection3-phrase"}){
+            TermDictionary dictionary = new TermDictionary(comparator, name);
+            FrontCodedTermDictionary frontCoded = new FrontCodedTermDictionary(comparator, dictionary);
+            compare(dictionary, frontCoded);
+            assertTrue(frontCoded.estimatedMemory() > 0);
+            assertTrue(frontCoded.estimatedMemory() < dictionary.estimatedMemory());
+            File directory = Files.createTempDirectory("frontCoded").toFile();
+            String fileName = new File(directory, "dictionary").getPath();
+            frontCoded.saveFrontCoded(fileName);
+            FrontCodedTermDictionary mapped = new FrontCodedTermDictionary(comparator, fileName);
+            compare(dictionary, mapped);
+            assertTrue(mapped.estimatedMemory() < frontCoded.estimatedMemory());
+            new File(fileName + "-frontCodedDictionary.bin").delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testHashTermIds() {
+        TurkishWordComparator comparator = new TurkishWordComparator();
+        TermDictionary dictionary = new TermDictionary(comparator);
+        String[] names = {"kitap", "kitaplık", "kitapçı", "kalem", "defter", "silgi", "kağıt", "çanta"};
+        for (String name : names){
+            dictionary.addTerm(name, Math.abs(name.hashCode()));
+        }
+        compare(dictionary, new FrontCodedTermDictionary(comparator, dictionary));
+    }
+}
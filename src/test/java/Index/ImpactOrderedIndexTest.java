@@ -0,0 +1,80 @@
+package Index;
+
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Document.DocumentWeighting;
+import InformationRetrieval.Index.ImpactOrderedIndex;
+import InformationRetrieval.Index.ImpactOrderedPostingList;
+import InformationRetrieval.Index.PositionalIndex;
+import InformationRetrieval.Index.TermDictionary;
+import InformationRetrieval.Index.TermWeighting;
+import InformationRetrieval.Query.Query;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.QueryResultItem;
+import InformationRetrieval.Query.RankingStrategy;
+import InformationRetrieval.Query.SearchParameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ImpactOrderedIndexTest {
+
+    @Test
+    public void testSegments() {
+        int[] docIds = {1, 3, 4, 8, 9, 12, 15};
+        int[] impacts = {2, 7, 2, 0, 7, 5, 2};
+        ImpactOrderedPostingList postingList = new ImpactOrderedPostingList(docIds, impacts, 10);
+        assertEquals(4, postingList.segmentCount());
+        int[] expectedImpacts = {7, 5, 2, 0};
+        int[] expectedDocIds = {3, 9, 12, 1, 4, 15, 8};
+        for (int i = 0; i < postingList.segmentCount(); i++){
+            assertEquals(expectedImpacts[i], postingList.getImpact(i));
+        }
+        assertEquals(0, postingList.segmentStart(0));
+        assertEquals(2, postingList.segmentEnd(0));
+        assertEquals(7, postingList.segmentEnd(3));
+        for (int i = 0; i < postingList.size(); i++){
+            assertEquals(expectedDocIds[i], postingList.getDocId(i));
+        }
+    }
+
+    @Test
+    public void testScoreAtATimeSearch() {
+        Random random = new Random(1);
+        RandomCollection collection = new RandomCollection(random, 30, 400, 4);
+        TermDictionary dictionary = collection.getDictionary();
+        PositionalIndex positionalIndex = collection.getPositionalIndex();
+        ArrayList<Document> documents = collection.getDocuments();
+        for (int test = 0; test < 100; test++){
+            Query query = new Query(dictionary.getWord(random.nextInt(30)).getName() + " " + dictionary.getWord(random.nextInt(30)).getName());
+            SearchParameter searchParameter = new SearchParameter();
+            searchParameter.setTermWeighting(TermWeighting.values()[random.nextInt(TermWeighting.values().length)]);
+            searchParameter.setDocumentWeighting(DocumentWeighting.values()[random.nextInt(DocumentWeighting.values().length)]);
+            QueryResult exhaustive = positionalIndex.rankedSearch(query, dictionary, documents, searchParameter);
+            HashMap<Integer, Double> scores = new HashMap<>();
+            for (QueryResultItem item : exhaustive.getItems()){
+                scores.put(item.getDocId(), item.getScore());
+            }
+            double maxWeight = 0.0;
+            for (int term = 0; term < 30; term++){
+                QueryResult single = positionalIndex.rankedSearch(new Query(dictionary.getWord(term).getName()), dictionary, documents, searchParameter, 1);
+                maxWeight = Math.max(maxWeight, single.getItems().get(0).getScore());
+            }
+            searchParameter.setRankingStrategy(RankingStrategy.SCORE_AT_A_TIME);
+            QueryResult result = positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, exhaustive.size());
+            assertEquals(exhaustive.size(), result.size());
+            for (QueryResultItem item : result.getItems()){
+                double score = scores.get(item.getDocId());
+                assertTrue(item.getScore() >= score - 1e-9);
+                assertTrue(item.getScore() <= score + 2 * maxWeight / ImpactOrderedIndex.MAX_IMPACT + 1e-9);
+            }
+            searchParameter.setPostingBudget(5);
+            result = positionalIndex.rankedSearch(query, dictionary, documents, searchParameter, 10);
+            assertTrue(result.size() <= 5);
+            assertEquals(exhaustive.size() > 0, result.size() > 0);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package Index;
+
+import InformationRetrieval.Index.PositionalPostingList;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.QueryResultItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PositionalPostingListTest {
+
+    private String docIds(QueryResult queryResult){
+        StringBuilder result = new StringBuilder();
+        for (QueryResultItem item : queryResult.getItems()){
+            result.append(item.getDocId()).append(" ");
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testPhraseIntersection() {
+        Random random = new Random(1);
+        for (int t = 0; t < 200; t++){
+            int documentCount = 1 + random.nextInt(200), documentLength = 1 + random.nextInt(30);
+            int vocabularySize = 2 + random.nextInt(4), phraseLength = 1 + random.nextInt(4);
+            ArrayList<PositionalPostingList> index = new ArrayList<>();
+            for (int i = 0; i < vocabularySize; i++){
+                index.add(new PositionalPostingList());
+            }
+            for (int docId = 0; docId < documentCount; docId++){
+                for (int position = 0; position < documentLength; position++){
+                    index.get(random.nextInt(vocabularySize)).add(docId, position);
+                }
+            }
+            ArrayList<PositionalPostingList> phrase = new ArrayList<>();
+            for (int i = 0; i < phraseLength; i++){
+                phrase.add(index.get(random.nextInt(vocabularySize)));
+            }
+            PositionalPostingList expected = phrase.get(0);
+            for (int i = 1; i < phraseLength; i++){
+                expected = expected.intersection(phrase.get(i));
+            }
+            assertEquals(docIds(expected.toQueryResult()), docIds(PositionalPostingList.phraseIntersection(phrase)));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package Index;
+
+import InformationRetrieval.Index.PostingList;
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.QueryResultItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PostingListTest {
+
+    private PostingList randomPostingList(Random random, int size, int maxGap){
+        PostingList postingList = new PostingList();
+        int docId = random.nextInt(maxGap);
+        for (int i = 0; i < size; i++){
+            postingList.add(docId);
+            docId += 1 + random.nextInt(maxGap);
+        }
+        return postingList;
+    }
+
+    private String docIds(QueryResult queryResult){
+        StringBuilder result = new StringBuilder();
+        for (QueryResultItem item : queryResult.getItems()){
+            result.append(item.getDocId()).append(" ");
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testEmpty() {
+        PostingList empty = new PostingList();
+        PostingList postingList = randomPostingList(new Random(1), 100, 5);
+        assertEquals(0, empty.intersection(postingList).size());
+        assertEquals(0, postingList.intersection(empty).size());
+        assertEquals(0, empty.intersection(empty).size());
+    }
+
+    @Test
+    public void testSkewedIntersection() {
+        Random random = new Random(2);
+        for (int t = 0; t < 100; t++){
+            PostingList shortList = randomPostingList(random, 1 + random.nextInt(20), 2000);
+            PostingList longList = randomPostingList(random, 1000 + random.nextInt(5000), 5);
+            String expected = shortList.linearIntersection(longList).toString();
+            assertEquals(expected, shortList.intersection(longList).toString());
+            assertEquals(expected, longList.intersection(shortList).toString());
+            assertEquals(expected, shortList.gallopingIntersection(longList).toString());
+        }
+    }
+
+    @Test
+    public void testBalancedIntersection() {
+        Random random = new Random(3);
+        for (int t = 0; t < 100; t++){
+            PostingList list1 = randomPostingList(random, random.nextInt(500), 3);
+            PostingList list2 = randomPostingList(random, random.nextInt(500), 3);
+            assertEquals(list1.linearIntersection(list2).toString(), list1.intersection(list2).toString());
+            assertEquals(list1.linearIntersection(list2).toString(), list1.gallopingIntersection(list2).toString());
+        }
+    }
+
+    @Test
+    public void testSkipPointersOnShortLists() {
+        PostingList postingList = new PostingList();
+        postingList.addSkipPointers();
+        assertEquals(true, postingList.hasSkipPointers());
+        assertEquals(0, postingList.intersection(postingList).size());
+        for (int i = 0; i < 5; i++){
+            postingList.add(2 * i);
+            assertEquals(false, postingList.hasSkipPointers());
+            postingList.addSkipPointers();
+            assertEquals(postingList.toString(), postingList.intersection(postingList).toString());
+        }
+    }
+
+    @Test
+    public void testSkipIntersection() {
+        Random random = new Random(5);
+        for (int t = 0; t < 200; t++){
+            PostingList list1 = randomPostingList(random, random.nextInt(2000), 1 + random.nextInt(20));
+            PostingList list2 = randomPostingList(random, random.nextInt(2000), 1 + random.nextInt(20));
+            String expected = list1.linearIntersection(list2).toString();
+            if (random.nextBoolean()){
+                list1.addSkipPointers();
+            }
+            list2.addSkipPointers();
+            assertEquals(expected, list1.skipIntersection(list2).toString());
+            assertEquals(expected, list2.skipIntersection(list1).toString());
+            assertEquals(expected, list1.intersection(list2).toString());
+        }
+    }
+
+    @Test
+    public void testMultiWayIntersection() {
+        Random random = new Random(6);
+        for (int t = 0; t < 200; t++){
+            ArrayList<PostingList> postingLists = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int i = 0; i < count; i++){
+                postingLists.add(randomPostingList(random, random.nextInt(3000), 1 + random.nextInt(4)));
+            }
+            PostingList expected = postingLists.get(0);
+            for (int i = 1; i < count; i++){
+                expected = expected.linearIntersection(postingLists.get(i));
+            }
+            assertEquals(docIds(expected.toQueryResult()), docIds(PostingList.multiWayIntersection(postingLists)));
+        }
+    }
+
+    @Test
+    public void testQueryResultIntersection() {
+        Random random = new Random(4);
+        for (int t = 0; t < 100; t++){
+            PostingList shortList = randomPostingList(random, 1 + random.nextInt(30), 500);
+            PostingList longList = randomPostingList(random, 1 + random.nextInt(3000), 4);
+            String expected = docIds(shortList.linearIntersection(longList).toQueryResult());
+            QueryResult shortResult = shortList.toQueryResult();
+            QueryResult longResult = longList.toQueryResult();
+            assertEquals(expected, docIds(shortResult.intersectionFastSearch(longResult)));
+            assertEquals(expected, docIds(longResult.intersectionFastSearch(shortResult)));
+            assertEquals(expected, docIds(shortResult.intersectionBinarySearch(longResult)));
+            assertEquals(expected, docIds(shortResult.intersectionLinearSearch(longResult)));
+        }
+    }
+}
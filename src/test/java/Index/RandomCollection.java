@@ -0,0 +1,61 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Document.Document;
+import InformationRetrieval.Document.DocumentType;
+import InformationRetrieval.Index.PositionalIndex;
+import InformationRetrieval.Index.TermDictionary;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Random document collection used by the ranked search tests. The term with index i occurs in a document with
+ * probability 1 / (i + 2), so the postings lists range from very long to short, and each occurrence repeats a random
+ * number of times.
+ */
+public class RandomCollection {
+
+    private final TermDictionary dictionary;
+
+    private final PositionalIndex positionalIndex;
+
+    private final ArrayList<Document> documents;
+
+    public RandomCollection(Random random, int termCount, int documentCount, int maxTermFrequency){
+        HashSet<String> words = new HashSet<>();
+        for (int i = 0; i < termCount; i++){
+            words.add("kelime" + (char) ('a' + i / 26) + (char) ('a' + i % 26));
+        }
+        dictionary = new TermDictionary(new TurkishWordComparator(), words);
+        positionalIndex = new PositionalIndex();
+        documents = new ArrayList<>();
+        for (int docId = 0; docId < documentCount; docId++){
+            documents.add(new Document(DocumentType.NORMAL, "", "", docId));
+            int position = 0;
+            for (int term = 0; term < termCount; term++){
+                if (random.nextInt(term + 2) == 0){
+                    int tf = 1 + random.nextInt(1 + random.nextInt(maxTermFrequency));
+                    for (int j = 0; j < tf; j++){
+                        positionalIndex.addPosition(term, docId, position);
+                        position++;
+                    }
+                }
+            }
+        }
+        positionalIndex.setDocumentSizes(documents);
+    }
+
+    public TermDictionary getDictionary(){
+        return dictionary;
+    }
+
+    public PositionalIndex getPositionalIndex(){
+        return positionalIndex;
+    }
+
+    public ArrayList<Document> getDocuments(){
+        return documents;
+    }
+}
@@ -0,0 +1,114 @@
+package Index;
+
+import InformationRetrieval.Index.RoaringBitmap;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RoaringBitmapTest {
+    private static final int UNIVERSE = 1 << 20;
+
+    private boolean[] randomSet(Random random){
+        boolean[] set = new boolean[UNIVERSE];
+        int partitions = UNIVERSE >>> 16;
+        for (int partition = 0; partition < partitions; partition++){
+            int base = partition << 16;
+            switch (random.nextInt(4)){
+                case 0:
+                    for (int i = 0; i < 100; i++){
+                        set[base + random.nextInt(1 << 16)] = true;
+                    }
+                    break;
+                case 1:
+                    for (int i = 0; i < 30000; i++){
+                        set[base + random.nextInt(1 << 16)] = true;
+                    }
+                    break;
+                case 2:
+                    for (int run = 0; run < 5; run++){
+                        int start = random.nextInt(1 << 16);
+                        int length = random.nextInt(20000);
+                        for (int i = start; i < Math.min(start + length, 1 << 16); i++){
+                            set[base + i] = true;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return set;
+    }
+
+    private RoaringBitmap toBitmap(boolean[] set, Random random){
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < set.length; i++){
+            if (set[i]){
+                bitmap.add(i);
+            }
+        }
+        if (random.nextBoolean()){
+            bitmap.optimize();
+        }
+        return bitmap;
+    }
+
+    private void assertSame(boolean[] expected, RoaringBitmap bitmap){
+        int count = 0;
+        int[] values = bitmap.toArray();
+        for (int i = 0; i < expected.length; i++){
+            if (expected[i]){
+                assertEquals(i, values[count]);
+                count++;
+            }
+        }
+        assertEquals(count, values.length);
+        assertEquals(count, bitmap.cardinality());
+    }
+
+    @Test
+    public void testAddAndContains() {
+        Random random = new Random(1);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        boolean[] set = new boolean[UNIVERSE];
+        for (int i = 0; i < 50000; i++){
+            int value = random.nextInt(UNIVERSE);
+            set[value] = true;
+            bitmap.add(value);
+        }
+        for (int i = 0; i < 10000; i++){
+            int value = random.nextInt(UNIVERSE);
+            assertEquals(set[value], bitmap.contains(value));
+        }
+        assertSame(set, bitmap);
+        bitmap.optimize();
+        assertSame(set, bitmap);
+    }
+
+    @Test
+    public void testOperations() {
+        Random random = new Random(2);
+        for (int t = 0; t < 5; t++){
+            boolean[] set1 = randomSet(random), set2 = randomSet(random);
+            boolean[] and = new boolean[UNIVERSE], or = new boolean[UNIVERSE], andNot = new boolean[UNIVERSE];
+            for (int i = 0; i < UNIVERSE; i++){
+                and[i] = set1[i] && set2[i];
+                or[i] = set1[i] || set2[i];
+                andNot[i] = set1[i] && !set2[i];
+            }
+            RoaringBitmap bitmap1 = toBitmap(set1, random), bitmap2 = toBitmap(set2, random);
+            assertSame(and, bitmap1.and(bitmap2));
+            assertSame(or, bitmap1.or(bitmap2));
+            assertSame(andNot, bitmap1.andNot(bitmap2));
+            assertSame(set1, bitmap1);
+            assertSame(set2, bitmap2);
+            long[] words = bitmap1.toWords(UNIVERSE);
+            bitmap2.andWords(words);
+            for (int i = 0; i < UNIVERSE; i++){
+                assertEquals(and[i], (words[i >>> 6] & (1L << i)) != 0);
+            }
+        }
+    }
+}
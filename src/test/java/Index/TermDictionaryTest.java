@@ -0,0 +1,64 @@
+package Index;
+
+import Dictionary.TurkishWordComparator;
+import InformationRetrieval.Index.InvertedIndex;
+import InformationRetrieval.Index.PositionalIndex;
+import InformationRetrieval.Index.Term;
+import InformationRetrieval.Index.TermDictionary;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TermDictionaryTest {
+
+    @Test
+    public void testUnsortedAddTerm() {
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator());
+        String[] names = {"elma", "armut", "çilek", "kiraz", "ayva", "üzüm", "incir"};
+        for (int i = 0; i < names.length; i++){
+            dictionary.addTerm(names[i], 100 + i);
+        }
+        assertEquals(101, dictionary.getTermId("armut"));
+        assertEquals(105, dictionary.getTermId("üzüm"));
+        assertEquals(-1, dictionary.getTermId("muz"));
+        assertEquals("incir", dictionary.getWord("incir").getName());
+        assertNull(dictionary.getWord("muz"));
+        for (int i = 0; i < dictionary.size() - 1; i++){
+            assertTrue(new TurkishWordComparator().compare(dictionary.getWord(i), dictionary.getWord(i + 1)) < 0);
+        }
+        for (int i = 0; i < dictionary.size(); i++){
+            assertEquals(i, dictionary.getWordIndex(dictionary.getWord(i).getName()));
+        }
+        dictionary.addTerm("muz", 200);
+        int index = dictionary.getWordIndex("muz");
+        assertEquals("muz", dictionary.getWord(index).getName());
+        assertEquals(200, ((Term) dictionary.getWord(index)).getTermId());
+        assertEquals(-1, dictionary.getWordIndex("nar"));
+    }
+
+    @Test
+    public void testEstimatedMemory() {
+        TermDictionary dictionary = new TermDictionary(new TurkishWordComparator());
+        InvertedIndex invertedIndex = new InvertedIndex();
+        PositionalIndex positionalIndex = new PositionalIndex();
+        assertEquals(0, dictionary.estimatedMemory());
+        assertEquals(0, invertedIndex.estimatedMemory());
+        assertEquals(0, positionalIndex.estimatedMemory());
+        dictionary.addTerm("elma", 1);
+        long dictionaryMemory = dictionary.estimatedMemory();
+        dictionary.addTerm("armut", 2);
+        assertTrue(dictionary.estimatedMemory() > dictionaryMemory);
+        invertedIndex.add(1, 0);
+        long indexMemory = invertedIndex.estimatedMemory();
+        invertedIndex.add(1, 1);
+        assertTrue(invertedIndex.estimatedMemory() > indexMemory);
+        invertedIndex.add(2, 1);
+        assertTrue(invertedIndex.estimatedMemory() - indexMemory > indexMemory);
+        positionalIndex.addPosition(1, 0, 0);
+        long positionalMemory = positionalIndex.estimatedMemory();
+        positionalIndex.addPosition(1, 0, 3);
+        long positionMemory = positionalIndex.estimatedMemory() - positionalMemory;
+        positionalIndex.addPosition(1, 1, 0);
+        assertTrue(positionalIndex.estimatedMemory() - positionalMemory > 2 * positionMemory);
+    }
+}
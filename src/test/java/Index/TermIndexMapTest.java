@@ -0,0 +1,56 @@
+package Index;
+
+import InformationRetrieval.Index.TermIndexMap;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class TermIndexMapTest {
+
+    private void check(TreeMap<Integer, Integer> expected, TermIndexMap<Integer> map){
+        assertEquals(expected.size(), map.size());
+        int[] keys = map.keys();
+        int i = 0;
+        for (Integer key : expected.keySet()){
+            assertEquals((int) key, keys[i]);
+            assertEquals(expected.get(key), map.get(key));
+            i++;
+        }
+    }
+
+    @Test
+    public void testDenseIds() {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        TermIndexMap<Integer> map = new TermIndexMap<>();
+        for (int i = 0; i < 5000; i++){
+            expected.put(i, 2 * i);
+            map.put(i, 2 * i);
+        }
+        map.put(17, 5);
+        expected.put(17, 5);
+        check(expected, map);
+        assertNull(map.get(5000));
+        assertFalse(map.containsKey(-3));
+    }
+
+    @Test
+    public void testHashIds() {
+        Random random = new Random(1);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        TermIndexMap<Integer> map = new TermIndexMap<>();
+        for (int i = 0; i < 10000; i++){
+            int termId = i % 3 == 0 ? random.nextInt(50000) : Math.abs(random.nextInt());
+            expected.put(termId, i);
+            map.put(termId, i);
+        }
+        expected.put(Integer.MIN_VALUE, 1);
+        map.put(Integer.MIN_VALUE, 1);
+        check(expected, map);
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.keys().length);
+    }
+}
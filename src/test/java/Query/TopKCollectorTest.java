@@ -0,0 +1,63 @@
+package Query;
+
+import InformationRetrieval.Query.QueryResult;
+import InformationRetrieval.Query.TopKCollector;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TopKCollectorTest {
+
+    @Test
+    public void testRandomScores() {
+        Random random = new Random(1);
+        for (int test = 0; test < 200; test++){
+            int count = random.nextInt(300);
+            int K = random.nextInt(20);
+            long[] expected = new long[count];
+            TopKCollector collector = new TopKCollector(K);
+            for (int docId = 0; docId < count; docId++){
+                int score = random.nextInt(50);
+                expected[docId] = ((long) (50 - score) << 32) | docId;
+                collector.add(docId, score);
+            }
+            Arrays.sort(expected);
+            QueryResult result = collector.toQueryResult();
+            assertEquals(Math.min(K, count), result.size());
+            for (int i = 0; i < result.size(); i++){
+                assertEquals((int) expected[i], result.getItems().get(i).getDocId());
+                assertEquals(50 - (expected[i] >>> 32), result.getItems().get(i).getScore(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testThreshold() {
+        TopKCollector collector = new TopKCollector(2);
+        assertEquals(Double.NEGATIVE_INFINITY, collector.threshold(), 0.0);
+        collector.add(7, 1.0);
+        collector.add(3, 3.0);
+        assertEquals(1.0, collector.threshold(), 0.0);
+        collector.add(5, 2.0);
+        assertEquals(2.0, collector.threshold(), 0.0);
+        collector.add(9, 2.0);
+        assertEquals(5, collector.toQueryResult().getItems().get(1).getDocId());
+    }
+
+    @Test
+    public void testGetBest() {
+        QueryResult result = new QueryResult();
+        result.add(0, 1.0);
+        result.add(1, 2.0);
+        result.add(2, 5.0);
+        result.add(3, 4.0);
+        result.add(4, 4.0);
+        result.getBest(2);
+        assertEquals(2, result.size());
+        assertEquals(2, result.getItems().get(0).getDocId());
+        assertEquals(3, result.getItems().get(1).getDocId());
+    }
+}